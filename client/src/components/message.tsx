@@ -29,6 +29,7 @@ interface MessageProps {
     value: string;
     count: number;
     memberIds: string[];
+    reactedByMe?: boolean;
   }>;
   body: string;
   image: string | null | undefined;
@@ -14,6 +14,7 @@ interface ReactionsProps {
     value: string;
     count: number;
     memberIds: string[];
+    reactedByMe?: boolean;
   }>;
   onChange: (value: string) => void;
 }
@@ -39,7 +40,8 @@ export const Reactions = ({ data, onChange }: ReactionsProps) => {
             onClick={() => onChange(reaction.value)}
             className={cn(
               "h-6 px-2 rounded-full bg-slate-200/70 border border-transparent text-slate-800 flex items-center gap-x-1",
-              reaction.memberIds.includes(currentMemberId) &&
+              (reaction.reactedByMe ||
+                reaction.memberIds.includes(currentMemberId)) &&
                 "bg-blue-100/70 border-blue-500 text-white"
             )}
           >
@@ -47,7 +49,8 @@ export const Reactions = ({ data, onChange }: ReactionsProps) => {
             <span
               className={cn(
                 "text-xs font-semibold text-muted-foreground",
-                reaction.memberIds.includes(currentMemberId) &&
+                (reaction.reactedByMe ||
+                reaction.memberIds.includes(currentMemberId)) &&
                   "text-blue-500"
               )}
             >
@@ -6,29 +6,6 @@ function transformMessage(msg: any) {
   const member = msg.member || {};
   const user = member.user || {};
 
-  // Group reactions by value
-  const reactionsMap = new Map<
-    string,
-    { id: string; value: string; count: number; memberIds: string[] }
-  >();
-  if (msg.reactions && Array.isArray(msg.reactions)) {
-    for (const r of msg.reactions) {
-      const key = r.value;
-      if (reactionsMap.has(key)) {
-        const existing = reactionsMap.get(key)!;
-        existing.count++;
-        existing.memberIds.push(r.member?.id);
-      } else {
-        reactionsMap.set(key, {
-          id: r.id,
-          value: r.value,
-          count: 1,
-          memberIds: [r.member?.id],
-        });
-      }
-    }
-  }
-
   return {
     _id: msg.id,
     _creationTime: msg.createdAt,
@@ -43,12 +20,16 @@ function transformMessage(msg: any) {
       name: user.name,
       image: user.imageUrl,
     },
-    reactions: Array.from(reactionsMap.values()).map((r) => ({
-      _id: r.id,
-      value: r.value,
-      count: r.count,
-      memberIds: r.memberIds,
-    })),
+    // The server groups reactions by emoji and only sends the first few reactors
+    reactions: (Array.isArray(msg.reactions) ? msg.reactions : []).map(
+      (r: any) => ({
+        _id: r.value,
+        value: r.value,
+        count: r.count,
+        memberIds: (r.reactors || []).map((m: any) => m.id),
+        reactedByMe: !!r.reactedByMe,
+      })
+    ),
   };
 }
 
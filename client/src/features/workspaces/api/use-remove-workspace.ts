@@ -33,8 +33,9 @@ export const useRemoveWorkspace = () => {
         setError(null);
         setStatus("pending");
 
-        const response = await api.delete(`/workspaces/${values.id}`);
-        const result = response.data?.id ?? values.id;
+        // Answers 202 with the background delete job; the workspace itself is gone right away
+        await api.delete(`/workspaces/${values.id}`);
+        const result = values.id;
 
         setData(result);
         setStatus("success");
@@ -52,7 +52,7 @@ export const Conversation = ({ id }: ConversationProps) => {
       const event = JSON.parse(message.body);
       
       // Invalidate messages query to refetch and show new message
-      if (event.type === "MESSAGE_SENT" || event.type === "MESSAGE_UPDATED" || event.type === "MESSAGE_DELETED" || event.type === "REACTION_ADDED" || event.type === "REACTION_REMOVED") {
+      if (event.type === "MESSAGE_SENT" || event.type === "MESSAGE_UPDATED" || event.type === "MESSAGE_DELETED" || event.type === "REACTION_ADDED" || event.type === "REACTION_REMOVED" || event.type === "REACTION_DELTA" || event.type === "RESYNC") {
         queryClient.invalidateQueries({
           queryKey: ["messages", { channelId: undefined, conversationId: id, parentMessageId: undefined }],
         });
@@ -42,16 +42,16 @@ const WorkspaceLayout = () => {
     const subscriptionId = subscribe(destination, (message) => {
       const event = JSON.parse(message.body);
 
-      if (event.type === "MEMBER_JOINED" || event.type === "MEMBER_UPDATED" || event.type === "MEMBER_LEFT") {
+      if (event.type === "MEMBER_JOINED" || event.type === "MEMBER_UPDATED" || event.type === "MEMBER_LEFT" || event.type === "RESYNC") {
         queryClient.invalidateQueries({ queryKey: ["members", workspaceId] });
         queryClient.invalidateQueries({ queryKey: ["currentMember"] });
       }
 
-      if (event.type === "CHANNEL_CREATED" || event.type === "CHANNEL_UPDATED" || event.type === "CHANNEL_DELETED") {
+      if (event.type === "CHANNEL_CREATED" || event.type === "CHANNEL_UPDATED" || event.type === "CHANNEL_DELETED" || event.type === "RESYNC") {
         queryClient.invalidateQueries({ queryKey: ["channels", workspaceId] });
       }
 
-      if (event.type === "WORKSPACE_UPDATED" || event.type === "WORKSPACE_DELETED") {
+      if (event.type === "WORKSPACE_UPDATED" || event.type === "WORKSPACE_DELETED" || event.type === "RESYNC") {
         queryClient.invalidateQueries({ queryKey: ["workspaces"] });
         queryClient.invalidateQueries({ queryKey: ["workspace", workspaceId] });
       }
@@ -116,6 +116,7 @@ export type EventType =
   | "MEMBER_LEFT"
   | "REACTION_ADDED"
   | "REACTION_REMOVED"
+  | "REACTION_DELTA"
   | "CONVERSATION_CREATED"
   | "CONVERSATION_UPDATED"
   | "CONVERSATION_DELETED"
@@ -123,7 +124,8 @@ export type EventType =
   | "WORKSPACE_UPDATED"
   | "WORKSPACE_DELETED"
   | "PRESENCE_UPDATE"
-  | "TYPING_UPDATE";
+  | "TYPING_UPDATE"
+  | "RESYNC";
 
 export interface WebSocketEvent<T = unknown> {
   type: EventType;
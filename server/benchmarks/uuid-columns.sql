@@ -0,0 +1,119 @@
+-- Text vs native uuid ids on a messages-shaped table.
+--
+--   psql -h localhost -U postgres -d slack_db -f server/benchmarks/uuid-columns.sql
+--
+-- Builds two 10M-row copies of the messages id/foreign-key layout in a scratch schema, one with varchar ids
+-- and one with uuid ids, then reports table and index sizes, bulk and single-row insert time, and point,
+-- timeline and thread query latency. Ids are time-ordered like TimeOrderedIds, so inserts append to the
+-- primary key the way production does. Drops the schema at the end. Takes a few minutes and ~6 GB of disk.
+
+\set rows 10000000
+\set channels 2000
+\timing on
+
+DROP SCHEMA IF EXISTS uuid_bench CASCADE;
+CREATE SCHEMA uuid_bench;
+SET search_path = uuid_bench;
+
+-- UUIDv7-shaped id for row n: 48-bit millisecond timestamp, then random bits
+CREATE FUNCTION v7(n bigint) RETURNS uuid LANGUAGE sql AS $$
+    SELECT (lpad(to_hex(1700000000000 + n), 12, '0') || '7' ||
+            substr(md5(n::text), 1, 3) || '8' || substr(md5(n::text), 4, 15))::uuid
+$$;
+
+CREATE TABLE ids AS
+    SELECT n, v7(n) AS id, v7(n % :channels) AS channel_id, v7(n % 500 + 1000000000) AS member_id,
+           CASE WHEN n % 10 = 0 THEN v7(n - n % 100 + 1) END AS parent_id
+    FROM generate_series(1, :rows) n;
+
+CREATE TABLE messages_text (
+    id varchar(255) PRIMARY KEY, channel_id varchar(255), member_id varchar(255), parent_message_id varchar(255),
+    created_at bigint NOT NULL);
+CREATE TABLE messages_uuid (
+    id uuid PRIMARY KEY, channel_id uuid, member_id uuid, parent_message_id uuid, created_at bigint NOT NULL);
+
+\echo '== bulk insert, 10M rows, indexes in place'
+CREATE INDEX ON messages_text (channel_id, created_at, id);
+CREATE INDEX ON messages_text (parent_message_id, created_at);
+CREATE INDEX ON messages_uuid (channel_id, created_at, id);
+CREATE INDEX ON messages_uuid (parent_message_id, created_at);
+INSERT INTO messages_text SELECT id::text, channel_id::text, member_id::text, parent_id::text, n FROM ids;
+INSERT INTO messages_uuid SELECT id, channel_id, member_id, parent_id, n FROM ids;
+VACUUM ANALYZE messages_text;
+VACUUM ANALYZE messages_uuid;
+
+\echo '== sizes'
+SELECT c.relname, pg_size_pretty(pg_relation_size(c.oid)) AS size
+FROM pg_class c JOIN pg_namespace s ON s.oid = c.relnamespace
+WHERE s.nspname = 'uuid_bench' AND c.relname LIKE 'messages_%' ORDER BY c.relname;
+
+\echo '== single-row inserts, 10k each'
+DO $$
+DECLARE t timestamptz;
+BEGIN
+    t := clock_timestamp();
+    FOR i IN 1..10000 LOOP
+        INSERT INTO messages_text VALUES (v7(20000000 + i)::text, v7(i % 2000)::text, v7(i % 500 + 1000000000)::text, NULL, i);
+    END LOOP;
+    RAISE NOTICE 'text: % us/row', round(extract(epoch FROM clock_timestamp() - t) * 100, 1);
+    t := clock_timestamp();
+    FOR i IN 1..10000 LOOP
+        INSERT INTO messages_uuid VALUES (v7(20000000 + i), v7(i % 2000), v7(i % 500 + 1000000000), NULL, i);
+    END LOOP;
+    RAISE NOTICE 'uuid: % us/row', round(extract(epoch FROM clock_timestamp() - t) * 100, 1);
+END $$;
+
+\echo '== point lookups, 100k each'
+DO $$
+DECLARE t timestamptz; hit bigint;
+BEGIN
+    t := clock_timestamp();
+    FOR i IN 1..100000 LOOP
+        SELECT created_at INTO hit FROM messages_text WHERE id = v7((i * 97) % 10000000 + 1)::text;
+    END LOOP;
+    RAISE NOTICE 'text: % us/query', round(extract(epoch FROM clock_timestamp() - t) * 10, 1);
+    t := clock_timestamp();
+    FOR i IN 1..100000 LOOP
+        SELECT created_at INTO hit FROM messages_uuid WHERE id = v7((i * 97) % 10000000 + 1);
+    END LOOP;
+    RAISE NOTICE 'uuid: % us/query', round(extract(epoch FROM clock_timestamp() - t) * 10, 1);
+END $$;
+
+\echo '== latest 50 of a channel, 10k each'
+DO $$
+DECLARE t timestamptz; hits bigint;
+BEGIN
+    t := clock_timestamp();
+    FOR i IN 1..10000 LOOP
+        SELECT count(*) INTO hits FROM (SELECT id FROM messages_text WHERE channel_id = v7(i % 2000)::text
+            ORDER BY created_at DESC, id DESC LIMIT 50) p;
+    END LOOP;
+    RAISE NOTICE 'text: % us/query', round(extract(epoch FROM clock_timestamp() - t) * 100, 1);
+    t := clock_timestamp();
+    FOR i IN 1..10000 LOOP
+        SELECT count(*) INTO hits FROM (SELECT id FROM messages_uuid WHERE channel_id = v7(i % 2000)
+            ORDER BY created_at DESC, id DESC LIMIT 50) p;
+    END LOOP;
+    RAISE NOTICE 'uuid: % us/query', round(extract(epoch FROM clock_timestamp() - t) * 100, 1);
+END $$;
+
+\echo '== thread replies joined to their parent, 10k each'
+DO $$
+DECLARE t timestamptz; hits bigint;
+BEGIN
+    t := clock_timestamp();
+    FOR i IN 1..10000 LOOP
+        SELECT count(*) INTO hits FROM messages_text r JOIN messages_text p ON p.id = r.parent_message_id
+        WHERE r.parent_message_id = v7((i * 100) % 10000000 + 1)::text;
+    END LOOP;
+    RAISE NOTICE 'text: % us/query', round(extract(epoch FROM clock_timestamp() - t) * 100, 1);
+    t := clock_timestamp();
+    FOR i IN 1..10000 LOOP
+        SELECT count(*) INTO hits FROM messages_uuid r JOIN messages_uuid p ON p.id = r.parent_message_id
+        WHERE r.parent_message_id = v7((i * 100) % 10000000 + 1);
+    END LOOP;
+    RAISE NOTICE 'uuid: % us/query', round(extract(epoch FROM clock_timestamp() - t) * 100, 1);
+END $$;
+
+RESET search_path;
+DROP SCHEMA uuid_bench CASCADE;
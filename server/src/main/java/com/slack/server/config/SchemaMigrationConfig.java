@@ -0,0 +1,18 @@
+package com.slack.server.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * One-off migrations that have to run before schema update touches the tables they repair. They use plain
+ * JDBC, since the entity manager factory (and with it schema update) is only created once they have finished.
+ */
+@Configuration
+public class SchemaMigrationConfig {
+
+    @Bean
+    static EntityManagerFactoryDependsOnPostProcessor migrationsBeforeSchemaUpdate() {
+        return new EntityManagerFactoryDependsOnPostProcessor("uuidColumnMigration", "reactionIndexMigration");
+    }
+}
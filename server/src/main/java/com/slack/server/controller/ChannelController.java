@@ -2,6 +2,7 @@ package com.slack.server.controller;
 
 import com.slack.server.model.Channel;
 import com.slack.server.dto.ChannelDTO;
+import com.slack.server.dto.DeleteJobDTO;
 import com.slack.server.service.ChannelService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
@@ -37,9 +38,9 @@ public class ChannelController {
     }
 
     @DeleteMapping("/{channelId}")
-    public ResponseEntity<Void> deleteChannel(@PathVariable @NonNull String channelId) {
-        channelService.deleteChannel(channelId);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<DeleteJobDTO> deleteChannel(@PathVariable @NonNull String channelId) {
+        // Gone for readers now; its messages are purged in the background, see /api/delete-jobs
+        return ResponseEntity.accepted().body(DeleteJobDTO.fromEntity(channelService.deleteChannel(channelId)));
     }
 
     @GetMapping("/{channelId}")
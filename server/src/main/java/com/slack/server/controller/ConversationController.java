@@ -4,6 +4,7 @@ import com.slack.server.model.Conversation;
 import com.slack.server.model.Member;
 import com.slack.server.model.User;
 import com.slack.server.dto.ConversationDTO;
+import com.slack.server.dto.DeleteJobDTO;
 import com.slack.server.repository.MemberRepository;
 import com.slack.server.service.ConversationService;
 import jakarta.persistence.EntityNotFoundException;
@@ -14,7 +15,6 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/conversations")
@@ -56,36 +56,26 @@ public class ConversationController {
     }
 
     @DeleteMapping("/{conversationId}")
-    public ResponseEntity<Void> deleteConversation(@PathVariable @NonNull String conversationId) {
-        conversationService.deleteConversation(conversationId);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<DeleteJobDTO> deleteConversation(@PathVariable @NonNull String conversationId) {
+        return ResponseEntity.accepted().body(DeleteJobDTO.fromEntity(conversationService.deleteConversation(conversationId)));
     }
 
     @GetMapping("/{conversationId}")
     public ResponseEntity<ConversationDTO> getConversation(@PathVariable @NonNull String conversationId) {
-        Conversation conversation = conversationService.getConversationById(conversationId);
-        return ResponseEntity.ok(ConversationDTO.fromEntity(conversation));
+        return ResponseEntity.ok(conversationService.getConversationDTO(conversationId));
     }
 
     @GetMapping("/workspace/{workspaceId}/member/{memberId}")
     public ResponseEntity<List<ConversationDTO>> getMemberConversations(
             @PathVariable @NonNull String workspaceId,
             @PathVariable @NonNull String memberId) {
-        List<Conversation> conversations = conversationService.getMemberConversations(workspaceId, memberId);
-        List<ConversationDTO> conversationDTOs = conversations.stream()
-                .map(ConversationDTO::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(conversationDTOs);
+        return ResponseEntity.ok(conversationService.getMemberConversations(workspaceId, memberId));
     }
 
     @GetMapping("/workspace/{workspaceId}")
     public ResponseEntity<List<ConversationDTO>> getWorkspaceConversations(
             @PathVariable @NonNull String workspaceId) {
-        List<Conversation> conversations = conversationService.getWorkspaceConversations(workspaceId);
-        List<ConversationDTO> conversationDTOs = conversations.stream()
-                .map(ConversationDTO::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(conversationDTOs);
+        return ResponseEntity.ok(conversationService.getWorkspaceConversations(workspaceId));
     }
 
     public static class CreateConversationRequest {
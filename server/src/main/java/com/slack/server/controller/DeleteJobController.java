@@ -0,0 +1,22 @@
+package com.slack.server.controller;
+
+import com.slack.server.dto.DeleteJobDTO;
+import com.slack.server.service.DeleteJobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/delete-jobs")
+public class DeleteJobController {
+
+    @Autowired
+    private DeleteJobService deleteJobService;
+
+    /** Progress of the job returned by a workspace, channel or DM delete. */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<DeleteJobDTO> getDeleteJob(@PathVariable @NonNull String jobId) {
+        return ResponseEntity.ok(DeleteJobDTO.fromEntity(deleteJobService.getJob(jobId)));
+    }
+}
@@ -37,16 +37,14 @@ public class MemberController {
 
     @GetMapping("/{memberId}")
     public ResponseEntity<MemberDTO> getMember(@PathVariable @NonNull String memberId) {
-        Member member = memberService.getMemberById(memberId);
-        return ResponseEntity.ok(MemberDTO.fromEntity(member));
+        return ResponseEntity.ok(memberService.getMemberDTO(memberId));
     }
 
     @GetMapping("/workspace/{workspaceId}/user/{userId}")
     public ResponseEntity<MemberDTO> getWorkspaceMember(
             @PathVariable @NonNull String workspaceId,
             @PathVariable @NonNull String userId) {
-        Member member = memberService.getMemberByWorkspaceAndUser(workspaceId, userId);
-        return ResponseEntity.ok(MemberDTO.fromEntity(member));
+        return ResponseEntity.ok(memberService.getMemberDTOByWorkspaceAndUser(workspaceId, userId));
     }
 
     @DeleteMapping("/{memberId}")
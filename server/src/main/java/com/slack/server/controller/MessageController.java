@@ -1,19 +1,36 @@
 package com.slack.server.controller;
 
 import com.slack.server.model.Message;
+import com.slack.server.dto.CursorPageDTO;
+import com.slack.server.dto.MessageBatchDTO;
+import com.slack.server.dto.MessageChangeCursor;
+import com.slack.server.dto.MessageChangesDTO;
+import com.slack.server.dto.MessageCursor;
 import com.slack.server.dto.MessageDTO;
+import com.slack.server.dto.MessageSearchCursor;
+import com.slack.server.dto.MessageSearchResultDTO;
+import com.slack.server.service.ChannelService;
+import com.slack.server.service.ConversationService;
 import com.slack.server.service.MessageService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.Valid;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.io.OutputStream;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/messages")
@@ -22,19 +39,51 @@ public class MessageController {
     @Autowired
     private MessageService messageService;
 
+    @Autowired
+    private ChannelService channelService;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    /**
+     * Retries that repeat the {@code Idempotency-Key} header (or {@code clientMessageId}) of an earlier post
+     * get that post's message back instead of creating another.
+     */
     @PostMapping
     public ResponseEntity<MessageDTO> createMessage(
+            @RequestHeader(value = "Idempotency-Key", required = false) @Nullable String idempotencyKey,
             @RequestBody @Valid CreateMessageRequest request) {
-        Message message = messageService.createMessage(
-            request.getBody(),
-            request.getImageId(),
-            request.getWorkspaceId(),
-            request.getMemberId(),
-            request.getChannelId(),
-            request.getConversationId(),
-            request.getParentMessageId()
-        );
-        return ResponseEntity.ok(MessageDTO.fromEntity(message));
+        String clientMessageId = idempotencyKey != null ? idempotencyKey : request.getClientMessageId();
+        if (messageService.isIngestionEnabled()) {
+            // Written in one transaction with other concurrent posts; answered once that has committed
+            return ResponseEntity.ok(messageService.ingestMessage(
+                request.getBody(),
+                request.getImageId(),
+                request.getWorkspaceId(),
+                request.getMemberId(),
+                request.getChannelId(),
+                request.getConversationId(),
+                request.getParentMessageId(),
+                clientMessageId
+            ));
+        }
+        try {
+            return ResponseEntity.ok(messageService.createMessage(
+                request.getBody(),
+                request.getImageId(),
+                request.getWorkspaceId(),
+                request.getMemberId(),
+                request.getChannelId(),
+                request.getConversationId(),
+                request.getParentMessageId(),
+                clientMessageId
+            ));
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent retry got in first; the unique (member, client message id) index turned this one away
+            if (clientMessageId == null) throw ex;
+            return ResponseEntity.ok(messageService.findByClientMessageId(request.getMemberId(), clientMessageId)
+                .orElseThrow(() -> ex));
+        }
     }
 
     @PutMapping("/{messageId}")
@@ -56,12 +105,11 @@ public class MessageController {
             @PathVariable @NonNull String channelId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "50") @Max(100) int size) {
-        Page<Message> messages = messageService.getChannelMessages(
+        Page<MessageDTO> messages = messageService.getChannelMessages(
             channelId,
             PageRequest.of(page, size)
         );
-        Page<MessageDTO> messageDTOs = messages.map(m -> messageService.enrichWithThreadInfo(MessageDTO.fromEntity(m)));
-        return ResponseEntity.ok(messageDTOs);
+        return ResponseEntity.ok(messages);
     }
 
     @GetMapping("/conversation/{conversationId}")
@@ -69,28 +117,184 @@ public class MessageController {
             @PathVariable @NonNull String conversationId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "50") @Max(100) int size) {
-        Page<Message> messages = messageService.getConversationMessages(
+        Page<MessageDTO> messages = messageService.getConversationMessages(
             conversationId,
             PageRequest.of(page, size)
         );
-        Page<MessageDTO> messageDTOs = messages.map(m -> messageService.enrichWithThreadInfo(MessageDTO.fromEntity(m)));
-        return ResponseEntity.ok(messageDTOs);
+        return ResponseEntity.ok(messages);
+    }
+
+    /**
+     * Cursor mode for channel history: selected when {@code before} or {@code after} is present.
+     * An empty {@code before} starts from the newest message.
+     */
+    @GetMapping(value = "/channel/{channelId}", params = "before")
+    public ResponseEntity<CursorPageDTO<MessageDTO>> getChannelMessagesBefore(
+            @PathVariable @NonNull String channelId,
+            @RequestParam String before,
+            @RequestParam(defaultValue = "50") @Max(100) int size) {
+        Slice<MessageDTO> messages = messageService.getChannelMessages(channelId, MessageCursor.decode(before), null, size);
+        return ResponseEntity.ok(toCursorPage(messages, false));
+    }
+
+    @GetMapping(value = "/channel/{channelId}", params = "after")
+    public ResponseEntity<CursorPageDTO<MessageDTO>> getChannelMessagesAfter(
+            @PathVariable @NonNull String channelId,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "50") @Max(100) int size) {
+        Slice<MessageDTO> messages = messageService.getChannelMessages(channelId, null, MessageCursor.decode(after), size);
+        return ResponseEntity.ok(toCursorPage(messages, true));
+    }
+
+    @GetMapping(value = "/conversation/{conversationId}", params = "before")
+    public ResponseEntity<CursorPageDTO<MessageDTO>> getConversationMessagesBefore(
+            @PathVariable @NonNull String conversationId,
+            @RequestParam String before,
+            @RequestParam(defaultValue = "50") @Max(100) int size) {
+        Slice<MessageDTO> messages = messageService.getConversationMessages(conversationId, MessageCursor.decode(before), null, size);
+        return ResponseEntity.ok(toCursorPage(messages, false));
+    }
+
+    @GetMapping(value = "/conversation/{conversationId}", params = "after")
+    public ResponseEntity<CursorPageDTO<MessageDTO>> getConversationMessagesAfter(
+            @PathVariable @NonNull String conversationId,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "50") @Max(100) int size) {
+        Slice<MessageDTO> messages = messageService.getConversationMessages(conversationId, null, MessageCursor.decode(after), size);
+        return ResponseEntity.ok(toCursorPage(messages, true));
+    }
+
+    // Slices are newest first; the next cursor continues from the oldest item (before) or the newest (after)
+    private CursorPageDTO<MessageDTO> toCursorPage(Slice<MessageDTO> slice, boolean newer) {
+        String nextCursor = null;
+        if (slice.hasNext() && slice.hasContent()) {
+            MessageDTO edge = newer ? slice.getContent().get(0) : slice.getContent().get(slice.getNumberOfElements() - 1);
+            nextCursor = MessageCursor.of(edge).encode();
+        }
+        return new CursorPageDTO<>(slice.getContent(), nextCursor, slice.hasNext());
+    }
+
+    /**
+     * Ranked full-text search within a workspace. {@code q} accepts web-search syntax
+     * ("quoted phrases", -excluded, or); pass the returned {@code nextCursor} as {@code after} for more.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<CursorPageDTO<MessageSearchResultDTO>> searchMessages(
+            @RequestParam @NonNull String workspaceId,
+            @RequestParam String q,
+            @RequestParam(required = false) @Nullable String channelId,
+            @RequestParam(required = false) @Nullable String conversationId,
+            @RequestParam(required = false) @Nullable String memberId,
+            @RequestParam(required = false) @Nullable String after,
+            @RequestParam(defaultValue = "20") @Max(100) int size) {
+        Slice<MessageSearchResultDTO> results = messageService.searchMessages(
+            workspaceId, q, channelId, conversationId, memberId, MessageSearchCursor.decode(after), size);
+        String nextCursor = results.hasNext() && results.hasContent()
+            ? MessageSearchCursor.of(results.getContent().get(results.getNumberOfElements() - 1)).encode()
+            : null;
+        return ResponseEntity.ok(new CursorPageDTO<>(results.getContent(), nextCursor, results.hasNext()));
+    }
+
+    /**
+     * Delta sync for a reconnecting client: messages created, edited or deleted since the cursor.
+     * Call with an empty {@code since} before loading the timeline to get a starting cursor.
+     */
+    @GetMapping("/channel/{channelId}/changes")
+    public ResponseEntity<MessageChangesDTO> getChannelChanges(
+            @PathVariable @NonNull String channelId,
+            @RequestParam(required = false) @Nullable String since,
+            @RequestParam(defaultValue = "200") @Max(500) int limit) {
+        return ResponseEntity.ok(messageService.getChannelChanges(channelId, MessageChangeCursor.decode(since), limit));
+    }
+
+    @GetMapping("/conversation/{conversationId}/changes")
+    public ResponseEntity<MessageChangesDTO> getConversationChanges(
+            @PathVariable @NonNull String conversationId,
+            @RequestParam(required = false) @Nullable String since,
+            @RequestParam(defaultValue = "200") @Max(500) int limit) {
+        return ResponseEntity.ok(messageService.getConversationChanges(conversationId, MessageChangeCursor.decode(since), limit));
+    }
+
+    /** Full channel history as NDJSON, streamed; {@code gzip=true} compresses it for download. */
+    @GetMapping("/channel/{channelId}/export")
+    public ResponseEntity<StreamingResponseBody> exportChannelHistory(
+            @PathVariable @NonNull String channelId,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        // Resolve before streaming starts so a missing channel is still a 404
+        channelService.getChannelById(channelId);
+        return exportResponse("channel-" + channelId, gzip, out -> messageService.exportChannelHistory(channelId, out));
+    }
+
+    @GetMapping("/conversation/{conversationId}/export")
+    public ResponseEntity<StreamingResponseBody> exportConversationHistory(
+            @PathVariable @NonNull String conversationId,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        conversationService.getConversationById(conversationId);
+        return exportResponse("conversation-" + conversationId, gzip, out -> messageService.exportConversationHistory(conversationId, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportResponse(String name, boolean gzip, Consumer<OutputStream> writer) {
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                writer.accept(compressed);
+                compressed.finish();
+            } else {
+                writer.accept(out);
+            }
+        };
+        String filename = name + (gzip ? ".ndjson.gz" : ".ndjson");
+        return ResponseEntity.ok()
+            .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("application/x-ndjson"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+            .body(body);
     }
 
     @GetMapping("/thread/{parentMessageId}")
     public ResponseEntity<List<MessageDTO>> getThreadMessages(
             @PathVariable @NonNull String parentMessageId) {
-        List<Message> messages = messageService.getThreadMessages(parentMessageId);
-        List<MessageDTO> messageDTOs = messages.stream()
-                .map(MessageDTO::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(messageDTOs);
+        return ResponseEntity.ok(messageService.getThreadMessages(parentMessageId));
+    }
+
+    /**
+     * Cursor mode for thread replies. {@code after} reads forward, oldest first; {@code before} reads back
+     * from the newest reply. An empty value starts at the first or the latest reply respectively.
+     */
+    @GetMapping(value = "/thread/{parentMessageId}", params = "after")
+    public ResponseEntity<CursorPageDTO<MessageDTO>> getThreadMessagesAfter(
+            @PathVariable @NonNull String parentMessageId,
+            @RequestParam String after,
+            @RequestParam(defaultValue = "50") @Max(100) int size) {
+        Slice<MessageDTO> replies = messageService.getThreadMessages(parentMessageId, MessageCursor.decode(after), false, size);
+        return ResponseEntity.ok(toThreadPage(replies));
+    }
+
+    @GetMapping(value = "/thread/{parentMessageId}", params = "before")
+    public ResponseEntity<CursorPageDTO<MessageDTO>> getThreadMessagesBefore(
+            @PathVariable @NonNull String parentMessageId,
+            @RequestParam String before,
+            @RequestParam(defaultValue = "50") @Max(100) int size) {
+        Slice<MessageDTO> replies = messageService.getThreadMessages(parentMessageId, MessageCursor.decode(before), true, size);
+        return ResponseEntity.ok(toThreadPage(replies));
+    }
+
+    // Thread slices keep their scan order, so the next page always continues from the last item
+    private CursorPageDTO<MessageDTO> toThreadPage(Slice<MessageDTO> slice) {
+        String nextCursor = slice.hasNext() && slice.hasContent()
+            ? MessageCursor.of(slice.getContent().get(slice.getNumberOfElements() - 1)).encode()
+            : null;
+        return new CursorPageDTO<>(slice.getContent(), nextCursor, slice.hasNext());
     }
 
     @GetMapping("/{messageId}")
     public ResponseEntity<MessageDTO> getMessageById(@PathVariable @NonNull String messageId) {
-        Message message = messageService.getMessageById(messageId);
-        return ResponseEntity.ok(MessageDTO.fromEntity(message));
+        return ResponseEntity.ok(messageService.getMessageDTO(messageId));
+    }
+
+    /** Multi-get for quotes, search hits and notification targets; POST so long id lists fit in the body. */
+    @PostMapping("/batch")
+    public ResponseEntity<MessageBatchDTO> getMessagesByIds(@RequestBody @Valid BatchGetRequest request) {
+        return ResponseEntity.ok(messageService.getMessagesByIds(request.getIds()));
     }
 
     @PostMapping("/typing")
@@ -145,6 +349,8 @@ public class MessageController {
         private @Nullable String channelId;
         private @Nullable String conversationId;
         private @Nullable String parentMessageId;
+        @jakarta.validation.constraints.Size(max = 100, message = "Client message id too long")
+        private @Nullable String clientMessageId;
 
         public @NonNull String getBody() { return body; }
         public void setBody(@NonNull String body) { this.body = body; }
@@ -166,6 +372,9 @@ public class MessageController {
 
         public @Nullable String getParentMessageId() { return parentMessageId; }
         public void setParentMessageId(@Nullable String parentMessageId) { this.parentMessageId = parentMessageId; }
+
+        public @Nullable String getClientMessageId() { return clientMessageId; }
+        public void setClientMessageId(@Nullable String clientMessageId) { this.clientMessageId = clientMessageId; }
     }
 
     public static class UpdateMessageRequest {
@@ -174,4 +383,11 @@ public class MessageController {
         public @NonNull String getBody() { return body; }
         public void setBody(@NonNull String body) { this.body = body; }
     }
+
+    public static class BatchGetRequest {
+        private @NonNull List<String> ids = List.of();
+
+        public @NonNull List<String> getIds() { return ids; }
+        public void setIds(@NonNull List<String> ids) { this.ids = ids; }
+    }
 }
\ No newline at end of file
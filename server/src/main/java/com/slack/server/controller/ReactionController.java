@@ -26,6 +26,10 @@ public class ReactionController {
             request.getMemberId(),
             request.getValue()
         );
+        if (reaction == null) {
+            // Buffered: stored and broadcast with the next flush
+            return ResponseEntity.accepted().build();
+        }
         return ResponseEntity.ok(ReactionDTO.fromEntity(reaction));
     }
 
@@ -50,6 +54,14 @@ public class ReactionController {
         return ResponseEntity.ok(reactionDTOs);
     }
 
+    // Full reactor list for one emoji; messages only carry the first few
+    @GetMapping("/message/{messageId}/reactors")
+    public ResponseEntity<List<ReactionDTO>> getReactors(
+            @PathVariable @NonNull String messageId,
+            @RequestParam @NonNull String value) {
+        return ResponseEntity.ok(reactionService.getReactors(messageId, value));
+    }
+
     public static class AddReactionRequest {
         private @NonNull String messageId = "";
         private @NonNull String memberId = "";
@@ -0,0 +1,58 @@
+package com.slack.server.controller;
+
+import com.slack.server.dto.ReadMarkerDTO;
+import com.slack.server.dto.UnreadCountDTO;
+import com.slack.server.service.ReadMarkerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import jakarta.validation.Valid;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/read-markers")
+public class ReadMarkerController {
+
+    @Autowired
+    private ReadMarkerService readMarkerService;
+
+    @PutMapping
+    public ResponseEntity<ReadMarkerDTO> markRead(@RequestBody @Valid MarkReadRequest request) {
+        ReadMarkerDTO marker = readMarkerService.markRead(
+            request.getMemberId(),
+            request.getChannelId(),
+            request.getConversationId(),
+            request.getMessageId()
+        );
+        return ResponseEntity.ok(marker);
+    }
+
+    @GetMapping("/workspace/{workspaceId}/member/{memberId}/unread")
+    public ResponseEntity<List<UnreadCountDTO>> getUnreadCounts(
+            @PathVariable @NonNull String workspaceId,
+            @PathVariable @NonNull String memberId) {
+        return ResponseEntity.ok(readMarkerService.getUnreadCounts(workspaceId, memberId));
+    }
+
+    public static class MarkReadRequest {
+        private @NonNull String memberId = "";
+        private @Nullable String channelId;
+        private @Nullable String conversationId;
+        // Omit to mark everything up to the newest message as read
+        private @Nullable String messageId;
+
+        public @NonNull String getMemberId() { return memberId; }
+        public void setMemberId(@NonNull String memberId) { this.memberId = memberId; }
+
+        public @Nullable String getChannelId() { return channelId; }
+        public void setChannelId(@Nullable String channelId) { this.channelId = channelId; }
+
+        public @Nullable String getConversationId() { return conversationId; }
+        public void setConversationId(@Nullable String conversationId) { this.conversationId = conversationId; }
+
+        public @Nullable String getMessageId() { return messageId; }
+        public void setMessageId(@Nullable String messageId) { this.messageId = messageId; }
+    }
+}
@@ -1,17 +1,23 @@
 package com.slack.server.controller;
 
 import com.slack.server.model.Workspace;
-import com.slack.server.model.Member;
+import com.slack.server.dto.DeleteJobDTO;
+import com.slack.server.dto.ImportResultDTO;
 import com.slack.server.dto.MemberDTO;
 import com.slack.server.dto.WorkspaceDTO;
+import com.slack.server.service.ImportService;
 import com.slack.server.service.WorkspaceService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 @RestController
 @RequestMapping("/api/workspaces")
@@ -20,6 +26,9 @@ public class WorkspaceController {
     @Autowired
     private WorkspaceService workspaceService;
 
+    @Autowired
+    private ImportService importService;
+
     @PostMapping
     public ResponseEntity<WorkspaceDTO> createWorkspace(
             @RequestBody @Valid CreateWorkspaceRequest request) {
@@ -38,10 +47,29 @@ public class WorkspaceController {
         return ResponseEntity.ok(WorkspaceDTO.fromEntity(workspace));
     }
 
+    /** Days of history kept hot before moving to the archive; {@code retentionDays: null} keeps everything. */
+    @PutMapping("/{workspaceId}/retention")
+    public ResponseEntity<WorkspaceDTO> updateRetention(
+            @PathVariable @NonNull String workspaceId,
+            @RequestBody UpdateRetentionRequest request) {
+        Workspace workspace = workspaceService.updateRetention(workspaceId, request.getRetentionDays());
+        return ResponseEntity.ok(WorkspaceDTO.fromEntity(workspace));
+    }
+
     @DeleteMapping("/{workspaceId}")
-    public ResponseEntity<Void> deleteWorkspace(@PathVariable @NonNull String workspaceId) {
-        workspaceService.deleteWorkspace(workspaceId);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<DeleteJobDTO> deleteWorkspace(@PathVariable @NonNull String workspaceId) {
+        return ResponseEntity.accepted().body(DeleteJobDTO.fromEntity(workspaceService.deleteWorkspace(workspaceId)));
+    }
+
+    /** Bulk-load an NDJSON archive from another chat system; {@code gzip=true} for a compressed upload. */
+    @PostMapping(value = "/{workspaceId}/import",
+                 consumes = { "application/x-ndjson", "application/gzip", "application/octet-stream" })
+    public ResponseEntity<ImportResultDTO> importWorkspace(
+            @PathVariable @NonNull String workspaceId,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            InputStream body) throws IOException {
+        InputStream archive = gzip ? new GZIPInputStream(body, 64 * 1024) : body;
+        return ResponseEntity.ok(importService.importWorkspace(workspaceId, archive));
     }
 
     @GetMapping("/{workspaceId}")
@@ -63,11 +91,7 @@ public class WorkspaceController {
     @GetMapping("/{workspaceId}/members")
     public ResponseEntity<List<MemberDTO>> getWorkspaceMembers(
             @PathVariable @NonNull String workspaceId) {
-        List<Member> members = workspaceService.getWorkspaceMembers(workspaceId);
-        List<MemberDTO> memberDTOs = members.stream()
-                .map(MemberDTO::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(memberDTOs);
+        return ResponseEntity.ok(workspaceService.getWorkspaceMembers(workspaceId));
     }
 
     @PostMapping("/join")
@@ -104,6 +128,13 @@ public class WorkspaceController {
         public void setName(@NonNull String name) { this.name = name; }
     }
 
+    public static class UpdateRetentionRequest {
+        private @Nullable Integer retentionDays;
+
+        public @Nullable Integer getRetentionDays() { return retentionDays; }
+        public void setRetentionDays(@Nullable Integer retentionDays) { this.retentionDays = retentionDays; }
+    }
+
     public static class JoinWorkspaceRequest {
         private @NonNull String joinCode = "";
         private @NonNull String userId = "";
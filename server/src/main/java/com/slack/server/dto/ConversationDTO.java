@@ -1,6 +1,7 @@
 package com.slack.server.dto;
 
 import com.slack.server.model.Conversation;
+import com.slack.server.repository.projection.ConversationRow;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -78,4 +79,21 @@ public class ConversationDTO {
             conversation.getWorkspace() != null ? conversation.getWorkspace().getId() : null
         );
     }
+
+    public static ConversationDTO fromRow(ConversationRow row) {
+        return new ConversationDTO(
+            row.id(),
+            new MemberSummaryDTO(
+                row.memberOneId(),
+                row.memberOneRole() != null ? row.memberOneRole().name() : null,
+                new UserSummaryDTO(row.userOneId(), row.userOneName(), row.userOneImage())
+            ),
+            new MemberSummaryDTO(
+                row.memberTwoId(),
+                row.memberTwoRole() != null ? row.memberTwoRole().name() : null,
+                new UserSummaryDTO(row.userTwoId(), row.userTwoName(), row.userTwoImage())
+            ),
+            row.workspaceId()
+        );
+    }
 }
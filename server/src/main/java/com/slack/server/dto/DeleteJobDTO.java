@@ -0,0 +1,43 @@
+package com.slack.server.dto;
+
+import com.slack.server.model.DeleteJob;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/** Progress of a background delete; totalMessages is null until the job has started. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeleteJobDTO {
+    private String id;
+    private String targetType;
+    private String targetId;
+    private String workspaceId;
+    private String status;
+    private Long totalMessages;
+    private long deletedMessages;
+    private String lastError;
+    private Long createdAt;
+    private Long updatedAt;
+    private Long completedAt;
+
+    public static DeleteJobDTO fromEntity(DeleteJob job) {
+        if (job == null) {
+            return null;
+        }
+        return new DeleteJobDTO(
+            job.getId(),
+            job.getTargetType().name(),
+            job.getTargetId(),
+            job.getWorkspaceId(),
+            job.getStatus().name(),
+            job.getTotalMessages(),
+            job.getDeletedMessages(),
+            job.getLastError(),
+            job.getCreatedAt(),
+            job.getUpdatedAt(),
+            job.getCompletedAt()
+        );
+    }
+}
@@ -0,0 +1,43 @@
+package com.slack.server.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * One line of a workspace import archive. {@code type} selects which of the other fields apply;
+ * ids are the source system's and only need to be unique per type within the archive.
+ * <ul>
+ *   <li>{@code user}: id, name, email, imageUrl</li>
+ *   <li>{@code member}: id, userId, role</li>
+ *   <li>{@code channel}: id, name</li>
+ *   <li>{@code conversation}: id, memberOneId, memberTwoId</li>
+ *   <li>{@code message}: id, memberId, channelId or conversationId, parentMessageId, body, imageId, createdAt, updatedAt</li>
+ *   <li>{@code reaction}: messageId, memberId, value, createdAt</li>
+ * </ul>
+ * Times are epoch milliseconds.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRecordDTO {
+    private String type;
+    private String id;
+    private String name;
+    private String email;
+    private String imageUrl;
+    private String userId;
+    private String role;
+    private String memberId;
+    private String memberOneId;
+    private String memberTwoId;
+    private String channelId;
+    private String conversationId;
+    private String parentMessageId;
+    private String messageId;
+    private String body;
+    private String imageId;
+    private String value;
+    private Long createdAt;
+    private Long updatedAt;
+}
@@ -0,0 +1,19 @@
+package com.slack.server.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/** Records read from an import archive, by type. Rows that already existed are counted but not rewritten. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDTO {
+    private long users;
+    private long members;
+    private long channels;
+    private long conversations;
+    private long messages;
+    private long reactions;
+    private long elapsedMs;
+}
@@ -1,6 +1,7 @@
 package com.slack.server.dto;
 
 import com.slack.server.model.Member;
+import com.slack.server.repository.projection.MemberRow;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -26,4 +27,14 @@ public class MemberDTO {
             WorkspaceDTO.fromEntity(member.getWorkspace())
         );
     }
+
+    public static MemberDTO fromRow(MemberRow row) {
+        return new MemberDTO(
+            row.id(),
+            row.role() != null ? row.role().name() : null,
+            new UserDTO(row.userId(), row.userName(), row.userEmail(), row.userImage()),
+            new WorkspaceDTO(row.workspaceId(), row.workspaceName(), row.workspaceUserId(), row.workspaceJoinCode(),
+                row.workspaceRetentionDays())
+        );
+    }
 }
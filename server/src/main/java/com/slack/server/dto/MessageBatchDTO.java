@@ -0,0 +1,16 @@
+package com.slack.server.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageBatchDTO {
+    // In the order the ids were requested, duplicates collapsed
+    private List<MessageDTO> messages;
+    // Requested ids that don't exist (deleted or never created)
+    private List<String> missingIds;
+}
@@ -0,0 +1,26 @@
+package com.slack.server.dto;
+
+import org.springframework.lang.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/** Opaque delta-sync position: the server time up to which a client has seen a timeline's changes. */
+public record MessageChangeCursor(long since) {
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(since).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Decode a cursor token; a blank token means "start tracking from now". */
+    public static @Nullable MessageChangeCursor decode(@Nullable String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            return new MessageChangeCursor(Long.parseLong(raw));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+}
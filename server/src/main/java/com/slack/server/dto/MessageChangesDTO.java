@@ -0,0 +1,32 @@
+package com.slack.server.dto;
+
+import com.slack.server.model.MessageTombstone;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageChangesDTO {
+    // Created or changed messages, replies included, in the order they changed; apply as upserts by id
+    private List<MessageDTO> messages;
+    private List<DeletedMessageDTO> deleted;
+    private String nextCursor;
+    // Too much changed, or the cursor predates retained tombstones: refetch the timeline instead
+    private boolean resyncRequired;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DeletedMessageDTO {
+        private String id;
+        private String parentMessageId;
+        private Long deletedAt;
+
+        public static DeletedMessageDTO fromEntity(MessageTombstone tombstone) {
+            return new DeletedMessageDTO(tombstone.getMessageId(), tombstone.getParentMessageId(), tombstone.getDeletedAt());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.slack.server.dto;
+
+import com.slack.server.model.Message;
+import com.slack.server.model.TimeOrderedIds;
+import org.springframework.lang.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in a message timeline: (createdAt, id) of the last message seen.
+ * Encoded as URL-safe base64 so clients treat it as an opaque token. A time-ordered message id
+ * carries its own creation time, so such an id is accepted as a cursor on its own.
+ */
+public record MessageCursor(long createdAt, String id) {
+
+    public static MessageCursor of(Message message) {
+        return new MessageCursor(message.getCreatedAt(), message.getId());
+    }
+
+    public static MessageCursor of(MessageDTO message) {
+        return new MessageCursor(message.getCreatedAt(), message.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Decode a cursor token; a blank token means "start from the newest message". */
+    public static @Nullable MessageCursor decode(@Nullable String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        Long idTime = token.length() == 36 ? TimeOrderedIds.timestampOf(token) : null;
+        if (idTime != null) {
+            return new MessageCursor(idTime, token);
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int comma = raw.indexOf(',');
+            if (comma <= 0 || comma == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new MessageCursor(Long.parseLong(raw.substring(0, comma)), raw.substring(comma + 1));
+        } catch (IllegalArgumentException ex) {
+            // NumberFormatException and bad base64 both land here
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+}
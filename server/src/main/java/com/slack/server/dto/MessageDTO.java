@@ -1,11 +1,12 @@
 package com.slack.server.dto;
 
 import com.slack.server.model.Message;
+import com.slack.server.repository.projection.MessageRow;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
 
 @Data
 @NoArgsConstructor
@@ -19,7 +20,7 @@ public class MessageDTO {
     private String channelId;
     private String conversationId;
     private String parentMessageId;
-    private List<ReactionDTO> reactions;
+    private List<ReactionSummaryDTO> reactions;
     private Long createdAt;
     private Long updatedAt;
     private int threadCount;
@@ -67,11 +68,14 @@ public class MessageDTO {
             );
         }
 
-        List<ReactionDTO> reactionDTOs = null;
+        return fromEntity(message, memberDTO);
+    }
+
+    /** For callers that already know the author, so the member and user are never loaded. */
+    public static MessageDTO fromEntity(Message message, MemberSummaryDTO memberDTO) {
+        List<ReactionSummaryDTO> reactionDTOs = null;
         if (message.getReactions() != null) {
-            reactionDTOs = message.getReactions().stream()
-                .map(ReactionDTO::fromEntity)
-                .collect(Collectors.toList());
+            reactionDTOs = ReactionSummaryDTO.fromEntities(message.getReactions());
         }
 
         MessageDTO dto = new MessageDTO();
@@ -86,7 +90,57 @@ public class MessageDTO {
         dto.setReactions(reactionDTOs);
         dto.setCreatedAt(message.getCreatedAt());
         dto.setUpdatedAt(message.getUpdatedAt());
-        // threadCount, threadImage, threadName, threadTimestamp default to 0/null
+        dto.setThreadCount(message.getReplyCount());
+        dto.setThreadTimestamp(message.getLastReplyAt());
+        if (message.getLastReplyMember() != null && message.getLastReplyMember().getUser() != null) {
+            dto.setThreadImage(message.getLastReplyMember().getUser().getImageUrl());
+            dto.setThreadName(message.getLastReplyMember().getUser().getName());
+        }
         return dto;
     }
+
+    public static MessageDTO fromRow(MessageRow row, List<ReactionSummaryDTO> reactions) {
+        MessageDTO dto = new MessageDTO();
+        dto.setId(row.id());
+        dto.setBody(row.body());
+        dto.setImageId(row.imageId());
+        dto.setMember(new MemberSummaryDTO(
+            row.memberId(),
+            row.memberRole() != null ? row.memberRole().name() : null,
+            new UserSummaryDTO(row.userId(), row.userName(), row.userImage())
+        ));
+        dto.setWorkspaceId(row.workspaceId());
+        dto.setChannelId(row.channelId());
+        dto.setConversationId(row.conversationId());
+        dto.setParentMessageId(row.parentMessageId());
+        dto.setReactions(reactions);
+        dto.setCreatedAt(row.createdAt());
+        dto.setUpdatedAt(row.updatedAt());
+        dto.setThreadCount(row.replyCount());
+        dto.setThreadTimestamp(row.lastReplyAt());
+        dto.setThreadName(row.lastReplyName());
+        dto.setThreadImage(row.lastReplyImage());
+        return dto;
+    }
+
+    /** Shallow copy with its own reaction list, for derived views of shared (cached) messages. */
+    public static MessageDTO copyOf(MessageDTO source) {
+        MessageDTO copy = new MessageDTO();
+        copy.setId(source.getId());
+        copy.setBody(source.getBody());
+        copy.setImageId(source.getImageId());
+        copy.setMember(source.getMember());
+        copy.setWorkspaceId(source.getWorkspaceId());
+        copy.setChannelId(source.getChannelId());
+        copy.setConversationId(source.getConversationId());
+        copy.setParentMessageId(source.getParentMessageId());
+        copy.setReactions(source.getReactions() != null ? new ArrayList<>(source.getReactions()) : new ArrayList<>());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        copy.setThreadCount(source.getThreadCount());
+        copy.setThreadImage(source.getThreadImage());
+        copy.setThreadName(source.getThreadName());
+        copy.setThreadTimestamp(source.getThreadTimestamp());
+        return copy;
+    }
 }
@@ -0,0 +1,38 @@
+package com.slack.server.dto;
+
+import org.springframework.lang.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in a ranked search result list: (rank, createdAt, id) of the last hit seen.
+ * Ranks are recomputed identically on every request, so they are safe to page on.
+ */
+public record MessageSearchCursor(double rank, long createdAt, String id) {
+
+    public static MessageSearchCursor of(MessageSearchResultDTO result) {
+        return new MessageSearchCursor(result.getRank(), result.getMessage().getCreatedAt(), result.getMessage().getId());
+    }
+
+    public String encode() {
+        String raw = rank + "," + createdAt + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Decode a cursor token; a blank token means "start from the best match". */
+    public static @Nullable MessageSearchCursor decode(@Nullable String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(",", 3);
+            if (parts.length != 3 || parts[2].isEmpty()) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new MessageSearchCursor(Double.parseDouble(parts[0]), Long.parseLong(parts[1]), parts[2]);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor", ex);
+        }
+    }
+}
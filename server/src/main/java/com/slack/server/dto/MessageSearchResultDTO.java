@@ -0,0 +1,15 @@
+package com.slack.server.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageSearchResultDTO {
+    private MessageDTO message;
+    // Matched fragments of the plain-text body as HTML: the text is escaped and hits are wrapped in <mark></mark>
+    private String highlight;
+    private double rank;
+}
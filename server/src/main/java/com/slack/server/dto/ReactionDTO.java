@@ -1,6 +1,7 @@
 package com.slack.server.dto;
 
 import com.slack.server.model.Reaction;
+import com.slack.server.repository.projection.ReactionRow;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -46,4 +47,14 @@ public class ReactionDTO {
             memberDTO
         );
     }
+
+    public static ReactionDTO fromRow(ReactionRow row) {
+        return new ReactionDTO(
+            row.id(),
+            row.value(),
+            row.workspaceId(),
+            row.messageId(),
+            new MemberSummaryDTO(row.memberId(), row.userName(), row.userImage())
+        );
+    }
 }
@@ -0,0 +1,24 @@
+package com.slack.server.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+/** Net reaction changes on one message from one flush of the reaction write buffer. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReactionDeltaDTO {
+    private String messageId;
+    private List<ReactionDTO> added;
+    private List<RemovedReactionDTO> removed;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RemovedReactionDTO {
+        private String memberId;
+        private String value;
+    }
+}
@@ -0,0 +1,61 @@
+package com.slack.server.dto;
+
+import com.slack.server.model.Reaction;
+import com.slack.server.repository.projection.ReactionSampleRow;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All reactions with one emoji on a message. Only the first few reactors travel with the message;
+ * the full list is fetched on demand from the reactors endpoint.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReactionSummaryDTO {
+    public static final int REACTOR_SAMPLE_SIZE = 5;
+
+    private String value;
+    private long count;
+    private boolean reactedByMe;
+    private List<ReactionDTO.MemberSummaryDTO> reactors;
+
+    public ReactionSummaryDTO withReactedByMe(boolean reactedByMe) {
+        return new ReactionSummaryDTO(value, count, reactedByMe, reactors);
+    }
+
+    public static List<ReactionSummaryDTO> fromEntities(List<Reaction> reactions) {
+        Map<String, ReactionSummaryDTO> groups = new LinkedHashMap<>();
+        reactions.stream()
+            .sorted(Comparator.comparing(Reaction::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder())))
+            .forEach(reaction -> {
+                ReactionSummaryDTO group = groups.computeIfAbsent(reaction.getValue(),
+                    value -> new ReactionSummaryDTO(value, 0, false, new ArrayList<>()));
+                group.count++;
+                if (group.reactors.size() < REACTOR_SAMPLE_SIZE && reaction.getMember() != null) {
+                    group.reactors.add(new ReactionDTO.MemberSummaryDTO(
+                        reaction.getMember().getId(),
+                        reaction.getMember().getUserName(),
+                        reaction.getMember().getUserImage()
+                    ));
+                }
+            });
+        return new ArrayList<>(groups.values());
+    }
+
+    /** Group sampled rows of one message, which arrive ordered by group and then by reactor. */
+    public static List<ReactionSummaryDTO> fromRows(List<ReactionSampleRow> rows) {
+        Map<String, ReactionSummaryDTO> groups = new LinkedHashMap<>();
+        for (ReactionSampleRow row : rows) {
+            groups.computeIfAbsent(row.value(), value -> new ReactionSummaryDTO(value, row.total(), false, new ArrayList<>()))
+                .reactors.add(new ReactionDTO.MemberSummaryDTO(row.memberId(), row.userName(), row.userImage()));
+        }
+        return new ArrayList<>(groups.values());
+    }
+}
@@ -0,0 +1,32 @@
+package com.slack.server.dto;
+
+import com.slack.server.model.ReadMarker;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReadMarkerDTO {
+    private String memberId;
+    private String channelId;
+    private String conversationId;
+    private String lastReadMessageId;
+    private Long lastReadAt;
+    private int unreadCount;
+
+    public static ReadMarkerDTO fromEntity(ReadMarker marker, int unreadCount) {
+        if (marker == null) {
+            return null;
+        }
+        return new ReadMarkerDTO(
+            marker.getMemberId(),
+            marker.getChannelId(),
+            marker.getConversationId(),
+            marker.getLastReadMessageId(),
+            marker.getLastReadAt(),
+            unreadCount
+        );
+    }
+}
@@ -0,0 +1,15 @@
+package com.slack.server.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnreadCountDTO {
+    private String channelId;
+    private String conversationId;
+    private int unreadCount;
+    private String lastReadMessageId;
+}
@@ -13,6 +13,7 @@ public class WorkspaceDTO {
     private String name;
     private String userId;
     private String joinCode;
+    private Integer retentionDays;
 
     public static WorkspaceDTO fromEntity(Workspace workspace) {
         if (workspace == null) {
@@ -22,7 +23,8 @@ public class WorkspaceDTO {
             workspace.getId(),
             workspace.getName(),
             workspace.getUserId(),
-            workspace.getJoinCode()
+            workspace.getJoinCode(),
+            workspace.getRetentionDays()
         );
     }
 }
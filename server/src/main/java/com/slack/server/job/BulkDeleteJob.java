@@ -0,0 +1,29 @@
+package com.slack.server.job;
+
+import com.slack.server.service.DeleteJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Purges deleted workspaces, channels and DMs in the background. Jobs live in the database, so anything left
+ * pending at shutdown is carried on by the first run after startup.
+ */
+@Component
+public class BulkDeleteJob {
+    private static final Logger log = LoggerFactory.getLogger(BulkDeleteJob.class);
+
+    @Autowired
+    private DeleteJobService deleteJobService;
+
+    @Scheduled(fixedDelayString = "${app.delete-jobs.poll-interval-ms:2000}")
+    public void run() {
+        long started = System.currentTimeMillis();
+        long deleted = deleteJobService.runPending();
+        if (deleted > 0) {
+            log.info("Delete jobs removed {} messages in {} ms", deleted, System.currentTimeMillis() - started);
+        }
+    }
+}
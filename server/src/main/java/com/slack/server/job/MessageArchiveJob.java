@@ -0,0 +1,29 @@
+package com.slack.server.job;
+
+import com.slack.server.service.MessageArchiveService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves messages past their workspace's retention window into the archive tier.
+ * Workspaces without a retention policy keep all of their history in the database.
+ */
+@Component
+public class MessageArchiveJob {
+    private static final Logger log = LoggerFactory.getLogger(MessageArchiveJob.class);
+
+    @Autowired
+    private MessageArchiveService messageArchiveService;
+
+    @Scheduled(cron = "${app.archive.cron:0 0 2 * * *}")
+    public void archive() {
+        long started = System.currentTimeMillis();
+        int archived = messageArchiveService.archiveExpired();
+        if (archived > 0) {
+            log.info("Archived {} messages past their retention window in {} ms", archived, System.currentTimeMillis() - started);
+        }
+    }
+}
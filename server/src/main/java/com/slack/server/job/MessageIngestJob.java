@@ -0,0 +1,81 @@
+package com.slack.server.job;
+
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.service.MessageIngestQueue;
+import com.slack.server.service.MessageService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes queued messages in batches, oldest first, until the ingest queue is empty, and hands each poster
+ * the outcome of its message. A message that cannot be written fails on its own; the rest of its batch is
+ * written. A batch whose write fails as a whole is retried one message at a time. Messages get their id and
+ * timestamp when queued, so one that fails never reorders those after it.
+ * Only runs when message ingestion is enabled.
+ */
+@Component
+@ConditionalOnProperty(name = "app.messages.ingest.enabled", havingValue = "true")
+public class MessageIngestJob {
+    private static final Logger log = LoggerFactory.getLogger(MessageIngestJob.class);
+
+    @Autowired
+    private MessageIngestQueue messageIngestQueue;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Value("${app.messages.ingest.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${app.messages.ingest.flush-interval-ms:20}")
+    public void flush() {
+        List<MessageIngestQueue.IngestedMessage> batch;
+        while (!(batch = messageIngestQueue.drain(batchSize)).isEmpty()) {
+            List<MessageDTO> written;
+            try {
+                written = messageService.persistIngestedMessages(batch);
+            } catch (RuntimeException ex) {
+                log.warn("Batch of {} ingested messages failed, writing them one by one", batch.size(), ex);
+                writeOneByOne(batch);
+                continue;
+            }
+            complete(batch, written);
+        }
+    }
+
+    private void writeOneByOne(List<MessageIngestQueue.IngestedMessage> batch) {
+        for (MessageIngestQueue.IngestedMessage message : batch) {
+            // Failed on its own already in the batch attempt
+            if (message.written().isDone()) continue;
+            try {
+                complete(List.of(message), messageService.persistIngestedMessages(List.of(message)));
+            } catch (RuntimeException ex) {
+                log.warn("Ingested message {} was not written", message.id(), ex);
+                message.written().completeExceptionally(ex);
+            }
+        }
+    }
+
+    // Null entries are messages the writer has already failed with their reason
+    private static void complete(List<MessageIngestQueue.IngestedMessage> batch, List<MessageDTO> written) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (written.get(i) != null) {
+                batch.get(i).written().complete(written.get(i));
+            }
+        }
+    }
+
+    // Write out whatever is still queued before a clean shutdown; its posters are waiting for it
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
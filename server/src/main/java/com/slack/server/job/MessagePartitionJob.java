@@ -0,0 +1,42 @@
+package com.slack.server.job;
+
+import com.slack.server.service.MessagePartitionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the coming months' message partitions and detaches expired ones.
+ * Runs once on startup, then daily so a missed run is made up well before the month turns.
+ * Only runs when message partitioning is enabled.
+ */
+@Component
+@ConditionalOnProperty(name = "app.messages.partitioning.enabled", havingValue = "true")
+public class MessagePartitionJob {
+    private static final Logger log = LoggerFactory.getLogger(MessagePartitionJob.class);
+
+    @Autowired
+    private MessagePartitionService messagePartitionService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${app.messages.partitioning.cron:0 15 3 * * *}")
+    public void maintain() {
+        if (!messagePartitionService.isEnabled()) return;
+        MessagePartitionService.MaintenanceResult result = messagePartitionService.maintain();
+        if (!result.created().isEmpty()) {
+            log.info("Created message partitions {}", result.created());
+        }
+        if (!result.detached().isEmpty()) {
+            log.info("Detached message partitions {}", result.detached());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.slack.server.job;
+
+import com.slack.server.repository.MessageSearchRepository;
+import com.slack.server.repository.SchemaMigrationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-off build of the message search index: fills in search_text on rows older than the column, then builds the
+ * full-text index concurrently. Runs on a thread of its own once the application is up, so neither startup, the
+ * scheduled jobs nor message writes wait for it, and is recorded once finished. A build cut short by a shutdown
+ * is picked up again on the next startup.
+ */
+@Component
+public class MessageSearchIndexJob {
+    private static final Logger log = LoggerFactory.getLogger(MessageSearchIndexJob.class);
+
+    private static final String MIGRATION = "message-search-index";
+
+    @Autowired
+    private MessageSearchRepository messageSearchRepository;
+
+    @Autowired
+    private SchemaMigrationRepository schemaMigrationRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!schemaMigrationRepository.isApplied(MIGRATION)) {
+            Thread builder = new Thread(this::build, "message-search-index");
+            builder.setDaemon(true);
+            builder.start();
+        }
+    }
+
+    void build() {
+        long started = System.currentTimeMillis();
+        try {
+            int filled = messageSearchRepository.backfillSearchText();
+            messageSearchRepository.buildIndex();
+            schemaMigrationRepository.markApplied(MIGRATION);
+            log.info("Built the message search index in {} ms ({} messages backfilled)",
+                System.currentTimeMillis() - started, filled);
+        } catch (RuntimeException ex) {
+            log.error("Building the message search index failed; it is retried on the next startup", ex);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.slack.server.job;
+
+import com.slack.server.service.MessageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops delete tombstones older than the delta-sync retention window.
+ * Clients holding an older cursor are told to resync instead.
+ */
+@Component
+public class MessageTombstonePruneJob {
+    private static final Logger log = LoggerFactory.getLogger(MessageTombstonePruneJob.class);
+
+    @Autowired
+    private MessageService messageService;
+
+    @Scheduled(cron = "${app.messages.tombstones.prune-cron:0 0 4 * * *}")
+    public void prune() {
+        int pruned = messageService.pruneTombstones();
+        log.info("Pruned {} message tombstones", pruned);
+    }
+}
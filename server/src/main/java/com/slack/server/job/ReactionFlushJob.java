@@ -0,0 +1,49 @@
+package com.slack.server.job;
+
+import com.slack.server.service.ReactionService;
+import com.slack.server.service.ReactionWriteBuffer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies buffered reaction toggles every few milliseconds, one transaction and one broadcast per message.
+ * A batch that fails goes back into the buffer for the next run. Only runs when the reaction write buffer is enabled.
+ */
+@Component
+@ConditionalOnProperty(name = "app.reactions.write-buffer.enabled", havingValue = "true")
+public class ReactionFlushJob {
+    private static final Logger log = LoggerFactory.getLogger(ReactionFlushJob.class);
+
+    @Autowired
+    private ReactionWriteBuffer reactionWriteBuffer;
+
+    @Autowired
+    private ReactionService reactionService;
+
+    @Scheduled(fixedDelayString = "${app.reactions.write-buffer.flush-interval-ms:50}")
+    public void flush() {
+        for (Map.Entry<String, List<ReactionWriteBuffer.Toggle>> entry : reactionWriteBuffer.drain().entrySet()) {
+            try {
+                reactionService.applyReactionBatch(entry.getKey(), entry.getValue());
+            } catch (RuntimeException ex) {
+                // Conflicts are no-ops inside the batch, so this is the database being unavailable: try again next flush
+                reactionWriteBuffer.requeue(entry.getKey(), entry.getValue());
+                log.warn("Requeued {} buffered reaction toggles for message {}", entry.getValue().size(), entry.getKey(), ex);
+            }
+        }
+    }
+
+    // Don't lose the last few milliseconds of toggles on a clean shutdown
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
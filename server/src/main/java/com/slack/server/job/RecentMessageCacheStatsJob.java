@@ -0,0 +1,28 @@
+package com.slack.server.job;
+
+import com.slack.server.service.RecentMessageCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs the recent-message cache's hit ratio and memory use for operators; the figures are internal,
+ * so they go to the log rather than the API. Only runs when the cache is enabled.
+ */
+@Component
+@ConditionalOnProperty(name = "app.messages.recent-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class RecentMessageCacheStatsJob {
+    private static final Logger log = LoggerFactory.getLogger(RecentMessageCacheStatsJob.class);
+
+    @Autowired
+    private RecentMessageCache recentMessageCache;
+
+    @Scheduled(fixedDelayString = "${app.messages.recent-cache.stats-interval-ms:300000}",
+               initialDelayString = "${app.messages.recent-cache.stats-interval-ms:300000}")
+    public void logStats() {
+        log.info("Recent message cache: {}", recentMessageCache.stats());
+    }
+}
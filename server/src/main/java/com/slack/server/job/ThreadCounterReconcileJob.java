@@ -0,0 +1,52 @@
+package com.slack.server.job;
+
+import com.slack.server.repository.SchemaMigrationRepository;
+import com.slack.server.service.MessageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the denormalized reply counters on messages from the replies themselves.
+ * Backfills existing data on the first startup against a database, then repairs drift periodically.
+ */
+@Component
+public class ThreadCounterReconcileJob {
+    private static final Logger log = LoggerFactory.getLogger(ThreadCounterReconcileJob.class);
+
+    private static final String BACKFILL = "thread-counters-backfill";
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private SchemaMigrationRepository schemaMigrationRepository;
+
+    @Value("${app.messages.thread-counters.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        // The backfill is a full-table pass; once it has run, drift is the scheduled reconcile's business
+        if (backfillOnStartup && !schemaMigrationRepository.isApplied(BACKFILL)) {
+            reconcile();
+            schemaMigrationRepository.markApplied(BACKFILL);
+        }
+    }
+
+    @Scheduled(cron = "${app.messages.thread-counters.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        long started = System.currentTimeMillis();
+        int repaired = messageService.reconcileThreadCounters();
+        if (repaired > 0) {
+            log.warn("Thread counter reconcile repaired {} parent messages in {} ms", repaired, System.currentTimeMillis() - started);
+        } else {
+            log.info("Thread counter reconcile found no drift ({} ms)", System.currentTimeMillis() - started);
+        }
+    }
+}
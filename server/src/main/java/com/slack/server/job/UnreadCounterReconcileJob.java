@@ -0,0 +1,52 @@
+package com.slack.server.job;
+
+import com.slack.server.repository.SchemaMigrationRepository;
+import com.slack.server.service.ReadMarkerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the per-channel/DM message counters and per-member read counts behind unread badges.
+ * Backfills existing data on the first startup against a database. The counters are kept on every write, and
+ * a recount touches each read marker with a correlated count, so the periodic repair only runs when a cron is set.
+ */
+@Component
+public class UnreadCounterReconcileJob {
+    private static final Logger log = LoggerFactory.getLogger(UnreadCounterReconcileJob.class);
+
+    private static final String BACKFILL = "unread-counters-backfill";
+
+    @Autowired
+    private ReadMarkerService readMarkerService;
+
+    @Autowired
+    private SchemaMigrationRepository schemaMigrationRepository;
+
+    @Value("${app.messages.unread-counters.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (backfillOnStartup && !schemaMigrationRepository.isApplied(BACKFILL)) {
+            reconcile();
+            schemaMigrationRepository.markApplied(BACKFILL);
+        }
+    }
+
+    @Scheduled(cron = "${app.messages.unread-counters.reconcile-cron:-}")
+    public void reconcile() {
+        long started = System.currentTimeMillis();
+        int repaired = readMarkerService.reconcileCounters();
+        if (repaired > 0) {
+            log.warn("Unread counter reconcile repaired {} rows in {} ms", repaired, System.currentTimeMillis() - started);
+        } else {
+            log.info("Unread counter reconcile found no drift ({} ms)", System.currentTimeMillis() - started);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.slack.server.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JavaType;
+import org.hibernate.annotations.SQLRestriction;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
@@ -12,6 +14,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "channels")
+@SQLRestriction("deleted_at IS NULL")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,6 +24,7 @@ import java.util.List;
 public class Channel {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
+    @JavaType(UuidStringJavaType.class)
     private String id;
 
     @Column(nullable = false)
@@ -38,6 +42,14 @@ public class Channel {
         this.createdAt = LocalDateTime.now();
     }
 
-    @OneToMany(mappedBy = "channel", cascade = CascadeType.ALL)
+    // Number of top-level messages, kept by atomic UPDATEs on message create/delete for unread counts
+    @Column(name = "message_count", nullable = false, updatable = false, columnDefinition = "integer default 0")
+    private int messageCount;
+
+    // Set by a channel or workspace delete; see DeleteJob
+    @Column(name = "deleted_at")
+    private Long deletedAt;
+
+    @OneToMany(mappedBy = "channel")
     private List<Message> messages;
 } 
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.slack.server.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JavaType;
+import org.hibernate.annotations.SQLRestriction;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
@@ -11,6 +13,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "conversations")
+@SQLRestriction("deleted_at IS NULL")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,6 +23,7 @@ import java.util.List;
 public class Conversation {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
+    @JavaType(UuidStringJavaType.class)
     private String id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -34,6 +38,13 @@ public class Conversation {
     @JoinColumn(name = "workspace_id", nullable = false)
     private Workspace workspace;
 
-    @OneToMany(mappedBy = "conversation", cascade = CascadeType.ALL)
+    // Number of top-level messages, kept by atomic UPDATEs on message create/delete for unread counts
+    @Column(name = "message_count", nullable = false, updatable = false, columnDefinition = "integer default 0")
+    private int messageCount;
+
+    @Column(name = "deleted_at")
+    private Long deletedAt;
+
+    @OneToMany(mappedBy = "conversation")
     private List<Message> messages;
 } 
\ No newline at end of file
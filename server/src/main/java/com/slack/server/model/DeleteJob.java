@@ -0,0 +1,76 @@
+package com.slack.server.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JavaType;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Background purge of a deleted workspace, channel or DM. The request only marks the target deleted and queues
+ * one of these; the delete job runner then removes its messages, reactions and other rows in small batches,
+ * recording progress as it goes. Pending jobs are picked up again after a restart.
+ */
+@Entity
+@Table(name = "delete_jobs", indexes = {
+    @Index(name = "idx_delete_jobs_status", columnList = "status, created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+@ToString(of = "id")
+public class DeleteJob {
+    public enum Target {
+        WORKSPACE, CHANNEL, CONVERSATION
+    }
+
+    public enum Status {
+        PENDING, COMPLETED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @JavaType(UuidStringJavaType.class)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_type", nullable = false)
+    private Target targetType;
+
+    @Column(name = "target_id", nullable = false)
+    @JavaType(UuidStringJavaType.class)
+    private String targetId;
+
+    @Column(name = "workspace_id", nullable = false)
+    @JavaType(UuidStringJavaType.class)
+    private String workspaceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    // Messages, replies included, the target held when the job first ran; null until then
+    @Column(name = "total_messages")
+    private Long totalMessages;
+
+    @Column(name = "deleted_messages", nullable = false)
+    private long deletedMessages;
+
+    // Why the last attempt stopped; the job is retried on the next run
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Long createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Long updatedAt;
+
+    @Column(name = "completed_at")
+    private Long completedAt;
+}
@@ -1,6 +1,7 @@
 package com.slack.server.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JavaType;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
@@ -19,6 +20,7 @@ import lombok.ToString;
 public class Member {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
+    @JavaType(UuidStringJavaType.class)
     private String id;
 
     @ManyToOne(fetch = FetchType.LAZY)
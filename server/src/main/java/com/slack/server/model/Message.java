@@ -1,6 +1,7 @@
 package com.slack.server.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JavaType;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
@@ -10,24 +11,40 @@ import lombok.ToString;
 import java.util.List;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+    @Index(name = "idx_messages_channel_timeline", columnList = "channel_id, created_at, id"),
+    @Index(name = "idx_messages_conversation_timeline", columnList = "conversation_id, created_at, id"),
+    @Index(name = "idx_messages_parent_timeline", columnList = "parent_message_id, created_at"),
+    @Index(name = "idx_messages_channel_changes", columnList = "channel_id, changed_at"),
+    @Index(name = "idx_messages_conversation_changes", columnList = "conversation_id, changed_at"),
+    @Index(name = "uk_messages_member_client_message", columnList = "member_id, client_message_id", unique = true)
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(of = "id")
 @ToString(of = "id")
-public class Message {
+public class Message implements PresetIdGenerator.Presettable {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @PresetId
+    @JavaType(UuidStringJavaType.class)
     private String id;
 
+    // Id assigned when an ingested message is accepted, before it is written
+    @Transient
+    private String presetId;
+
     @Column(nullable = false, columnDefinition = "TEXT")
     private String body;
 
     @Column(name = "image_id")
     private String imageId;
 
+    // Idempotency key the author's client sent with the message; a retry with the same key is not a new message
+    @Column(name = "client_message_id", length = 100, updatable = false)
+    private String clientMessageId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "member_id", nullable = false)
     private Member member;
@@ -45,12 +62,32 @@ public class Message {
     private Conversation conversation;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "parent_message_id")
+    // No foreign key: a partitioned messages table cannot be referenced by id alone
+    @JoinColumn(name = "parent_message_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Message parentMessage;
 
     @OneToMany(mappedBy = "message", cascade = CascadeType.ALL)
     private List<Reaction> reactions;
 
+    // Thread counters are maintained by atomic UPDATEs on reply write/delete, never by entity saves
+    @Column(name = "reply_count", nullable = false, updatable = false, columnDefinition = "integer default 0")
+    private int replyCount;
+
+    @Column(name = "last_reply_at", updatable = false)
+    private Long lastReplyAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_reply_member_id", updatable = false)
+    private Member lastReplyMember;
+
+    // Plain text of the body, kept in step by the entity callbacks; the search index is built from it
+    @Column(name = "search_text", columnDefinition = "TEXT")
+    private String searchText;
+
+    // Bumped on every change visible to clients (edit, reply, reaction); drives delta sync
+    @Column(name = "changed_at")
+    private Long changedAt;
+
     @Column(name = "created_at", nullable = false)
     private Long createdAt;
 
@@ -59,8 +96,21 @@ public class Message {
 
     @PrePersist
     protected void onCreate() {
+        // Runs before the id generator, which then uses this id; a new message's id carries its creation time
+        if (presetId == null) {
+            presetId = TimeOrderedIds.next();
+        }
         if (createdAt == null) {
-            createdAt = System.currentTimeMillis();
+            Long idTime = TimeOrderedIds.timestampOf(presetId);
+            createdAt = idTime != null ? idTime : System.currentTimeMillis();
         }
+        changedAt = createdAt;
+        searchText = MessageText.plainText(body);
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        changedAt = System.currentTimeMillis();
+        searchText = MessageText.plainText(body);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.slack.server.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.lang.Nullable;
+
+/**
+ * Plain-text view of a message body. Bodies are Quill deltas ({"ops":[{"insert":"..."}]});
+ * anything that doesn't parse as one is treated as plain text already.
+ */
+public final class MessageText {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private MessageText() {
+    }
+
+    public static @Nullable String plainText(@Nullable String body) {
+        if (body == null || body.isBlank()) {
+            return body;
+        }
+        if (body.charAt(0) != '{') {
+            return body;
+        }
+        try {
+            JsonNode ops = MAPPER.readTree(body).path("ops");
+            if (!ops.isArray()) {
+                return body;
+            }
+            StringBuilder text = new StringBuilder();
+            for (JsonNode op : ops) {
+                // Embeds (images, mentions) carry an object insert and have no searchable text
+                JsonNode insert = op.path("insert");
+                if (insert.isTextual()) {
+                    text.append(insert.asText());
+                }
+            }
+            return text.toString().strip();
+        } catch (Exception ex) {
+            return body;
+        }
+    }
+
+    /** Wrap plain text as a single-insert Quill delta, the form message bodies are stored in. */
+    public static String quillDelta(String plainText) {
+        String text = plainText.endsWith("\n") ? plainText : plainText + "\n";
+        return MAPPER.createObjectNode()
+            .set("ops", MAPPER.createArrayNode().add(MAPPER.createObjectNode().put("insert", text)))
+            .toString();
+    }
+}
@@ -0,0 +1,52 @@
+package com.slack.server.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JavaType;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Record of a deleted message, kept so reconnecting clients can learn about deletes through delta sync.
+ * Holds plain ids rather than associations: the rows it points at are gone, or may go, by design.
+ */
+@Entity
+@Table(name = "message_tombstones", indexes = {
+    @Index(name = "idx_message_tombstones_channel", columnList = "channel_id, deleted_at"),
+    @Index(name = "idx_message_tombstones_conversation", columnList = "conversation_id, deleted_at"),
+    @Index(name = "idx_message_tombstones_deleted_at", columnList = "deleted_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "messageId")
+@ToString(of = "messageId")
+public class MessageTombstone {
+    @Id
+    @Column(name = "message_id")
+    @JavaType(UuidStringJavaType.class)
+    private String messageId;
+
+    @Column(name = "workspace_id", nullable = false)
+    @JavaType(UuidStringJavaType.class)
+    private String workspaceId;
+
+    @Column(name = "channel_id")
+    @JavaType(UuidStringJavaType.class)
+    private String channelId;
+
+    @Column(name = "conversation_id")
+    @JavaType(UuidStringJavaType.class)
+    private String conversationId;
+
+    @Column(name = "parent_message_id")
+    @JavaType(UuidStringJavaType.class)
+    private String parentMessageId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Long deletedAt;
+}
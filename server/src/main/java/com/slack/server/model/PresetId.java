@@ -0,0 +1,18 @@
+package com.slack.server.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A generated, time-ordered UUID id (see {@link TimeOrderedIds}) that can also be handed out before the insert:
+ * an entity implementing {@link PresetIdGenerator.Presettable} with a preset id is stored under it.
+ */
+@IdGeneratorType(PresetIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface PresetId {
+}
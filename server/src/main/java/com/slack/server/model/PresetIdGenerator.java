@@ -0,0 +1,31 @@
+package com.slack.server.model;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+import java.util.EnumSet;
+
+/**
+ * Id generator behind {@link PresetId}. The id field itself stays null until the insert so that
+ * Hibernate still treats the entity as new and persists it without a lookup.
+ */
+public class PresetIdGenerator implements BeforeExecutionGenerator {
+
+    public interface Presettable {
+        String getPresetId();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        if (owner instanceof Presettable presettable && presettable.getPresetId() != null) {
+            return presettable.getPresetId();
+        }
+        return TimeOrderedIds.next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EnumSet.of(EventType.INSERT);
+    }
+}
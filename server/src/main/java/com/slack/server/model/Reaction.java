@@ -1,6 +1,7 @@
 package com.slack.server.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JavaType;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
@@ -9,7 +10,10 @@ import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
 @Entity
-@Table(name = "reactions")
+// One reaction per member, emoji and message; the upsert relies on it
+@Table(name = "reactions", indexes = {
+    @Index(name = "uk_reactions_message_member_value", columnList = "message_id, member_id, value", unique = true)
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,7 +22,8 @@ import lombok.ToString;
 @ToString(of = "id")
 public class Reaction {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @PresetId
+    @JavaType(UuidStringJavaType.class)
     private String id;
 
     @Column(nullable = false)
@@ -29,10 +34,22 @@ public class Reaction {
     private Workspace workspace;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "message_id", nullable = false)
+    // No foreign key: a partitioned messages table cannot be referenced by id alone
+    @JoinColumn(name = "message_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Message message;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "member_id", nullable = false)
     private Member member;
+
+    // Orders reactors within an emoji group, so the sampled first reactors are stable
+    @Column(name = "created_at")
+    private Long createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = System.currentTimeMillis();
+        }
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.slack.server.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JavaType;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * How far a member has read a channel or DM. {@code readCount} is the number of top-level messages at or
+ * before the marker, so unread = the timeline's message_count minus readCount with no scan of messages.
+ * Plain ids rather than associations so deleting a channel, DM or member never trips over markers.
+ */
+@Entity
+@Table(name = "read_markers",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_read_markers_member_channel", columnNames = {"member_id", "channel_id"}),
+        @UniqueConstraint(name = "uk_read_markers_member_conversation", columnNames = {"member_id", "conversation_id"})
+    },
+    indexes = {
+        @Index(name = "idx_read_markers_channel", columnList = "channel_id, last_read_at"),
+        @Index(name = "idx_read_markers_conversation", columnList = "conversation_id, last_read_at")
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+@ToString(of = "id")
+public class ReadMarker {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @JavaType(UuidStringJavaType.class)
+    private String id;
+
+    @Column(name = "member_id", nullable = false)
+    @JavaType(UuidStringJavaType.class)
+    private String memberId;
+
+    @Column(name = "channel_id")
+    @JavaType(UuidStringJavaType.class)
+    private String channelId;
+
+    @Column(name = "conversation_id")
+    @JavaType(UuidStringJavaType.class)
+    private String conversationId;
+
+    @Column(name = "last_read_message_id")
+    @JavaType(UuidStringJavaType.class)
+    private String lastReadMessageId;
+
+    @Column(name = "last_read_at")
+    private Long lastReadAt;
+
+    // Adjusted by atomic UPDATEs when read messages are deleted, so never written back from a stale entity
+    @Column(name = "read_count", nullable = false)
+    private int readCount;
+
+    @Column(name = "updated_at")
+    private Long updatedAt;
+}
@@ -1,6 +1,8 @@
 package com.slack.server.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JavaType;
+import org.hibernate.annotations.SQLRestriction;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
@@ -11,6 +13,8 @@ import java.util.List;
 
 @Entity
 @Table(name = "workspaces")
+// Deleted rows stay until their delete job has purged what is under them; no query should see them meanwhile
+@SQLRestriction("deleted_at IS NULL")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -20,21 +24,32 @@ import java.util.List;
 public class Workspace {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
+    @JavaType(UuidStringJavaType.class)
     private String id;
 
     @Column(nullable = false)
     private String name;
 
     @Column(name = "user_id", nullable = false)
+    @JavaType(UuidStringJavaType.class)
     private String userId;
 
     @Column(name = "join_code", nullable = false, unique = true)
     private String joinCode;
 
-    @OneToMany(mappedBy = "workspace", cascade = CascadeType.ALL)
+    // Days messages stay in the database before moving to the archive; null keeps them there for good
+    @Column(name = "retention_days")
+    private Integer retentionDays;
+
+    // When a delete was requested; the row goes once its delete job has purged everything under it
+    @Column(name = "deleted_at")
+    private Long deletedAt;
+
+    // No cascades: everything under a deleted workspace is purged in SQL batches by its delete job
+    @OneToMany(mappedBy = "workspace")
     private List<Member> members;
 
-    @OneToMany(mappedBy = "workspace", cascade = CascadeType.ALL)
+    @OneToMany(mappedBy = "workspace")
     private List<Channel> channels;
 
     @PrePersist
@@ -34,6 +34,7 @@ public class WebSocketEvent<T> {
         // Reaction events
         REACTION_ADDED,
         REACTION_REMOVED,
+        REACTION_DELTA,
         
         // Conversation events
         CONVERSATION_CREATED,
@@ -49,7 +50,10 @@ public class WebSocketEvent<T> {
         PRESENCE_UPDATE,
         
         // Typing events
-        TYPING_UPDATE
+        TYPING_UPDATE,
+
+        // The server could not deliver some events on this topic; reload its state
+        RESYNC
     }
 
     public @Nullable EventType getType() {
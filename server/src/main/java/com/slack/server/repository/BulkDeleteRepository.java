@@ -0,0 +1,83 @@
+package com.slack.server.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Plain SQL deletes behind delete jobs. Nothing is loaded into the persistence context. Each call removes at most
+ * one batch or a handful of rows, so a job can stop after any call and carry on later from whatever is left. Rows
+ * here are read whether or not they are marked deleted, which the entity queries hide.
+ */
+@Repository
+public class BulkDeleteRepository {
+
+    /** A channel or a DM, with the table it lives in and the messages column that points at it. */
+    public enum Timeline {
+        CHANNEL("channels", "channel_id"),
+        CONVERSATION("conversations", "conversation_id");
+
+        private final String table;
+        private final String column;
+
+        Timeline(String table, String column) {
+            this.table = table;
+            this.column = column;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Ids of a workspace's channels or DMs, deleted ones included. */
+    public List<String> findTimelineIds(Timeline timeline, String workspaceId) {
+        return jdbcTemplate.queryForList("SELECT CAST(id AS varchar) FROM " + timeline.table + " WHERE workspace_id = ?",
+            String.class, workspaceId);
+    }
+
+    /** Messages of a channel or DM, replies included. */
+    public long countMessages(Timeline timeline, String timelineId) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM messages WHERE " + timeline.column + " = ?",
+            Long.class, timelineId);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Delete up to {@code limit} messages of a channel or DM, with their reactions and the replies of any parent
+     * among them; returns the number of messages deleted, 0 once none are left.
+     */
+    public int deleteMessages(Timeline timeline, String timelineId, int limit) {
+        List<String> ids = jdbcTemplate.queryForList("SELECT CAST(id AS varchar) FROM messages WHERE " + timeline.column +
+            " = ? LIMIT " + limit, String.class, timelineId);
+        if (ids.isEmpty()) return 0;
+        String in = placeholders(ids.size());
+        Object[] args = ids.toArray();
+        // Replies first: databases from before parent keys were dropped still check them
+        jdbcTemplate.update("DELETE FROM reactions WHERE message_id IN " +
+            "(SELECT id FROM messages WHERE parent_message_id IN (" + in + "))", args);
+        int deleted = jdbcTemplate.update("DELETE FROM messages WHERE parent_message_id IN (" + in + ")", args);
+        jdbcTemplate.update("DELETE FROM reactions WHERE message_id IN (" + in + ")", args);
+        return deleted + jdbcTemplate.update("DELETE FROM messages WHERE id IN (" + in + ")", args);
+    }
+
+    /** Delete a channel or DM whose messages are gone, with its read markers and delete tombstones. */
+    public void deleteTimeline(Timeline timeline, String timelineId) {
+        jdbcTemplate.update("DELETE FROM read_markers WHERE " + timeline.column + " = ?", timelineId);
+        jdbcTemplate.update("DELETE FROM message_tombstones WHERE " + timeline.column + " = ?", timelineId);
+        jdbcTemplate.update("DELETE FROM " + timeline.table + " WHERE id = ?", timelineId);
+    }
+
+    /** Delete a workspace whose channels and DMs are gone, with its members and their read markers. */
+    public void deleteWorkspace(String workspaceId) {
+        jdbcTemplate.update("DELETE FROM read_markers WHERE member_id IN (SELECT id FROM members WHERE workspace_id = ?)",
+            workspaceId);
+        jdbcTemplate.update("DELETE FROM members WHERE workspace_id = ?", workspaceId);
+        jdbcTemplate.update("DELETE FROM workspaces WHERE id = ?", workspaceId);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", java.util.Collections.nCopies(count, "?"));
+    }
+}
@@ -2,6 +2,9 @@ package com.slack.server.repository;
 
 import com.slack.server.model.Channel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -11,4 +14,34 @@ public interface ChannelRepository extends JpaRepository<Channel, String> {
     List<Channel> findByWorkspaceId(String workspaceId);
     Optional<Channel> findByWorkspaceIdAndName(String workspaceId, String name);
     boolean existsByWorkspaceIdAndName(String workspaceId, String name);
-} 
\ No newline at end of file
+
+    @Modifying
+    @Query(value = "UPDATE channels SET message_count = GREATEST(message_count + :delta, 0) WHERE id = :channelId", nativeQuery = true)
+    int adjustMessageCount(@Param("channelId") String channelId, @Param("delta") int delta);
+
+    /** Backfill/repair: rewrite message counters that have drifted from the messages table. */
+    @Modifying
+    @Query(value = "UPDATE channels c SET message_count = " +
+           "(SELECT COUNT(*) FROM messages m WHERE m.channel_id = c.id AND m.parent_message_id IS NULL) " +
+           "WHERE c.message_count <> (SELECT COUNT(*) FROM messages m WHERE m.channel_id = c.id AND m.parent_message_id IS NULL)",
+           nativeQuery = true)
+    int reconcileMessageCounts();
+
+    @Modifying
+    @Query(value = "UPDATE channels c SET message_count = " +
+           "(SELECT COUNT(*) FROM messages m WHERE m.channel_id = c.id AND m.parent_message_id IS NULL) " +
+           "WHERE c.workspace_id = :workspaceId AND " +
+           "c.message_count <> (SELECT COUNT(*) FROM messages m WHERE m.channel_id = c.id AND m.parent_message_id IS NULL)",
+           nativeQuery = true)
+    int reconcileMessageCountsByWorkspaceId(@Param("workspaceId") String workspaceId);
+
+    @Modifying
+    @Query(value = "UPDATE channels SET deleted_at = :deletedAt WHERE workspace_id = :workspaceId AND deleted_at IS NULL", nativeQuery = true)
+    int markDeletedByWorkspaceId(@Param("workspaceId") String workspaceId, @Param("deletedAt") long deletedAt);
+
+    @Query("SELECT c.id FROM Channel c WHERE c.workspace.id = :workspaceId")
+    List<String> findIdsByWorkspaceId(@Param("workspaceId") String workspaceId);
+
+    @Query("SELECT c.workspace.id FROM Channel c WHERE c.id = :id")
+    Optional<String> findWorkspaceIdById(@Param("id") String id);
+}
@@ -1,8 +1,11 @@
 package com.slack.server.repository;
 
 import com.slack.server.model.Conversation;
+import com.slack.server.repository.projection.ConversationRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -47,4 +50,48 @@ public interface ConversationRepository extends JpaRepository<Conversation, Stri
            "LEFT JOIN FETCH c.workspace " +
            "WHERE c.id = :id")
     Optional<Conversation> findByIdWithMembers(String id);
-} 
\ No newline at end of file
+
+    String CONVERSATION_ROW = "SELECT new com.slack.server.repository.projection.ConversationRow(" +
+        "c.id, c.workspace.id, m1.id, m1.role, u1.id, u1.name, u1.imageUrl, m2.id, m2.role, u2.id, u2.name, u2.imageUrl) " +
+        "FROM Conversation c JOIN c.memberOne m1 JOIN m1.user u1 JOIN c.memberTwo m2 JOIN m2.user u2 ";
+
+    @Query(CONVERSATION_ROW + "WHERE c.id = :id")
+    Optional<ConversationRow> findRowById(@Param("id") String id);
+
+    @Query(CONVERSATION_ROW + "WHERE c.workspace.id = :workspaceId")
+    List<ConversationRow> findRowsByWorkspaceId(@Param("workspaceId") String workspaceId);
+
+    @Query(CONVERSATION_ROW + "WHERE c.workspace.id = :workspaceId AND (m1.id = :memberId OR m2.id = :memberId)")
+    List<ConversationRow> findRowsByWorkspaceIdAndMemberId(@Param("workspaceId") String workspaceId,
+                                                           @Param("memberId") String memberId);
+
+    @Modifying
+    @Query(value = "UPDATE conversations SET message_count = GREATEST(message_count + :delta, 0) WHERE id = :conversationId", nativeQuery = true)
+    int adjustMessageCount(@Param("conversationId") String conversationId, @Param("delta") int delta);
+
+    /** Backfill/repair: rewrite message counters that have drifted from the messages table. */
+    @Modifying
+    @Query(value = "UPDATE conversations c SET message_count = " +
+           "(SELECT COUNT(*) FROM messages m WHERE m.conversation_id = c.id AND m.parent_message_id IS NULL) " +
+           "WHERE c.message_count <> (SELECT COUNT(*) FROM messages m WHERE m.conversation_id = c.id AND m.parent_message_id IS NULL)",
+           nativeQuery = true)
+    int reconcileMessageCounts();
+
+    @Modifying
+    @Query(value = "UPDATE conversations c SET message_count = " +
+           "(SELECT COUNT(*) FROM messages m WHERE m.conversation_id = c.id AND m.parent_message_id IS NULL) " +
+           "WHERE c.workspace_id = :workspaceId AND " +
+           "c.message_count <> (SELECT COUNT(*) FROM messages m WHERE m.conversation_id = c.id AND m.parent_message_id IS NULL)",
+           nativeQuery = true)
+    int reconcileMessageCountsByWorkspaceId(@Param("workspaceId") String workspaceId);
+
+    @Modifying
+    @Query(value = "UPDATE conversations SET deleted_at = :deletedAt WHERE workspace_id = :workspaceId AND deleted_at IS NULL", nativeQuery = true)
+    int markDeletedByWorkspaceId(@Param("workspaceId") String workspaceId, @Param("deletedAt") long deletedAt);
+
+    @Query("SELECT c.id FROM Conversation c WHERE c.workspace.id = :workspaceId")
+    List<String> findIdsByWorkspaceId(@Param("workspaceId") String workspaceId);
+
+    @Query("SELECT c.workspace.id FROM Conversation c WHERE c.id = :id")
+    Optional<String> findWorkspaceIdById(@Param("id") String id);
+}
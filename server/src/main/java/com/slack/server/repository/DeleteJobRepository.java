@@ -0,0 +1,32 @@
+package com.slack.server.repository;
+
+import com.slack.server.model.DeleteJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface DeleteJobRepository extends JpaRepository<DeleteJob, String> {
+    List<DeleteJob> findByStatusOrderByCreatedAtAsc(DeleteJob.Status status);
+
+    @Modifying
+    @Query("UPDATE DeleteJob j SET j.totalMessages = :total, j.updatedAt = :now WHERE j.id = :id")
+    int recordTotal(@Param("id") String id, @Param("total") long total, @Param("now") long now);
+
+    @Modifying
+    @Query("UPDATE DeleteJob j SET j.deletedMessages = j.deletedMessages + :deleted, j.lastError = NULL, " +
+           "j.updatedAt = :now WHERE j.id = :id")
+    int recordProgress(@Param("id") String id, @Param("deleted") long deleted, @Param("now") long now);
+
+    @Modifying
+    @Query("UPDATE DeleteJob j SET j.lastError = :error, j.updatedAt = :now WHERE j.id = :id")
+    int recordError(@Param("id") String id, @Param("error") String error, @Param("now") long now);
+
+    @Modifying
+    @Query("UPDATE DeleteJob j SET j.status = :status, j.lastError = NULL, j.updatedAt = :now, j.completedAt = :now " +
+           "WHERE j.id = :id")
+    int markFinished(@Param("id") String id, @Param("status") DeleteJob.Status status, @Param("now") long now);
+}
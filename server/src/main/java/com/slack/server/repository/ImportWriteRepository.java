@@ -0,0 +1,191 @@
+package com.slack.server.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batched writes for workspace imports. Every insert is {@code ON CONFLICT DO NOTHING}, so re-running
+ * an import after a failure skips what already landed. On PostgreSQL a batch is streamed with {@code COPY}
+ * into a temporary staging table and moved with one {@code INSERT ... SELECT}, since {@code COPY} itself
+ * cannot skip conflicts; elsewhere it is a JDBC batch of single-row INSERTs.
+ */
+@Repository
+public class ImportWriteRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private boolean postgres;
+
+    @PostConstruct
+    void initialize() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        postgres = "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    /** Rows are (id, name, email, password, image_url); a user whose id or email is taken is left as is. */
+    public void insertUsers(List<Object[]> rows) {
+        insert("users", "id, name, email, password, image_url", null, rows);
+    }
+
+    /** Rows are (id, user_id, role, workspace_id). */
+    public void insertMembers(List<Object[]> rows) {
+        insert("members", "id, user_id, role, workspace_id", null, rows);
+    }
+
+    /** Rows are (id, name, workspace_id, created_at). */
+    public void insertChannels(List<Object[]> rows) {
+        insert("channels", "id, name, workspace_id, created_at", "message_count", rows);
+    }
+
+    /** Rows are (id, member_one_id, member_two_id, workspace_id). */
+    public void insertConversations(List<Object[]> rows) {
+        insert("conversations", "id, member_one_id, member_two_id, workspace_id", "message_count", rows);
+    }
+
+    /**
+     * Rows are (id, body, image_id, member_id, workspace_id, channel_id, conversation_id, parent_message_id,
+     * search_text, changed_at, created_at, updated_at). Thread counters start at zero and are rebuilt after the load.
+     */
+    public void insertMessages(List<Object[]> rows) {
+        insert("messages", "id, body, image_id, member_id, workspace_id, channel_id, conversation_id, " +
+            "parent_message_id, search_text, changed_at, created_at, updated_at", "reply_count", rows);
+    }
+
+    /** Rows are (id, value, workspace_id, message_id, member_id, created_at). */
+    public void insertReactions(List<Object[]> rows) {
+        insert("reactions", "id, value, workspace_id, message_id, member_id, created_at", null, rows);
+    }
+
+    /** Email to user id, for the users with these emails who are already members of the workspace. */
+    public Map<String, String> findMemberUserIdsByEmail(String workspaceId, Collection<String> emails) {
+        Map<String, String> ids = new HashMap<>();
+        if (emails.isEmpty()) return ids;
+        List<Object> args = new ArrayList<>(emails);
+        args.add(workspaceId);
+        jdbcTemplate.query("SELECT u.email, u.id FROM users u JOIN members m ON m.user_id = u.id " +
+            "WHERE u.email IN (" + placeholders(emails.size()) + ") AND m.workspace_id = ?",
+            rs -> { ids.put(rs.getString(1), rs.getString(2)); }, args.toArray());
+        return ids;
+    }
+
+    /** Which of these user ids are stored. */
+    public Set<String> findExistingUserIds(Collection<String> userIds) {
+        Set<String> ids = new HashSet<>();
+        if (userIds.isEmpty()) return ids;
+        jdbcTemplate.query("SELECT id FROM users WHERE id IN (" + placeholders(userIds.size()) + ")",
+            rs -> { ids.add(rs.getString(1)); }, userIds.toArray());
+        return ids;
+    }
+
+    /** User id to member id for everyone already in the workspace. */
+    public Map<String, String> findMemberIdsByUser(String workspaceId) {
+        Map<String, String> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT user_id, id FROM members WHERE workspace_id = ?",
+            rs -> { ids.put(rs.getString(1), rs.getString(2)); }, workspaceId);
+        return ids;
+    }
+
+    /** Channel name to id for the workspace's existing channels; deleted ones are being purged and not reused. */
+    public Map<String, String> findChannelIdsByName(String workspaceId) {
+        Map<String, String> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT name, id FROM channels WHERE workspace_id = ? AND deleted_at IS NULL",
+            rs -> { ids.putIfAbsent(rs.getString(1), rs.getString(2)); }, workspaceId);
+        return ids;
+    }
+
+    /** Existing DMs keyed by {@link #memberPair}. */
+    public Map<String, String> findConversationIdsByMembers(String workspaceId) {
+        Map<String, String> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT member_one_id, member_two_id, id FROM conversations WHERE workspace_id = ? AND deleted_at IS NULL",
+            rs -> { ids.putIfAbsent(memberPair(rs.getString(1), rs.getString(2)), rs.getString(3)); }, workspaceId);
+        return ids;
+    }
+
+    /** Which of these message ids are stored. */
+    public Set<String> findExistingMessageIds(Collection<String> messageIds) {
+        Set<String> ids = new HashSet<>();
+        if (messageIds.isEmpty()) return ids;
+        jdbcTemplate.query("SELECT id FROM messages WHERE id IN (" + placeholders(messageIds.size()) + ")",
+            rs -> { ids.add(rs.getString(1)); }, messageIds.toArray());
+        return ids;
+    }
+
+    /** Order-independent key for the two members of a DM. */
+    public static String memberPair(String memberOneId, String memberTwoId) {
+        return memberOneId.compareTo(memberTwoId) <= 0 ? memberOneId + ":" + memberTwoId : memberTwoId + ":" + memberOneId;
+    }
+
+    /** Insert rows into {@code columns} of {@code table}, skipping conflicts; {@code counter} names a column that starts at zero. */
+    private void insert(String table, String columns, @Nullable String counter, List<Object[]> rows) {
+        String targetColumns = counter != null ? columns + ", " + counter : columns;
+        String zero = counter != null ? ", 0" : "";
+        if (!postgres) {
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (" + targetColumns + ") VALUES (" +
+                placeholders(columns.split(",").length) + zero + ") ON CONFLICT DO NOTHING", rows);
+            return;
+        }
+
+        // Session-local and emptied at every commit, so pooled connections never see each other's rows
+        String staging = "import_" + table;
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TEMPORARY TABLE IF NOT EXISTS " + staging + " ON COMMIT DELETE ROWS AS " +
+                    "SELECT " + columns + " FROM " + table + " WITH NO DATA");
+                connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn("COPY " + staging + " (" + columns + ") FROM STDIN (FORMAT csv)", new StringReader(csv(rows)));
+                statement.executeUpdate("INSERT INTO " + table + " (" + targetColumns + ") SELECT " + columns + zero +
+                    " FROM " + staging + " ON CONFLICT DO NOTHING");
+                connection.commit();
+            } catch (SQLException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            } catch (IOException ex) {
+                connection.rollback();
+                throw new UncheckedIOException(ex);
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return null;
+        });
+    }
+
+    // Nulls are bare empty fields and everything else is quoted, which is how COPY's csv format tells them apart
+    private static String csv(List<Object[]> rows) {
+        StringBuilder csv = new StringBuilder(rows.size() * 256);
+        for (Object[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) csv.append(',');
+                if (row[i] != null) {
+                    csv.append('"').append(row[i].toString().replace("\"", "\"\"")).append('"');
+                }
+            }
+            csv.append('\n');
+        }
+        return csv.toString();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", java.util.Collections.nCopies(count, "?"));
+    }
+}
@@ -1,8 +1,10 @@
 package com.slack.server.repository;
 
 import com.slack.server.model.Member;
+import com.slack.server.repository.projection.MemberRow;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -20,4 +22,17 @@ public interface MemberRepository extends JpaRepository<Member, String> {
     
     @Query("SELECT m FROM Member m WHERE m.workspace.id = :workspaceId AND m.role = :role")
     List<Member> findByWorkspaceIdAndRole(String workspaceId, Member.Role role);
-} 
\ No newline at end of file
+
+    String MEMBER_ROW = "SELECT new com.slack.server.repository.projection.MemberRow(" +
+        "m.id, m.role, u.id, u.name, u.email, u.imageUrl, w.id, w.name, w.userId, w.joinCode, w.retentionDays) " +
+        "FROM Member m JOIN m.user u JOIN m.workspace w ";
+
+    @Query(MEMBER_ROW + "WHERE m.id = :id")
+    Optional<MemberRow> findRowById(@Param("id") String id);
+
+    @Query(MEMBER_ROW + "WHERE w.id = :workspaceId AND u.id = :userId")
+    Optional<MemberRow> findRowByWorkspaceIdAndUserId(@Param("workspaceId") String workspaceId, @Param("userId") String userId);
+
+    @Query(MEMBER_ROW + "WHERE w.id = :workspaceId")
+    List<MemberRow> findRowsByWorkspaceId(@Param("workspaceId") String workspaceId);
+}
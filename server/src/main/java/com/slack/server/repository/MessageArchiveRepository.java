@@ -0,0 +1,406 @@
+package com.slack.server.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slack.server.dto.MessageDTO;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold tier for messages past their workspace's retention window. Messages leave the database for compressed,
+ * append-only segment files on local disk. Small fixed-width index files are memory-mapped to find them again:
+ * <pre>
+ * {dir}/{workspaceId}/000001.seg   blocks appended back to back; a new file once max-segment-bytes is reached
+ * {dir}/timelines/{timelineId}.idx one entry per block of a channel or DM: created_at range and position
+ * {dir}/threads/{xx}.idx           thread parent id to the block holding the thread, bucketed by id suffix
+ * </pre>
+ * A block is one gzip-compressed run of a single channel's or DM's messages, oldest first, as NDJSON MessageDTOs
+ * with every reactor. A thread is always archived whole: its replies sit in the same block as the parent.
+ * A block is written and synced before the index entries that point at it, so a crash leaves at worst
+ * unreferenced bytes at the end of a segment. A message whose database delete failed after its block was written
+ * is archived again by the next run; readers drop the repeat.
+ */
+@Repository
+public class MessageArchiveRepository {
+
+    private static final int ENTRY_BYTES = 48;
+    private static final int MAPPED_INDEXES = 1024;
+    private static final int CACHED_BLOCKS = 64;
+
+    private static final Comparator<MessageDTO> OLDEST_FIRST =
+        Comparator.comparing(MessageDTO::getCreatedAt).thenComparing(MessageDTO::getId);
+
+    /** Where one block sits and the created_at range of the top-level messages in it. */
+    private record Block(long oldest, long newest, String workspaceId, int segment, long offset, int length) {}
+
+    private record MappedIndex(long size, ByteBuffer buffer) {}
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Path dir;
+    private final long maxSegmentBytes;
+
+    // Index files are mapped once and remapped only when they have grown
+    private final Map<Path, MappedIndex> mappedIndexes = Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Path, MappedIndex> eldest) {
+                return size() > MAPPED_INDEXES;
+            }
+        });
+
+    // Paging through old history reads the same block several times in a row
+    private final Map<String, List<MessageDTO>> blockCache = Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<MessageDTO>> eldest) {
+                return size() > CACHED_BLOCKS;
+            }
+        });
+
+    public MessageArchiveRepository(@Value("${app.archive.dir:./data/archive}") String dir,
+                                    @Value("${app.archive.max-segment-bytes:268435456}") long maxSegmentBytes) {
+        this.dir = Path.of(dir);
+        this.maxSegmentBytes = maxSegmentBytes;
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        Files.createDirectories(dir.resolve("timelines"));
+        Files.createDirectories(dir.resolve("threads"));
+    }
+
+    /**
+     * Append one block: top-level messages of a channel or DM, oldest first, followed by all of their replies.
+     * Returns once the block and its index entries are on disk.
+     */
+    public synchronized void append(String workspaceId, String timelineId, List<MessageDTO> messages) {
+        List<MessageDTO> topLevel = messages.stream().filter(m -> m.getParentMessageId() == null).toList();
+        if (topLevel.isEmpty()) return;
+        try {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (OutputStream gzip = new GZIPOutputStream(compressed)) {
+                for (MessageDTO message : messages) {
+                    gzip.write(objectMapper.writeValueAsBytes(message));
+                    gzip.write('\n');
+                }
+            }
+            byte[] block = compressed.toByteArray();
+
+            int segment = activeSegment(Files.createDirectories(dir.resolve(workspaceId)), block.length);
+            long offset;
+            try (FileChannel channel = FileChannel.open(segmentPath(workspaceId, segment),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                offset = channel.size();
+                writeFully(channel, ByteBuffer.wrap(block), offset);
+                channel.force(false);
+            }
+
+            // Entries share one layout: two keys (created_at range, or the thread parent's id), then the location
+            UUID workspace = UUID.fromString(workspaceId);
+            ByteBuffer entry = ByteBuffer.allocate(ENTRY_BYTES);
+            entry.putLong(topLevel.get(0).getCreatedAt()).putLong(topLevel.get(topLevel.size() - 1).getCreatedAt());
+            putLocation(entry, workspace, segment, offset, block.length);
+            appendEntries(timelineIndexPath(timelineId), List.of(entry));
+
+            Set<String> threadParents = new HashSet<>();
+            messages.forEach(m -> { if (m.getParentMessageId() != null) threadParents.add(m.getParentMessageId()); });
+            Map<Path, List<ByteBuffer>> threadEntries = new HashMap<>();
+            for (MessageDTO parent : topLevel) {
+                if (!threadParents.contains(parent.getId())) continue;
+                UUID parentId = UUID.fromString(parent.getId());
+                ByteBuffer thread = ByteBuffer.allocate(ENTRY_BYTES);
+                thread.putLong(parentId.getMostSignificantBits()).putLong(parentId.getLeastSignificantBits());
+                putLocation(thread, workspace, segment, offset, block.length);
+                threadEntries.computeIfAbsent(threadIndexPath(parent.getId()), p -> new ArrayList<>()).add(thread);
+            }
+            for (Map.Entry<Path, List<ByteBuffer>> bucket : threadEntries.entrySet()) {
+                appendEntries(bucket.getKey(), bucket.getValue());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /** Created_at of the newest archived top-level message of a channel or DM, or null when none is archived. */
+    public @Nullable Long newestCreatedAt(String timelineId) {
+        return blocks(timelineId).stream().map(Block::newest).max(Long::compare).orElse(null);
+    }
+
+    /** Archived top-level messages before a position (or the newest ones), newest first. */
+    public List<MessageDTO> findBefore(String timelineId, @Nullable Long createdAt, @Nullable String id, int limit) {
+        List<Block> blocks = new ArrayList<>(blocks(timelineId));
+        if (blocks.isEmpty()) return List.of();
+        blocks.removeIf(block -> createdAt != null && block.oldest() > createdAt);
+        blocks.sort(Comparator.comparingLong(Block::newest).reversed());
+        return collect(blocks, false, limit,
+            m -> createdAt == null || m.getCreatedAt() < createdAt
+                || (m.getCreatedAt().equals(createdAt) && m.getId().compareTo(id) < 0));
+    }
+
+    /** Archived top-level messages after a position, oldest first. */
+    public List<MessageDTO> findAfter(String timelineId, long createdAt, String id, int limit) {
+        List<Block> blocks = new ArrayList<>(blocks(timelineId));
+        if (blocks.isEmpty()) return List.of();
+        blocks.removeIf(block -> block.newest() < createdAt);
+        blocks.sort(Comparator.comparingLong(Block::oldest));
+        return collect(blocks, true, limit,
+            m -> m.getCreatedAt() > createdAt || (m.getCreatedAt() == createdAt && m.getId().compareTo(id) > 0));
+    }
+
+    /** An archived thread: its parent first, then the replies oldest first. Empty when the parent is not archived. */
+    public List<MessageDTO> findThread(String parentMessageId) {
+        UUID parentId;
+        try {
+            parentId = UUID.fromString(parentMessageId);
+        } catch (IllegalArgumentException ex) {
+            return List.of();
+        }
+        ByteBuffer index = map(threadIndexPath(parentMessageId));
+        // The last entry wins: a thread archived twice is read from its latest copy
+        for (int position = index.limit() - ENTRY_BYTES; position >= 0; position -= ENTRY_BYTES) {
+            if (index.getLong(position) != parentId.getMostSignificantBits()
+                    || index.getLong(position + 8) != parentId.getLeastSignificantBits()) continue;
+            Block block = blockAt(index, position);
+            // Entries outlive a deleted workspace's files
+            if (!Files.exists(segmentPath(block.workspaceId(), block.segment()))) return List.of();
+            List<MessageDTO> thread = new ArrayList<>();
+            for (MessageDTO message : read(block)) {
+                if (message.getId().equals(parentMessageId)) {
+                    thread.add(0, message);
+                } else if (parentMessageId.equals(message.getParentMessageId())) {
+                    thread.add(message);
+                }
+            }
+            // ...and a deleted channel's or DM's timeline index
+            if (thread.isEmpty() || !Files.exists(timelineIndexPath(timelineOf(thread.get(0))))) return List.of();
+            return thread;
+        }
+        return List.of();
+    }
+
+    /** Every archived message of a channel or DM, replies included, handed over a block at a time, oldest block first. */
+    public void forEachBlock(String timelineId, Consumer<List<MessageDTO>> consumer) {
+        List<Block> blocks = new ArrayList<>(blocks(timelineId));
+        blocks.sort(Comparator.comparingLong(Block::oldest));
+        Set<String> seen = new HashSet<>();
+        for (Block block : blocks) {
+            consumer.accept(read(block).stream().filter(m -> seen.add(m.getId())).toList());
+        }
+    }
+
+    /**
+     * Drop a channel's or DM's timeline index. Its blocks stay in the workspace's segments, unreachable, until the
+     * workspace itself is deleted.
+     */
+    public synchronized void deleteTimeline(String timelineId) {
+        Path index = timelineIndexPath(timelineId);
+        mappedIndexes.remove(index);
+        try {
+            Files.deleteIfExists(index);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /** Drop everything archived for a workspace, given the ids of its channels and DMs. */
+    public synchronized void deleteWorkspace(String workspaceId, Collection<String> timelineIds) {
+        try {
+            for (String timelineId : timelineIds) {
+                Path index = timelineIndexPath(timelineId);
+                mappedIndexes.remove(index);
+                Files.deleteIfExists(index);
+            }
+            Path root = dir.resolve(UUID.fromString(workspaceId).toString());
+            if (Files.exists(root)) {
+                try (Stream<Path> segments = Files.list(root)) {
+                    for (Path segment : segments.toList()) {
+                        Files.delete(segment);
+                    }
+                }
+                Files.delete(root);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        blockCache.keySet().removeIf(key -> key.startsWith(workspaceId + "/"));
+    }
+
+    /**
+     * Walk blocks in read order, keeping matching top-level messages, until {@code limit} are found and no later
+     * block can hold one that sorts ahead of them.
+     */
+    private List<MessageDTO> collect(List<Block> blocks, boolean ascending, int limit,
+                                     Predicate<MessageDTO> matches) {
+        Comparator<MessageDTO> order = ascending ? OLDEST_FIRST : OLDEST_FIRST.reversed();
+        Map<String, MessageDTO> found = new HashMap<>();
+        List<MessageDTO> sorted = List.of();
+        for (Block block : blocks) {
+            if (sorted.size() >= limit) {
+                long last = sorted.get(limit - 1).getCreatedAt();
+                // Blocks are visited nearest first; once one starts beyond the page it holds nothing for it
+                if (ascending ? block.oldest() > last : block.newest() < last) break;
+            }
+            for (MessageDTO message : read(block)) {
+                if (message.getParentMessageId() == null && matches.test(message)) {
+                    found.putIfAbsent(message.getId(), message);
+                }
+            }
+            sorted = found.values().stream().sorted(order).toList();
+        }
+        return sorted.size() > limit ? sorted.subList(0, limit) : sorted;
+    }
+
+    private List<Block> blocks(String timelineId) {
+        ByteBuffer index = map(timelineIndexPath(timelineId));
+        List<Block> blocks = new ArrayList<>(index.limit() / ENTRY_BYTES);
+        for (int position = 0; position < index.limit(); position += ENTRY_BYTES) {
+            blocks.add(blockAt(index, position));
+        }
+        return blocks;
+    }
+
+    private static void putLocation(ByteBuffer entry, UUID workspace, int segment, long offset, int length) {
+        entry.putLong(workspace.getMostSignificantBits()).putLong(workspace.getLeastSignificantBits())
+            .putInt(segment).putLong(offset).putInt(length).flip();
+    }
+
+    private static Block blockAt(ByteBuffer index, int position) {
+        return new Block(index.getLong(position), index.getLong(position + 8),
+            new UUID(index.getLong(position + 16), index.getLong(position + 24)).toString(),
+            index.getInt(position + 32), index.getLong(position + 36), index.getInt(position + 44));
+    }
+
+    private List<MessageDTO> read(Block block) {
+        String workspaceId = block.workspaceId();
+        String key = workspaceId + "/" + block.segment() + "/" + block.offset();
+        List<MessageDTO> cached = blockCache.get(key);
+        if (cached != null) return cached;
+
+        ByteBuffer bytes = ByteBuffer.allocate(block.length());
+        try (FileChannel channel = FileChannel.open(segmentPath(workspaceId, block.segment()), StandardOpenOption.READ)) {
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes, block.offset() + bytes.position()) < 0) {
+                    throw new IOException("Archive segment " + block.segment() + " of workspace " + workspaceId + " is truncated");
+                }
+            }
+            List<MessageDTO> messages = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(new ByteArrayInputStream(bytes.array())), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    messages.add(objectMapper.readValue(line, MessageDTO.class));
+                }
+            }
+            List<MessageDTO> loaded = Collections.unmodifiableList(messages);
+            blockCache.put(key, loaded);
+            return loaded;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // Whole entries only: a torn append at the end of the file is ignored until overwritten
+    private ByteBuffer map(Path file) {
+        try {
+            long size = Files.size(file) / ENTRY_BYTES * ENTRY_BYTES;
+            MappedIndex mapped = mappedIndexes.get(file);
+            if (mapped == null || mapped.size() != size) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                    mapped = new MappedIndex(size, buffer);
+                }
+                mappedIndexes.put(file, mapped);
+            }
+            return mapped.buffer().duplicate();
+        } catch (NoSuchFileException ex) {
+            return ByteBuffer.allocate(0);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void appendEntries(Path file, List<ByteBuffer> entries) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long position = channel.size() / ENTRY_BYTES * ENTRY_BYTES;
+            for (ByteBuffer entry : entries) {
+                writeFully(channel, entry, position);
+                position += ENTRY_BYTES;
+            }
+            channel.truncate(position);
+            channel.force(false);
+        }
+    }
+
+    private int activeSegment(Path workspaceDir, int incoming) throws IOException {
+        int latest;
+        try (Stream<Path> files = Files.list(workspaceDir)) {
+            latest = files.map(p -> p.getFileName().toString())
+                .filter(name -> name.endsWith(".seg"))
+                .mapToInt(name -> Integer.parseInt(name.substring(0, name.length() - 4)))
+                .max().orElse(1);
+        }
+        Path current = workspaceDir.resolve(String.format("%06d.seg", latest));
+        return Files.exists(current) && Files.size(current) > 0 && Files.size(current) + incoming > maxSegmentBytes
+            ? latest + 1 : latest;
+    }
+
+    // Ids become file names, so only well-formed ones are accepted
+    private Path timelineIndexPath(String timelineId) {
+        return dir.resolve("timelines").resolve(UUID.fromString(timelineId) + ".idx");
+    }
+
+    private static String timelineOf(MessageDTO message) {
+        return message.getChannelId() != null ? message.getChannelId() : message.getConversationId();
+    }
+
+    private Path segmentPath(String workspaceId, int segment) {
+        return dir.resolve(workspaceId).resolve(String.format("%06d.seg", segment));
+    }
+
+    // UUIDv7 ids start with their timestamp, so bucket on the random tail
+    private Path threadIndexPath(String parentMessageId) {
+        return dir.resolve("threads").resolve(parentMessageId.substring(parentMessageId.length() - 2).toLowerCase() + ".idx");
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
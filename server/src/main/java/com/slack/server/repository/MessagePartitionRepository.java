@@ -0,0 +1,176 @@
+package com.slack.server.repository;
+
+import com.slack.server.repository.projection.MessagePartitionRow;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Monthly range partitions of {@code messages} on {@code created_at} (UTC months), PostgreSQL only and off by default.
+ * <p>
+ * With partitioning switched on, a plain messages table is converted in place at startup. The existing table is
+ * attached, as is, as the partition for everything before next month, so nothing is copied. Later months get
+ * partitions of their own. A partitioned table's keys must contain the partition column, so:
+ * <ul>
+ *   <li>the primary key becomes (id, created_at); ids stay unique because each one is a fresh UUID,</li>
+ *   <li>foreign keys pointing at messages are dropped; reactions go with their message through the entity
+ *       cascade, and a parent that still has replies is refused by the service,</li>
+ *   <li>the unique (member_id, client_message_id) index becomes a plain index. Retries are then serialized by
+ *       {@link #lockClientMessage} instead.</li>
+ * </ul>
+ * The conversion runs in one transaction. It builds the new primary key index on the old table and checks the
+ * old table's range, so on a large table it holds the table locked for a while.
+ */
+// Schema updates, and with them the uuid conversion, must be in place before the table is rebuilt around them
+@DependsOn("entityManagerFactory")
+@Repository
+public class MessagePartitionRepository {
+    private static final Logger log = LoggerFactory.getLogger(MessagePartitionRepository.class);
+
+    private static final String LEGACY_PARTITION = "messages_legacy";
+    private static final Pattern BOUNDS = Pattern.compile("FROM \\((?:MINVALUE|'?(-?\\d+)'?)\\) TO \\((?:MAXVALUE|'?(-?\\d+)'?)\\)");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final boolean enabled;
+    private boolean partitioned;
+
+    public MessagePartitionRepository(@Value("${app.messages.partitioning.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    void initialize() {
+        if (!enabled) return;
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            log.warn("Message partitioning needs PostgreSQL; messages stays a single table on {}", product);
+            return;
+        }
+        Boolean alreadyPartitioned = jdbcTemplate.queryForObject(
+            "SELECT relkind = 'p' FROM pg_class WHERE oid = 'messages'::regclass", Boolean.class);
+        if (!Boolean.TRUE.equals(alreadyPartitioned)) {
+            long started = System.currentTimeMillis();
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> convert(YearMonth.now(ZoneOffset.UTC).plusMonths(1)));
+            log.info("Converted messages to a partitioned table in {} ms", System.currentTimeMillis() - started);
+        }
+        partitioned = true;
+    }
+
+    /** Whether messages is a partitioned table, so unique indexes no longer cover client message ids. */
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+
+    /** The current partitions, oldest first. */
+    public List<MessagePartitionRow> findPartitions() {
+        return jdbcTemplate.query("SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'messages'::regclass", (rs, i) -> {
+                Matcher bounds = BOUNDS.matcher(rs.getString(2));
+                if (!bounds.find()) {
+                    throw new IllegalStateException("Unexpected bounds on partition " + rs.getString(1) + ": " + rs.getString(2));
+                }
+                return new MessagePartitionRow(rs.getString(1),
+                    bounds.group(1) != null ? Long.valueOf(bounds.group(1)) : null,
+                    bounds.group(2) != null ? Long.valueOf(bounds.group(2)) : null);
+            }).stream()
+            .sorted(Comparator.comparing(MessagePartitionRow::to, Comparator.nullsLast(Long::compare)))
+            .toList();
+    }
+
+    /** Create the partition for a month unless one exists; returns its name. */
+    public String createPartition(YearMonth month) {
+        String name = partitionName(month);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF messages FOR VALUES FROM (" +
+            monthStart(month) + ") TO (" + monthStart(month.plusMonths(1)) + ")");
+        return name;
+    }
+
+    /**
+     * Detach a partition so it no longer takes part in reads, writes or maintenance of messages. It is kept as a
+     * plain table, moved into {@code archiveSchema} when one is given.
+     */
+    public void detachPartition(String name, String archiveSchema) {
+        jdbcTemplate.execute("ALTER TABLE messages DETACH PARTITION " + name);
+        if (!archiveSchema.isBlank()) {
+            jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + archiveSchema);
+            jdbcTemplate.execute("ALTER TABLE " + name + " SET SCHEMA " + archiveSchema);
+        }
+    }
+
+    /**
+     * Serialize posts carrying the same client message id until the surrounding transaction ends, so that a retry
+     * racing its original finds the original's row instead of inserting a second one.
+     */
+    public void lockClientMessage(String memberId, String clientMessageId) {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(hashtextextended(?, 0))", memberId + "/" + clientMessageId);
+    }
+
+    public static long monthStart(YearMonth month) {
+        return month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public static String partitionName(YearMonth month) {
+        return String.format("messages_p%04d%02d", month.getYear(), month.getMonthValue());
+    }
+
+    private void convert(YearMonth firstMonth) {
+        // Nothing can reference messages(id) once it is no longer unique on its own
+        jdbcTemplate.query("SELECT conrelid::regclass::text, conname FROM pg_constraint " +
+                "WHERE contype = 'f' AND confrelid = 'messages'::regclass",
+                (rs, i) -> "ALTER TABLE " + rs.getString(1) + " DROP CONSTRAINT " + rs.getString(2))
+            .forEach(jdbcTemplate::execute);
+
+        String primaryKey = jdbcTemplate.queryForObject(
+            "SELECT conname FROM pg_constraint WHERE conrelid = 'messages'::regclass AND contype = 'p'", String.class);
+        // Unique keys from schema update are constraints, and their index can only go with the constraint
+        List<Object[]> indexes = jdbcTemplate.query("SELECT c.relname, pg_get_indexdef(i.indexrelid), i.indisunique, " +
+                "k.conname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+                "LEFT JOIN pg_constraint k ON k.conindid = i.indexrelid AND k.conrelid = i.indrelid AND k.contype = 'u' " +
+                "WHERE i.indrelid = 'messages'::regclass AND NOT i.indisprimary",
+            (rs, i) -> new Object[] { rs.getString(1), rs.getString(2), rs.getBoolean(3), rs.getString(4) });
+
+        jdbcTemplate.execute("ALTER TABLE messages RENAME TO " + LEGACY_PARTITION);
+        jdbcTemplate.execute("ALTER TABLE " + LEGACY_PARTITION + " DROP CONSTRAINT " + primaryKey);
+        for (Object[] index : indexes) {
+            if (index[3] != null) {
+                jdbcTemplate.execute("ALTER TABLE " + LEGACY_PARTITION + " DROP CONSTRAINT " + index[3]);
+            } else if ((Boolean) index[2]) {
+                jdbcTemplate.execute("DROP INDEX " + index[0]);
+            } else {
+                // Frees the name for the partitioned index, which adopts this one instead of building another
+                jdbcTemplate.execute("ALTER INDEX " + index[0] + " RENAME TO " + index[0] + "_legacy");
+            }
+        }
+
+        jdbcTemplate.execute("CREATE TABLE messages (LIKE " + LEGACY_PARTITION +
+            " INCLUDING DEFAULTS INCLUDING GENERATED INCLUDING CONSTRAINTS) PARTITION BY RANGE (created_at)");
+        jdbcTemplate.execute("ALTER TABLE messages ADD CONSTRAINT " + primaryKey + " PRIMARY KEY (id, created_at)");
+        jdbcTemplate.execute("ALTER TABLE messages ATTACH PARTITION " + LEGACY_PARTITION +
+            " FOR VALUES FROM (MINVALUE) TO (" + monthStart(firstMonth) + ")");
+        for (Object[] index : indexes) {
+            // The definitions still name messages, which is now the partitioned table
+            jdbcTemplate.execute(((String) index[1]).replaceFirst("^CREATE UNIQUE INDEX", "CREATE INDEX"));
+        }
+        createPartition(firstMonth);
+    }
+}
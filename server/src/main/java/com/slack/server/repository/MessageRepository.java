@@ -1,23 +1,212 @@
 package com.slack.server.repository;
 
 import com.slack.server.model.Message;
+import com.slack.server.repository.projection.ClientMessageRow;
+import com.slack.server.repository.projection.MessageRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, String> {
-    Page<Message> findByChannelIdAndParentMessageIsNullOrderByCreatedAtDesc(String channelId, Pageable pageable);
-    Page<Message> findByConversationIdAndParentMessageIsNullOrderByCreatedAtDesc(String conversationId, Pageable pageable);
-    List<Message> findByParentMessageId(String parentMessageId);
-    long countByParentMessageId(String parentMessageId);
-    void deleteByWorkspaceId(String workspaceId);
-
-    @Query("SELECT m FROM Message m LEFT JOIN FETCH m.member mem LEFT JOIN FETCH mem.user WHERE m.parentMessage.id = :parentMessageId ORDER BY m.createdAt DESC LIMIT 1")
-    Optional<Message> findLatestReplyByParentMessageId(@Param("parentMessageId") String parentMessageId);
-} 
\ No newline at end of file
+    String MESSAGE_ROW = "SELECT new com.slack.server.repository.projection.MessageRow(" +
+        "m.id, m.body, m.imageId, mem.id, mem.role, u.id, u.name, u.imageUrl, " +
+        "m.workspace.id, m.channel.id, m.conversation.id, m.parentMessage.id, m.createdAt, m.updatedAt, " +
+        "m.replyCount, m.lastReplyAt, lu.name, lu.imageUrl) " +
+        "FROM Message m JOIN m.member mem JOIN mem.user u LEFT JOIN m.lastReplyMember lm LEFT JOIN lm.user lu ";
+
+    long countByChannelIdAndParentMessageIsNull(String channelId);
+    long countByConversationIdAndParentMessageIsNull(String conversationId);
+
+    // Read paths select MessageRow projections: one joined query per page, no managed entities or snapshots
+    @Query(value = MESSAGE_ROW + "WHERE m.channel.id = :channelId AND m.parentMessage IS NULL ORDER BY m.createdAt DESC",
+           countQuery = "SELECT COUNT(m) FROM Message m WHERE m.channel.id = :channelId AND m.parentMessage IS NULL")
+    Page<MessageRow> findChannelPage(@Param("channelId") String channelId, Pageable pageable);
+
+    @Query(value = MESSAGE_ROW + "WHERE m.conversation.id = :conversationId AND m.parentMessage IS NULL ORDER BY m.createdAt DESC",
+           countQuery = "SELECT COUNT(m) FROM Message m WHERE m.conversation.id = :conversationId AND m.parentMessage IS NULL")
+    Page<MessageRow> findConversationPage(@Param("conversationId") String conversationId, Pageable pageable);
+
+    @Query(MESSAGE_ROW + "WHERE m.parentMessage.id = :parentMessageId AND m.createdAt >= :since ORDER BY m.createdAt ASC, m.id ASC")
+    List<MessageRow> findThreadRows(@Param("parentMessageId") String parentMessageId, @Param("since") Long since);
+
+    // Top-level messages whose whole thread is past the retention cutoff, oldest first, for the archive tier
+    @Query(MESSAGE_ROW + "WHERE m.channel.id = :channelId AND m.parentMessage IS NULL AND m.createdAt < :cutoff AND " +
+           "(m.lastReplyAt IS NULL OR m.lastReplyAt < :cutoff) ORDER BY m.createdAt ASC, m.id ASC")
+    List<MessageRow> findChannelArchivable(@Param("channelId") String channelId, @Param("cutoff") Long cutoff,
+                                           Pageable pageable);
+
+    @Query(MESSAGE_ROW + "WHERE m.conversation.id = :conversationId AND m.parentMessage IS NULL AND m.createdAt < :cutoff AND " +
+           "(m.lastReplyAt IS NULL OR m.lastReplyAt < :cutoff) ORDER BY m.createdAt ASC, m.id ASC")
+    List<MessageRow> findConversationArchivable(@Param("conversationId") String conversationId, @Param("cutoff") Long cutoff,
+                                                Pageable pageable);
+
+    @Query(MESSAGE_ROW + "WHERE m.parentMessage.id IN :parentMessageIds ORDER BY m.createdAt ASC, m.id ASC")
+    List<MessageRow> findReplyRows(@Param("parentMessageIds") Collection<String> parentMessageIds);
+
+    @Modifying
+    @Query("DELETE FROM Message m WHERE m.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<String> ids);
+
+    // Full history including replies, oldest first, read through a server-side cursor for exports
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(MESSAGE_ROW + "WHERE m.channel.id = :channelId ORDER BY m.createdAt ASC, m.id ASC")
+    Stream<MessageRow> streamChannelHistory(@Param("channelId") String channelId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(MESSAGE_ROW + "WHERE m.conversation.id = :conversationId ORDER BY m.createdAt ASC, m.id ASC")
+    Stream<MessageRow> streamConversationHistory(@Param("conversationId") String conversationId);
+
+    // Keyset pages of a thread: oldest first for reading forward, newest first for jumping to the latest replies.
+    // :since is a lower bound on the replies' createdAt, derived from the parent's id, that lets partitions be pruned
+    @Query(MESSAGE_ROW + "WHERE m.parentMessage.id = :parentMessageId AND m.createdAt >= :since ORDER BY m.createdAt ASC, m.id ASC")
+    Slice<MessageRow> findThreadFirst(@Param("parentMessageId") String parentMessageId, @Param("since") Long since,
+                                      Pageable pageable);
+
+    @Query(MESSAGE_ROW + "WHERE m.parentMessage.id = :parentMessageId AND " +
+           "m.createdAt >= :createdAt AND (m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id)) " +
+           "ORDER BY m.createdAt ASC, m.id ASC")
+    Slice<MessageRow> findThreadAfter(@Param("parentMessageId") String parentMessageId, @Param("createdAt") Long createdAt,
+                                      @Param("id") String id, Pageable pageable);
+
+    @Query(MESSAGE_ROW + "WHERE m.parentMessage.id = :parentMessageId AND m.createdAt >= :since ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<MessageRow> findThreadLatest(@Param("parentMessageId") String parentMessageId, @Param("since") Long since,
+                                       Pageable pageable);
+
+    @Query(MESSAGE_ROW + "WHERE m.parentMessage.id = :parentMessageId AND " +
+           "m.createdAt <= :createdAt AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<MessageRow> findThreadBefore(@Param("parentMessageId") String parentMessageId, @Param("createdAt") Long createdAt,
+                                       @Param("id") String id, Pageable pageable);
+
+    @Query(MESSAGE_ROW + "WHERE m.id = :id")
+    Optional<MessageRow> findRowById(@Param("id") String id);
+
+    @Query(MESSAGE_ROW + "WHERE mem.id = :memberId AND m.clientMessageId = :clientMessageId")
+    Optional<MessageRow> findRowByClientMessageId(@Param("memberId") String memberId,
+                                                  @Param("clientMessageId") String clientMessageId);
+
+    // Candidates for many (member, client message id) pairs at once; callers keep the pairs they asked for
+    @Query("SELECT new com.slack.server.repository.projection.ClientMessageRow(m.id, m.member.id, m.clientMessageId) " +
+           "FROM Message m WHERE m.member.id IN :memberIds AND m.clientMessageId IN :clientMessageIds")
+    List<ClientMessageRow> findClientMessages(@Param("memberIds") Collection<String> memberIds,
+                                              @Param("clientMessageIds") Collection<String> clientMessageIds);
+
+    @Query(MESSAGE_ROW + "WHERE m.id IN :ids")
+    List<MessageRow> findRowsByIds(@Param("ids") Collection<String> ids);
+
+    // Recomputes a parent's thread counters from its replies; shared by single-thread repair and the reconcile job
+    String THREAD_COUNTER_RECOMPUTE =
+        "reply_count = (SELECT COUNT(*) FROM messages r WHERE r.parent_message_id = p.id), " +
+        "last_reply_at = (SELECT MAX(r.created_at) FROM messages r WHERE r.parent_message_id = p.id), " +
+        "last_reply_member_id = (SELECT r.member_id FROM messages r WHERE r.parent_message_id = p.id " +
+        "ORDER BY r.created_at DESC, r.id DESC LIMIT 1)";
+
+    /** Atomically bump a parent's reply counter; last-reply fields only move forward in time. */
+    @Modifying
+    @Query(value = "UPDATE messages SET reply_count = reply_count + 1, changed_at = :replyAt, " +
+           "last_reply_member_id = CASE WHEN last_reply_at IS NULL OR last_reply_at <= :replyAt " +
+           "THEN :memberId ELSE last_reply_member_id END, " +
+           "last_reply_at = CASE WHEN last_reply_at IS NULL OR last_reply_at <= :replyAt " +
+           "THEN :replyAt ELSE last_reply_at END " +
+           "WHERE id = :parentMessageId", nativeQuery = true)
+    int recordThreadReply(@Param("parentMessageId") String parentMessageId, @Param("memberId") String memberId,
+                          @Param("replyAt") Long replyAt);
+
+    @Modifying
+    @Query(value = "UPDATE messages p SET " + THREAD_COUNTER_RECOMPUTE + ", changed_at = :changedAt WHERE p.id = :parentMessageId",
+           nativeQuery = true)
+    int recomputeThreadCounters(@Param("parentMessageId") String parentMessageId, @Param("changedAt") Long changedAt);
+
+    /** Mark a message changed for delta sync when something outside its row, like a reaction, changes its view. */
+    @Modifying
+    @Query("UPDATE Message m SET m.changedAt = :changedAt WHERE m.id = :id")
+    int markChanged(@Param("id") String id, @Param("changedAt") Long changedAt);
+
+    @Query("SELECT m.workspace.id FROM Message m WHERE m.id = :id")
+    Optional<String> findWorkspaceIdById(@Param("id") String id);
+
+    // Delta sync: everything in a timeline (replies included) touched after a point in time, oldest change first
+    @Query(MESSAGE_ROW + "WHERE m.channel.id = :channelId AND m.changedAt > :since ORDER BY m.changedAt ASC, m.id ASC")
+    List<MessageRow> findChannelChanges(@Param("channelId") String channelId, @Param("since") Long since, Pageable pageable);
+
+    @Query(MESSAGE_ROW + "WHERE m.conversation.id = :conversationId AND m.changedAt > :since ORDER BY m.changedAt ASC, m.id ASC")
+    List<MessageRow> findConversationChanges(@Param("conversationId") String conversationId, @Param("since") Long since, Pageable pageable);
+
+    // A top-level message whose stored thread counters disagree with its replies
+    String THREAD_COUNTER_DRIFT = "p.parent_message_id IS NULL AND (" +
+        "p.reply_count <> (SELECT COUNT(*) FROM messages r WHERE r.parent_message_id = p.id) OR " +
+        "p.last_reply_at IS DISTINCT FROM (SELECT MAX(r.created_at) FROM messages r WHERE r.parent_message_id = p.id) OR " +
+        "p.last_reply_member_id IS DISTINCT FROM (SELECT r.member_id FROM messages r WHERE r.parent_message_id = p.id " +
+        "ORDER BY r.created_at DESC, r.id DESC LIMIT 1))";
+
+    /** Backfill/repair: rewrite counters only on top-level messages whose stored values have drifted. */
+    @Modifying
+    @Query(value = "UPDATE messages p SET " + THREAD_COUNTER_RECOMPUTE + " WHERE " + THREAD_COUNTER_DRIFT,
+           nativeQuery = true)
+    int reconcileThreadCounters();
+
+    /** The same repair limited to one workspace, e.g. after an import into it. */
+    @Modifying
+    @Query(value = "UPDATE messages p SET " + THREAD_COUNTER_RECOMPUTE + " " +
+           "WHERE p.workspace_id = :workspaceId AND " + THREAD_COUNTER_DRIFT,
+           nativeQuery = true)
+    int reconcileThreadCountersByWorkspaceId(@Param("workspaceId") String workspaceId);
+
+    // Keyset pagination: (createdAt, id) is a total order, so no OFFSET and no COUNT query.
+    // The plain createdAt bound in front of each tuple test is what lets a partitioned table skip partitions.
+    @Query(MESSAGE_ROW + "WHERE m.channel.id = :channelId AND m.parentMessage IS NULL " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<MessageRow> findChannelLatest(@Param("channelId") String channelId, Pageable pageable);
+
+    // Newest page limited to the recent partitions; only trusted when it comes back full
+    @Query(MESSAGE_ROW + "WHERE m.channel.id = :channelId AND m.parentMessage IS NULL AND m.createdAt >= :since " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<MessageRow> findChannelLatestSince(@Param("channelId") String channelId, @Param("since") Long since,
+                                             Pageable pageable);
+
+    @Query(MESSAGE_ROW + "WHERE m.channel.id = :channelId AND m.parentMessage IS NULL AND " +
+           "m.createdAt <= :createdAt AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<MessageRow> findChannelBefore(@Param("channelId") String channelId, @Param("createdAt") Long createdAt,
+                                        @Param("id") String id, Pageable pageable);
+
+    @Query(MESSAGE_ROW + "WHERE m.channel.id = :channelId AND m.parentMessage IS NULL AND " +
+           "m.createdAt >= :createdAt AND (m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id)) " +
+           "ORDER BY m.createdAt ASC, m.id ASC")
+    Slice<MessageRow> findChannelAfter(@Param("channelId") String channelId, @Param("createdAt") Long createdAt,
+                                       @Param("id") String id, Pageable pageable);
+
+    @Query(MESSAGE_ROW + "WHERE m.conversation.id = :conversationId AND m.parentMessage IS NULL " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<MessageRow> findConversationLatest(@Param("conversationId") String conversationId, Pageable pageable);
+
+    @Query(MESSAGE_ROW + "WHERE m.conversation.id = :conversationId AND m.parentMessage IS NULL AND m.createdAt >= :since " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<MessageRow> findConversationLatestSince(@Param("conversationId") String conversationId, @Param("since") Long since,
+                                                  Pageable pageable);
+
+    @Query(MESSAGE_ROW + "WHERE m.conversation.id = :conversationId AND m.parentMessage IS NULL AND " +
+           "m.createdAt <= :createdAt AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<MessageRow> findConversationBefore(@Param("conversationId") String conversationId, @Param("createdAt") Long createdAt,
+                                             @Param("id") String id, Pageable pageable);
+
+    @Query(MESSAGE_ROW + "WHERE m.conversation.id = :conversationId AND m.parentMessage IS NULL AND " +
+           "m.createdAt >= :createdAt AND (m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id)) " +
+           "ORDER BY m.createdAt ASC, m.id ASC")
+    Slice<MessageRow> findConversationAfter(@Param("conversationId") String conversationId, @Param("createdAt") Long createdAt,
+                                            @Param("id") String id, Pageable pageable);
+}
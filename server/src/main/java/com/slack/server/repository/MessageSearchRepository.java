@@ -0,0 +1,218 @@
+package com.slack.server.repository;
+
+import com.slack.server.dto.MessageSearchCursor;
+import com.slack.server.model.MessageText;
+import com.slack.server.repository.projection.MessageSearchHit;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Full-text search over message bodies.
+ *
+ * On PostgreSQL the index is a GIN expression index over the {@code tsvector} of {@code messages.search_text},
+ * so the database keeps it current on every insert, update and delete and a lookup costs the same however long
+ * the history is. {@link com.slack.server.job.MessageSearchIndexJob} builds it once, in the background after
+ * startup; until then the same queries run without it. Other databases (H2 in local runs) fall back
+ * to an unranked substring match.
+ */
+@Repository
+public class MessageSearchRepository {
+    private static final Logger log = LoggerFactory.getLogger(MessageSearchRepository.class);
+
+    private static final String TS_CONFIG = "'english'";
+    // Queries must spell the expression exactly as the index does for the planner to use it
+    private static final String SEARCH_VECTOR = "to_tsvector(" + TS_CONFIG + ", coalesce(m.search_text, ''))";
+    private static final String INDEX_NAME = "idx_messages_search_text";
+    private static final String INDEX_EXPRESSION = "USING GIN (to_tsvector(" + TS_CONFIG + ", coalesce(search_text, '')))";
+    private static final String HEADLINE_OPTIONS = "'StartSel=<mark>, StopSel=</mark>, MaxWords=24, MinWords=8, MaxFragments=2'";
+    private static final int BACKFILL_BATCH = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private boolean postgres;
+
+    @PostConstruct
+    void initialize() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        postgres = "PostgreSQL".equalsIgnoreCase(product);
+        if (!postgres) {
+            log.warn("Message search is running without a full-text index on {}; queries will scan messages", product);
+        }
+    }
+
+    /** Fill in search_text on rows written before it existed, a batch at a time; returns the number filled. */
+    public int backfillSearchText() {
+        int filled = 0;
+        String after = null;
+        while (true) {
+            // Walks the primary key, so each batch starts where the last one ended instead of rescanning
+            List<Object[]> batch = jdbcTemplate.query(
+                "SELECT CAST(id AS varchar), body FROM messages WHERE search_text IS NULL" +
+                    (after != null ? " AND id > ?" : "") + " ORDER BY id LIMIT " + BACKFILL_BATCH,
+                (rs, i) -> new Object[] { MessageText.plainText(rs.getString(2)), rs.getString(1) },
+                after != null ? new Object[] { after } : new Object[0]);
+            if (batch.isEmpty()) break;
+            jdbcTemplate.batchUpdate("UPDATE messages SET search_text = ? WHERE id = ?", batch);
+            filled += batch.size();
+            after = (String) batch.get(batch.size() - 1)[1];
+        }
+        return filled;
+    }
+
+    /**
+     * Build the full-text index without blocking writes (PostgreSQL only). A partitioned messages table cannot be
+     * indexed concurrently as a whole, so each partition is indexed on its own and attached to an index on the parent,
+     * which later partitions then get automatically. Also drops the stored {@code search_vector} column that earlier
+     * versions kept, which only needs a brief lock since nothing is rewritten.
+     */
+    public void buildIndex() {
+        if (!postgres) return;
+        Boolean partitioned = jdbcTemplate.queryForObject(
+            "SELECT relkind = 'p' FROM pg_class WHERE oid = 'messages'::regclass", Boolean.class);
+        if (Boolean.TRUE.equals(partitioned)) {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + INDEX_NAME + " ON ONLY messages " + INDEX_EXPRESSION);
+            List<String> partitions = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'messages'::regclass", String.class);
+            for (String partition : partitions) {
+                String index = partition + "_search_text_idx";
+                createConcurrently(index, partition);
+                Boolean attached = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_inherits " +
+                    "WHERE inhrelid = ?::regclass AND inhparent = ?::regclass)", Boolean.class, index, INDEX_NAME);
+                if (!Boolean.TRUE.equals(attached)) {
+                    jdbcTemplate.execute("ALTER INDEX " + INDEX_NAME + " ATTACH PARTITION " + index);
+                }
+            }
+        } else {
+            createConcurrently(INDEX_NAME, "messages");
+        }
+        jdbcTemplate.execute("ALTER TABLE messages DROP COLUMN IF EXISTS search_vector");
+    }
+
+    // A concurrent build that was interrupted leaves an invalid index behind, which IF NOT EXISTS would keep
+    private void createConcurrently(String index, String table) {
+        Boolean invalid = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM pg_index i " +
+            "JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = ? AND NOT i.indisvalid)", Boolean.class, index);
+        if (Boolean.TRUE.equals(invalid)) {
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY " + index);
+        }
+        jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + index + " ON " + table + " " + INDEX_EXPRESSION);
+    }
+
+    /**
+     * Best matches first, ties broken by recency. DM messages are only matched in DMs that {@code viewerMemberId}
+     * is part of. Returns up to {@code limit} hits; callers ask for one more than they page by to learn whether
+     * a next page exists. Highlights are HTML: the message text is escaped and matches are wrapped in {@code <mark>}.
+     */
+    @SuppressWarnings("unchecked")
+    public List<MessageSearchHit> search(String workspaceId, String viewerMemberId, String query,
+                                         @Nullable String channelId, @Nullable String conversationId,
+                                         @Nullable String memberId, @Nullable MessageSearchCursor after, int limit) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("workspaceId", workspaceId);
+        params.put("viewerMemberId", viewerMemberId);
+
+        String rank;
+        StringBuilder where = new StringBuilder("m.workspace_id = :workspaceId");
+        // Messages of a deleted channel or DM linger until its delete job reaches them
+        where.append(" AND NOT EXISTS (SELECT 1 FROM channels c WHERE c.id = m.channel_id AND c.deleted_at IS NOT NULL)")
+            .append(" AND (m.conversation_id IS NULL OR EXISTS (SELECT 1 FROM conversations c WHERE c.id = m.conversation_id")
+            .append(" AND c.deleted_at IS NULL AND :viewerMemberId IN (c.member_one_id, c.member_two_id)))");
+        if (postgres) {
+            rank = "CAST(ts_rank(" + SEARCH_VECTOR + ", q.query) AS double precision)";
+            where.append(" AND ").append(SEARCH_VECTOR).append(" @@ q.query");
+            params.put("query", query);
+        } else {
+            rank = "CAST(0 AS double precision)";
+            where.append(" AND LOWER(m.search_text) LIKE :pattern ESCAPE '\\'");
+            params.put("pattern", "%" + query.toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%");
+        }
+        if (channelId != null) {
+            where.append(" AND m.channel_id = :channelId");
+            params.put("channelId", channelId);
+        }
+        if (conversationId != null) {
+            where.append(" AND m.conversation_id = :conversationId");
+            params.put("conversationId", conversationId);
+        }
+        if (memberId != null) {
+            where.append(" AND m.member_id = :memberId");
+            params.put("memberId", memberId);
+        }
+        if (after != null) {
+            where.append(" AND (").append(rank).append(" < :rank OR (").append(rank).append(" = :rank")
+                .append(" AND (m.created_at < :createdAt OR (m.created_at = :createdAt AND m.id < :id))))");
+            params.put("rank", after.rank());
+            params.put("createdAt", after.createdAt());
+            params.put("id", after.id());
+        }
+
+        // Rank and page first, then build headlines for the page only: ts_headline re-parses the text
+        String hits = "SELECT CAST(m.id AS varchar) AS id, " + rank + " AS rank, m.created_at, m.search_text FROM messages m" +
+            (postgres ? ", websearch_to_tsquery(" + TS_CONFIG + ", :query) AS q(query)" : "") +
+            " WHERE " + where +
+            " ORDER BY rank DESC, m.created_at DESC, m.id DESC LIMIT " + limit;
+        String sql = postgres
+            ? "SELECT h.id, h.rank, h.created_at, ts_headline(" + TS_CONFIG + ", " + htmlEscaped("coalesce(h.search_text, '')") + ", " +
+              "websearch_to_tsquery(" + TS_CONFIG + ", :query), " + HEADLINE_OPTIONS + ") FROM (" + hits + ") h" +
+              " ORDER BY h.rank DESC, h.created_at DESC, h.id DESC"
+            : hits;
+
+        Query nativeQuery = entityManager.createNativeQuery(sql);
+        params.forEach(nativeQuery::setParameter);
+        List<Object[]> rows = nativeQuery.getResultList();
+        List<MessageSearchHit> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            result.add(new MessageSearchHit(
+                (String) row[0],
+                ((Number) row[1]).doubleValue(),
+                ((Number) row[2]).longValue(),
+                postgres ? (String) row[3] : markSubstring(row[3] == null ? "" : (String) row[3], query)
+            ));
+        }
+        return result;
+    }
+
+    // The substring fallback's highlight: the whole text, escaped, with every occurrence of the query marked
+    private static String markSubstring(String text, String query) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        String needle = query.toLowerCase(Locale.ROOT);
+        if (lower.length() != text.length()) {
+            // Lower-casing changed the length, so positions in the lowered text do not map back
+            return HtmlUtils.htmlEscape(text);
+        }
+        StringBuilder html = new StringBuilder();
+        int from = 0;
+        for (int at = lower.indexOf(needle); at >= 0 && !needle.isEmpty(); at = lower.indexOf(needle, from)) {
+            html.append(HtmlUtils.htmlEscape(text.substring(from, at)))
+                .append("<mark>").append(HtmlUtils.htmlEscape(text.substring(at, at + needle.length()))).append("</mark>");
+            from = at + needle.length();
+        }
+        return html.append(HtmlUtils.htmlEscape(text.substring(from))).toString();
+    }
+
+    // The characters HtmlUtils.htmlEscape escapes that matter in text, replaced before ts_headline adds its tags
+    private static String htmlEscaped(String text) {
+        return "replace(replace(replace(replace(replace(" + text + ", '&', '&amp;'), '<', '&lt;'), '>', '&gt;'), " +
+            "'\"', '&quot;'), '''', '&#39;')";
+    }
+}
@@ -0,0 +1,20 @@
+package com.slack.server.repository;
+
+import com.slack.server.model.MessageTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface MessageTombstoneRepository extends JpaRepository<MessageTombstone, String> {
+    List<MessageTombstone> findByChannelIdAndDeletedAtGreaterThanOrderByDeletedAtAsc(String channelId, Long since, Pageable pageable);
+    List<MessageTombstone> findByConversationIdAndDeletedAtGreaterThanOrderByDeletedAtAsc(String conversationId, Long since, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM MessageTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Long cutoff);
+}
@@ -0,0 +1,84 @@
+package com.slack.server.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * One-off repair of reactions tables from before the unique (message, member, value) index: removes duplicate
+ * reactions, keeping the oldest of each, then builds the index. Duplicates would otherwise keep schema update
+ * from adding it. Runs before schema update (see SchemaMigrationConfig) and only while the index is missing;
+ * on PostgreSQL the index is built concurrently and then attached as the unique constraint schema update
+ * expects, so reactions stay writable while it builds. Recorded in schema_migrations once done.
+ */
+@Repository
+public class ReactionIndexMigration {
+    private static final Logger log = LoggerFactory.getLogger(ReactionIndexMigration.class);
+
+    private static final String MIGRATION = "reactions-unique-index";
+    static final String INDEX = "uk_reactions_message_member_value";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SchemaMigrationRepository schemaMigrationRepository;
+
+    @PostConstruct
+    void migrate() {
+        if (schemaMigrationRepository.isApplied(MIGRATION)) return;
+
+        // Without a table there is nothing to repair: schema update creates it with the index
+        if (tableExists() && !indexExists()) {
+            long started = System.currentTimeMillis();
+            int removed = removeDuplicates();
+            buildIndex();
+            log.info("Built {} in {} ms ({} duplicate reactions removed)", INDEX,
+                System.currentTimeMillis() - started, removed);
+        }
+        schemaMigrationRepository.markApplied(MIGRATION);
+    }
+
+    int removeDuplicates() {
+        return jdbcTemplate.update("DELETE FROM reactions WHERE id IN (SELECT d.id FROM (" +
+            "SELECT id, ROW_NUMBER() OVER (PARTITION BY message_id, member_id, value ORDER BY created_at, id) AS rn " +
+            "FROM reactions) d WHERE d.rn > 1)");
+    }
+
+    void buildIndex() {
+        if (!isPostgres()) {
+            jdbcTemplate.execute("CREATE UNIQUE INDEX " + INDEX + " ON reactions (message_id, member_id, value)");
+            return;
+        }
+        // A concurrent build cut short leaves an invalid index behind; it enforces nothing and is rebuilt
+        jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + INDEX);
+        jdbcTemplate.execute("CREATE UNIQUE INDEX CONCURRENTLY " + INDEX + " ON reactions (message_id, member_id, value)");
+        jdbcTemplate.execute("ALTER TABLE reactions ADD CONSTRAINT " + INDEX + " UNIQUE USING INDEX " + INDEX);
+    }
+
+    private boolean tableExists() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.tables " +
+            "WHERE table_schema = current_schema() AND table_name = 'reactions'", Integer.class);
+        return count != null && count > 0;
+    }
+
+    private boolean indexExists() {
+        if (!isPostgres()) {
+            Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.indexes " +
+                "WHERE table_schema = current_schema() AND index_name = ?", Integer.class, INDEX);
+            return count != null && count > 0;
+        }
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+            "WHERE c.relname = ? AND c.relnamespace = current_schema()::regnamespace AND i.indisvalid", Integer.class, INDEX);
+        return count != null && count > 0;
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product);
+    }
+}
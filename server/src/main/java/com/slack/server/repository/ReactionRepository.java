@@ -1,15 +1,70 @@
 package com.slack.server.repository;
 
 import com.slack.server.model.Reaction;
+import com.slack.server.repository.projection.ReactionRow;
+import com.slack.server.repository.projection.ReactionSampleRow;
+import com.slack.server.repository.projection.ViewerReactionRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ReactionRepository extends JpaRepository<Reaction, String> {
     List<Reaction> findByMessageId(String messageId);
+
+    @Modifying
+    @Query("DELETE FROM Reaction r WHERE r.message.id IN :messageIds")
+    int deleteByMessageIdIn(@Param("messageIds") Collection<String> messageIds);
     Optional<Reaction> findByMessageIdAndMemberIdAndValue(String messageId, String memberId, String value);
-    void deleteByMessageIdAndMemberIdAndValue(String messageId, String memberId, String value);
-    void deleteByWorkspaceId(String workspaceId);
-} 
\ No newline at end of file
+    List<Reaction> findByMessageIdAndMemberIdIn(String messageId, Collection<String> memberIds);
+
+    @Query("SELECT r FROM Reaction r JOIN FETCH r.message JOIN FETCH r.member mem JOIN FETCH mem.user WHERE r.id = :id")
+    Optional<Reaction> findWithMemberById(@Param("id") String id);
+
+    @Query("SELECT r FROM Reaction r JOIN FETCH r.member mem JOIN FETCH mem.user WHERE r.id IN :ids")
+    List<Reaction> findWithMemberByIdIn(@Param("ids") Collection<String> ids);
+
+    /*
+     * Reaction groups for a page of messages in one pass: the window functions count each
+     * (message, emoji) group and number its reactors oldest first, and only the first
+     * :sampleSize reactors of each group leave the database. Groups come back in the order
+     * their emoji was first used on the message. Ids are cast to text so every database returns Strings.
+     */
+    String REACTION_SAMPLE =
+        "SELECT CAST(s.message_id AS varchar), s.value, s.total, CAST(s.member_id AS varchar), s.user_name, s.user_image FROM (" +
+        "SELECT r.message_id, r.value, mem.id AS member_id, u.name AS user_name, u.image_url AS user_image, " +
+        "COUNT(*) OVER (PARTITION BY r.message_id, r.value) AS total, " +
+        "MIN(r.created_at) OVER (PARTITION BY r.message_id, r.value) AS first_at, " +
+        "ROW_NUMBER() OVER (PARTITION BY r.message_id, r.value ORDER BY r.created_at, r.id) AS rn " +
+        "FROM reactions r JOIN members mem ON mem.id = r.member_id JOIN users u ON u.id = mem.user_id " +
+        "WHERE r.message_id IN (:messageIds)) s " +
+        "WHERE s.rn <= :sampleSize ORDER BY s.message_id, s.first_at, s.value, s.rn";
+
+    @Query(value = REACTION_SAMPLE, nativeQuery = true)
+    List<Object[]> findReactionSampleTuples(@Param("messageIds") Collection<String> messageIds,
+                                            @Param("sampleSize") int sampleSize);
+
+    default List<ReactionSampleRow> findReactionSamples(Collection<String> messageIds, int sampleSize) {
+        return findReactionSampleTuples(messageIds, sampleSize).stream()
+            .map(t -> new ReactionSampleRow((String) t[0], (String) t[1], ((Number) t[2]).longValue(),
+                (String) t[3], (String) t[4], (String) t[5]))
+            .toList();
+    }
+
+    // Which of these messages the viewer reacted to, and with what; kept apart so sampled groups stay shareable
+    @Query("SELECT new com.slack.server.repository.projection.ViewerReactionRow(r.message.id, r.value) " +
+           "FROM Reaction r WHERE r.message.id IN :messageIds AND r.member.user.id = :userId")
+    List<ViewerReactionRow> findViewerReactions(@Param("messageIds") Collection<String> messageIds,
+                                                @Param("userId") String userId);
+
+    @Query("SELECT new com.slack.server.repository.projection.ReactionRow(" +
+           "r.id, r.value, r.workspace.id, r.message.id, mem.id, u.name, u.imageUrl) " +
+           "FROM Reaction r JOIN r.member mem JOIN mem.user u WHERE r.message.id = :messageId AND r.value = :value " +
+           "ORDER BY r.createdAt ASC, r.id ASC")
+    List<ReactionRow> findRowsByMessageIdAndValue(@Param("messageId") String messageId, @Param("value") String value);
+}
@@ -0,0 +1,95 @@
+package com.slack.server.repository;
+
+import com.slack.server.repository.projection.ReactionRouteRow;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Single-statement reaction writes. Adding is an {@code INSERT ... ON CONFLICT DO NOTHING} against the
+ * unique (message, member, value) index, so concurrent double-clicks cannot create duplicates.
+ * Removing is a {@code DELETE ... RETURNING} that also hands back the message's routing ids.
+ * H2 has no {@code DELETE ... RETURNING}, so local runs read the route first. Tables from before the index are
+ * repaired once by ReactionIndexMigration.
+ */
+@Repository
+public class ReactionWriteRepository {
+    // Ids read as text: native queries would hand uuid columns back as UUID or byte[] depending on the database
+    private static final String ROUTE_COLUMNS = "CAST(m.workspace_id AS varchar), CAST(m.channel_id AS varchar), " +
+        "CAST(m.conversation_id AS varchar), CAST(m.parent_message_id AS varchar)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private boolean postgres;
+
+    @PostConstruct
+    void initialize() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        postgres = "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    /**
+     * Insert a reaction unless the member already reacted with this value. Nothing is inserted either when
+     * the message does not exist or the member is not in the message's workspace; returns the rows inserted.
+     */
+    public int insertIfAbsent(String id, String messageId, String memberId, String value, long createdAt) {
+        return entityManager.createNativeQuery(
+                "INSERT INTO reactions (id, value, workspace_id, message_id, member_id, created_at) " +
+                "SELECT CAST(:id AS uuid), :value, m.workspace_id, m.id, mem.id, :createdAt FROM messages m " +
+                "JOIN members mem ON mem.id = :memberId AND mem.workspace_id = m.workspace_id " +
+                "WHERE m.id = :messageId ON CONFLICT DO NOTHING")
+            .setParameter("id", id)
+            .setParameter("value", value)
+            .setParameter("createdAt", createdAt)
+            .setParameter("memberId", memberId)
+            .setParameter("messageId", messageId)
+            .executeUpdate();
+    }
+
+    /** Delete one reaction, returning the route of its message, or empty when there was nothing to delete. */
+    @SuppressWarnings("unchecked")
+    public Optional<ReactionRouteRow> deleteReturningRoute(String messageId, String memberId, String value) {
+        if (!postgres) {
+            Optional<ReactionRouteRow> route = toRoute(entityManager.createNativeQuery(
+                    "SELECT " + ROUTE_COLUMNS + " FROM reactions r JOIN messages m ON m.id = r.message_id " +
+                    "WHERE r.message_id = :messageId AND r.member_id = :memberId AND r.value = :value")
+                .setParameter("messageId", messageId)
+                .setParameter("memberId", memberId)
+                .setParameter("value", value)
+                .getResultList());
+            if (route.isPresent()) {
+                entityManager.createNativeQuery(
+                        "DELETE FROM reactions WHERE message_id = :messageId AND member_id = :memberId AND value = :value")
+                    .setParameter("messageId", messageId)
+                    .setParameter("memberId", memberId)
+                    .setParameter("value", value)
+                    .executeUpdate();
+            }
+            return route;
+        }
+        return toRoute(entityManager.createNativeQuery(
+                "DELETE FROM reactions r USING messages m WHERE m.id = r.message_id " +
+                "AND r.message_id = :messageId AND r.member_id = :memberId AND r.value = :value " +
+                "RETURNING " + ROUTE_COLUMNS)
+            .setParameter("messageId", messageId)
+            .setParameter("memberId", memberId)
+            .setParameter("value", value)
+            .getResultList());
+    }
+
+    private static Optional<ReactionRouteRow> toRoute(List<Object[]> rows) {
+        return rows.stream().findFirst()
+            .map(row -> new ReactionRouteRow((String) row[0], (String) row[1], (String) row[2], (String) row[3]));
+    }
+}
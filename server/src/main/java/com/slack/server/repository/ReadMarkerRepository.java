@@ -0,0 +1,111 @@
+package com.slack.server.repository;
+
+import com.slack.server.model.ReadMarker;
+import com.slack.server.repository.projection.UnreadCountRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReadMarkerRepository extends JpaRepository<ReadMarker, String> {
+    Optional<ReadMarker> findByMemberIdAndChannelId(String memberId, String channelId);
+    Optional<ReadMarker> findByMemberIdAndConversationId(String memberId, String conversationId);
+
+    @Modifying
+    @Query("DELETE FROM ReadMarker rm WHERE rm.memberId = :memberId")
+    int deleteByMemberId(@Param("memberId") String memberId);
+
+    // Sidebar: one row per channel / DM, counters only, no scan of messages
+    @Query("SELECT new com.slack.server.repository.projection.UnreadCountRow(c.id, c.messageCount, rm.readCount, rm.lastReadMessageId) " +
+           "FROM Channel c LEFT JOIN ReadMarker rm ON rm.channelId = c.id AND rm.memberId = :memberId " +
+           "WHERE c.workspace.id = :workspaceId")
+    List<UnreadCountRow> findChannelUnreadRows(@Param("workspaceId") String workspaceId, @Param("memberId") String memberId);
+
+    @Query("SELECT new com.slack.server.repository.projection.UnreadCountRow(c.id, c.messageCount, rm.readCount, rm.lastReadMessageId) " +
+           "FROM Conversation c LEFT JOIN ReadMarker rm ON rm.conversationId = c.id AND rm.memberId = :memberId " +
+           "WHERE c.workspace.id = :workspaceId AND (c.memberOne.id = :memberId OR c.memberTwo.id = :memberId)")
+    List<UnreadCountRow> findConversationUnreadRows(@Param("workspaceId") String workspaceId, @Param("memberId") String memberId);
+
+    // Messages at or before a position = counter minus the (usually few) messages after it, read in one snapshot
+    @Query(value = "SELECT c.message_count - (SELECT COUNT(*) FROM messages m WHERE m.channel_id = c.id " +
+           "AND m.parent_message_id IS NULL AND (m.created_at > :readAt OR (m.created_at = :readAt AND m.id > :messageId))) " +
+           "FROM channels c WHERE c.id = :channelId", nativeQuery = true)
+    int countChannelReadUpTo(@Param("channelId") String channelId, @Param("readAt") Long readAt, @Param("messageId") String messageId);
+
+    @Query(value = "SELECT c.message_count - (SELECT COUNT(*) FROM messages m WHERE m.conversation_id = c.id " +
+           "AND m.parent_message_id IS NULL AND (m.created_at > :readAt OR (m.created_at = :readAt AND m.id > :messageId))) " +
+           "FROM conversations c WHERE c.id = :conversationId", nativeQuery = true)
+    int countConversationReadUpTo(@Param("conversationId") String conversationId, @Param("readAt") Long readAt, @Param("messageId") String messageId);
+
+    /** A deleted top-level message at or before a marker was counted as read; take it back out. */
+    @Modifying
+    @Query(value = "UPDATE read_markers SET read_count = read_count - 1 WHERE channel_id = :channelId AND read_count > 0 " +
+           "AND (last_read_at > :createdAt OR (last_read_at = :createdAt AND last_read_message_id >= :messageId))",
+           nativeQuery = true)
+    int recordChannelMessageDeleted(@Param("channelId") String channelId, @Param("createdAt") Long createdAt,
+                                    @Param("messageId") String messageId);
+
+    @Modifying
+    @Query(value = "UPDATE read_markers SET read_count = read_count - 1 WHERE conversation_id = :conversationId AND read_count > 0 " +
+           "AND (last_read_at > :createdAt OR (last_read_at = :createdAt AND last_read_message_id >= :messageId))",
+           nativeQuery = true)
+    int recordConversationMessageDeleted(@Param("conversationId") String conversationId, @Param("createdAt") Long createdAt,
+                                         @Param("messageId") String messageId);
+
+    /** Archived top-level messages at or before a marker were counted as read; take them back out. */
+    @Modifying
+    @Query(value = "UPDATE read_markers rm SET read_count = GREATEST(rm.read_count - (SELECT COUNT(*) FROM messages m " +
+           "WHERE m.id IN (:messageIds) AND (m.created_at < rm.last_read_at OR " +
+           "(m.created_at = rm.last_read_at AND m.id <= rm.last_read_message_id))), 0) " +
+           "WHERE rm.channel_id = :channelId AND rm.last_read_at IS NOT NULL", nativeQuery = true)
+    int recordChannelMessagesArchived(@Param("channelId") String channelId, @Param("messageIds") Collection<String> messageIds);
+
+    @Modifying
+    @Query(value = "UPDATE read_markers rm SET read_count = GREATEST(rm.read_count - (SELECT COUNT(*) FROM messages m " +
+           "WHERE m.id IN (:messageIds) AND (m.created_at < rm.last_read_at OR " +
+           "(m.created_at = rm.last_read_at AND m.id <= rm.last_read_message_id))), 0) " +
+           "WHERE rm.conversation_id = :conversationId AND rm.last_read_at IS NOT NULL", nativeQuery = true)
+    int recordConversationMessagesArchived(@Param("conversationId") String conversationId,
+                                           @Param("messageIds") Collection<String> messageIds);
+
+    // Top-level messages at or before a marker's position, for the reconcile job
+    String CHANNEL_READ_RECOUNT = "(SELECT COUNT(*) FROM messages m WHERE m.channel_id = rm.channel_id " +
+        "AND m.parent_message_id IS NULL AND (m.created_at < rm.last_read_at OR " +
+        "(m.created_at = rm.last_read_at AND m.id <= rm.last_read_message_id)))";
+    String CONVERSATION_READ_RECOUNT = "(SELECT COUNT(*) FROM messages m WHERE m.conversation_id = rm.conversation_id " +
+        "AND m.parent_message_id IS NULL AND (m.created_at < rm.last_read_at OR " +
+        "(m.created_at = rm.last_read_at AND m.id <= rm.last_read_message_id)))";
+
+    /** Backfill/repair: recount read messages for markers whose stored count has drifted. */
+    @Modifying
+    @Query(value = "UPDATE read_markers rm SET read_count = " + CHANNEL_READ_RECOUNT + " " +
+           "WHERE rm.channel_id IS NOT NULL AND rm.last_read_at IS NOT NULL AND rm.read_count <> " + CHANNEL_READ_RECOUNT,
+           nativeQuery = true)
+    int reconcileChannelReadCounts();
+
+    @Modifying
+    @Query(value = "UPDATE read_markers rm SET read_count = " + CONVERSATION_READ_RECOUNT + " " +
+           "WHERE rm.conversation_id IS NOT NULL AND rm.last_read_at IS NOT NULL AND rm.read_count <> " + CONVERSATION_READ_RECOUNT,
+           nativeQuery = true)
+    int reconcileConversationReadCounts();
+
+    // The same two repairs limited to the channels and DMs of one workspace
+    @Modifying
+    @Query(value = "UPDATE read_markers rm SET read_count = " + CHANNEL_READ_RECOUNT + " " +
+           "WHERE rm.channel_id IN (SELECT c.id FROM channels c WHERE c.workspace_id = :workspaceId) " +
+           "AND rm.last_read_at IS NOT NULL AND rm.read_count <> " + CHANNEL_READ_RECOUNT,
+           nativeQuery = true)
+    int reconcileChannelReadCountsByWorkspaceId(@Param("workspaceId") String workspaceId);
+
+    @Modifying
+    @Query(value = "UPDATE read_markers rm SET read_count = " + CONVERSATION_READ_RECOUNT + " " +
+           "WHERE rm.conversation_id IN (SELECT c.id FROM conversations c WHERE c.workspace_id = :workspaceId) " +
+           "AND rm.last_read_at IS NOT NULL AND rm.read_count <> " + CONVERSATION_READ_RECOUNT,
+           nativeQuery = true)
+    int reconcileConversationReadCountsByWorkspaceId(@Param("workspaceId") String workspaceId);
+}
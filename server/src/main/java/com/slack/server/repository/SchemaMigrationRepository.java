@@ -0,0 +1,35 @@
+package com.slack.server.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Which one-off migrations and backfills have already run against this database. Each is recorded by name once
+ * it has finished, so later startups skip it instead of scanning the tables it touched again.
+ * Plain JDBC: migrations that must run before schema update use this before any entity manager exists.
+ */
+@Repository
+public class SchemaMigrationRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void initialize() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS schema_migrations " +
+            "(name varchar(100) PRIMARY KEY, applied_at bigint NOT NULL)");
+    }
+
+    public boolean isApplied(String name) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schema_migrations WHERE name = ?",
+            Integer.class, name);
+        return count != null && count > 0;
+    }
+
+    public void markApplied(String name) {
+        jdbcTemplate.update("INSERT INTO schema_migrations (name, applied_at) VALUES (?, ?)",
+            name, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,112 @@
+package com.slack.server.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts id columns created as {@code varchar} by earlier schema updates to native {@code uuid}.
+ * Schema update never changes the type of an existing column, so databases from before the switch keep
+ * their text ids until this runs. Foreign keys cannot span the two types, so every foreign key on the
+ * affected tables is dropped, the columns are converted and the keys are put back, all in one transaction.
+ * Runs only on PostgreSQL and only while some column is still text; a value that is not a UUID aborts
+ * startup with the database left untouched.
+ * <p>
+ * Runs before schema update (see SchemaMigrationConfig), so schema update then finds uuid columns on both ends
+ * and adds the foreign keys it could not add against text columns. Tables that do not exist yet are skipped;
+ * schema update creates them with uuid columns.
+ */
+@Repository
+public class UuidColumnMigration {
+    private static final Logger log = LoggerFactory.getLogger(UuidColumnMigration.class);
+
+    // Every column holding one of our ids; image and client message ids are not UUIDs and stay text
+    private static final Map<String, List<String>> ID_COLUMNS = new LinkedHashMap<>();
+    static {
+        ID_COLUMNS.put("users", List.of("id"));
+        ID_COLUMNS.put("workspaces", List.of("id", "user_id"));
+        ID_COLUMNS.put("members", List.of("id", "user_id", "workspace_id"));
+        ID_COLUMNS.put("channels", List.of("id", "workspace_id"));
+        ID_COLUMNS.put("conversations", List.of("id", "member_one_id", "member_two_id", "workspace_id"));
+        ID_COLUMNS.put("messages", List.of("id", "member_id", "workspace_id", "channel_id", "conversation_id",
+            "parent_message_id", "last_reply_member_id"));
+        ID_COLUMNS.put("reactions", List.of("id", "workspace_id", "message_id", "member_id"));
+        ID_COLUMNS.put("read_markers", List.of("id", "member_id", "channel_id", "conversation_id", "last_read_message_id"));
+        ID_COLUMNS.put("message_tombstones", List.of("message_id", "workspace_id", "channel_id", "conversation_id",
+            "parent_message_id"));
+    }
+
+    private record ForeignKey(String table, String name, String definition) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @PostConstruct
+    void migrate() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(product)) return;
+
+        Map<String, List<String>> pending = findTextColumns();
+        if (pending.isEmpty()) return;
+
+        long started = System.currentTimeMillis();
+        // The JPA transaction manager needs the entity manager factory, which waits for this
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource)).executeWithoutResult(status -> {
+            List<ForeignKey> foreignKeys = findForeignKeys();
+            for (ForeignKey key : foreignKeys) {
+                jdbcTemplate.execute("ALTER TABLE " + key.table() + " DROP CONSTRAINT " + key.name());
+            }
+            pending.forEach((table, columns) -> {
+                List<String> changes = new ArrayList<>(columns.size());
+                for (String column : columns) {
+                    changes.add("ALTER COLUMN " + column + " TYPE uuid USING " + column + "::uuid");
+                }
+                // One statement per table, so the table and its indexes are rewritten once
+                jdbcTemplate.execute("ALTER TABLE " + table + " " + String.join(", ", changes));
+            });
+            for (ForeignKey key : foreignKeys) {
+                jdbcTemplate.execute("ALTER TABLE " + key.table() + " ADD CONSTRAINT " + key.name() + " " + key.definition());
+            }
+        });
+        log.info("Converted id columns to uuid in {} ms: {}", System.currentTimeMillis() - started, pending);
+    }
+
+    private Map<String, List<String>> findTextColumns() {
+        Map<String, List<String>> pending = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT table_name, column_name FROM information_schema.columns " +
+            "WHERE table_schema = current_schema() AND data_type IN ('character varying', 'text')", rs -> {
+                String table = rs.getString(1);
+                String column = rs.getString(2);
+                if (ID_COLUMNS.getOrDefault(table, List.of()).contains(column)) {
+                    pending.computeIfAbsent(table, t -> new ArrayList<>()).add(column);
+                }
+            });
+        return pending;
+    }
+
+    // Only our tables hold foreign keys to our tables; each key is restored from its own definition
+    private List<ForeignKey> findForeignKeys() {
+        return jdbcTemplate.query("SELECT c.conrelid::regclass::text, c.conname, pg_get_constraintdef(c.oid) " +
+                "FROM pg_constraint c WHERE c.contype = 'f' AND c.connamespace = current_schema()::regnamespace",
+                (rs, i) -> new ForeignKey(rs.getString(1), rs.getString(2), rs.getString(3)))
+            .stream()
+            .filter(key -> ID_COLUMNS.containsKey(key.table()))
+            .toList();
+    }
+}
@@ -14,4 +14,6 @@ public interface WorkspaceRepository extends JpaRepository<Workspace, String> {
     List<Workspace> findByMembersUserId(@Param("userId") String userId);
 
     boolean existsByJoinCode(String joinCode);
+
+    List<Workspace> findByRetentionDaysIsNotNull();
 } 
\ No newline at end of file
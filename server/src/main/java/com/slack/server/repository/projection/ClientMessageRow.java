@@ -0,0 +1,7 @@
+package com.slack.server.repository.projection;
+
+public record ClientMessageRow(
+    String id,
+    String memberId,
+    String clientMessageId
+) {}
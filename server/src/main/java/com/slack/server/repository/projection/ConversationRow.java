@@ -0,0 +1,18 @@
+package com.slack.server.repository.projection;
+
+import com.slack.server.model.Member;
+
+public record ConversationRow(
+    String id,
+    String workspaceId,
+    String memberOneId,
+    Member.Role memberOneRole,
+    String userOneId,
+    String userOneName,
+    String userOneImage,
+    String memberTwoId,
+    Member.Role memberTwoRole,
+    String userTwoId,
+    String userTwoName,
+    String userTwoImage
+) {}
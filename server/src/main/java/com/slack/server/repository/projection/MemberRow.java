@@ -0,0 +1,17 @@
+package com.slack.server.repository.projection;
+
+import com.slack.server.model.Member;
+
+public record MemberRow(
+    String id,
+    Member.Role role,
+    String userId,
+    String userName,
+    String userEmail,
+    String userImage,
+    String workspaceId,
+    String workspaceName,
+    String workspaceUserId,
+    String workspaceJoinCode,
+    Integer workspaceRetentionDays
+) {}
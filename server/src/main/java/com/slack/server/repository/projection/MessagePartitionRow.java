@@ -0,0 +1,10 @@
+package com.slack.server.repository.projection;
+
+import org.springframework.lang.Nullable;
+
+/** One partition of the messages table and the created_at range it holds; a null bound is open-ended. */
+public record MessagePartitionRow(
+    String name,
+    @Nullable Long from,
+    @Nullable Long to
+) {}
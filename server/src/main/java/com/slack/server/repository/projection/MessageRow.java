@@ -0,0 +1,25 @@
+package com.slack.server.repository.projection;
+
+import com.slack.server.model.Member;
+
+/** Flat read-only view of a message with its author and last replier; never enters the persistence context. */
+public record MessageRow(
+    String id,
+    String body,
+    String imageId,
+    String memberId,
+    Member.Role memberRole,
+    String userId,
+    String userName,
+    String userImage,
+    String workspaceId,
+    String channelId,
+    String conversationId,
+    String parentMessageId,
+    Long createdAt,
+    Long updatedAt,
+    int replyCount,
+    Long lastReplyAt,
+    String lastReplyName,
+    String lastReplyImage
+) {}
@@ -0,0 +1,5 @@
+package com.slack.server.repository.projection;
+
+/** A message matched by full-text search, with its rank and highlighted fragments. */
+public record MessageSearchHit(String id, double rank, long createdAt, String highlight) {
+}
@@ -0,0 +1,9 @@
+package com.slack.server.repository.projection;
+
+/** Where a reacted-to message lives, enough to route cache updates and WebSocket events. */
+public record ReactionRouteRow(
+    String workspaceId,
+    String channelId,
+    String conversationId,
+    String parentMessageId
+) {}
@@ -0,0 +1,11 @@
+package com.slack.server.repository.projection;
+
+public record ReactionRow(
+    String id,
+    String value,
+    String workspaceId,
+    String messageId,
+    String memberId,
+    String userName,
+    String userImage
+) {}
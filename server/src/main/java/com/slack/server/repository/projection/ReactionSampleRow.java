@@ -0,0 +1,11 @@
+package com.slack.server.repository.projection;
+
+/** One sampled reactor of an emoji group, carrying the group's total count. */
+public record ReactionSampleRow(
+    String messageId,
+    String value,
+    long total,
+    String memberId,
+    String userName,
+    String userImage
+) {}
@@ -0,0 +1,5 @@
+package com.slack.server.repository.projection;
+
+/** A channel or DM with its message counter and, if the member has one, their read marker. */
+public record UnreadCountRow(String timelineId, int messageCount, Integer readCount, String lastReadMessageId) {
+}
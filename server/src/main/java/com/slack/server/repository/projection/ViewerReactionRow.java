@@ -0,0 +1,6 @@
+package com.slack.server.repository.projection;
+
+public record ViewerReactionRow(
+    String messageId,
+    String value
+) {}
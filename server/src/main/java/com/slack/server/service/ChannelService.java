@@ -1,6 +1,7 @@
 package com.slack.server.service;
 
 import com.slack.server.model.Channel;
+import com.slack.server.model.DeleteJob;
 import java.util.List;
 
 public interface ChannelService {
@@ -8,5 +9,6 @@ public interface ChannelService {
     Channel updateChannel(String channelId, String name);
     Channel getChannelById(String channelId);
     List<Channel> getWorkspaceChannels(String workspaceId);
-    void deleteChannel(String channelId);
+    /** Hide the channel now and queue the purge of its messages; returns the job. */
+    DeleteJob deleteChannel(String channelId);
 }
\ No newline at end of file
@@ -1,12 +1,16 @@
 package com.slack.server.service;
 
+import com.slack.server.dto.ConversationDTO;
 import com.slack.server.model.Conversation;
+import com.slack.server.model.DeleteJob;
 import java.util.List;
 
 public interface ConversationService {
     Conversation createConversation(String workspaceId, String memberOneId, String memberTwoId);
-    void deleteConversation(String conversationId);
+    /** Hide the DM now and queue the purge of its messages; returns the job. */
+    DeleteJob deleteConversation(String conversationId);
     Conversation getConversationById(String conversationId);
-    List<Conversation> getMemberConversations(String workspaceId, String memberId);
-    List<Conversation> getWorkspaceConversations(String workspaceId);
+    ConversationDTO getConversationDTO(String conversationId);
+    List<ConversationDTO> getMemberConversations(String workspaceId, String memberId);
+    List<ConversationDTO> getWorkspaceConversations(String workspaceId);
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.slack.server.service;
+
+import com.slack.server.model.DeleteJob;
+
+/**
+ * Deletes of workspaces, channels and DMs that finish in the background. The requesting service marks the target
+ * deleted, which hides it at once, and queues a job here; the job purges what is under the target in bounded
+ * batches, each in its own short transaction.
+ */
+public interface DeleteJobService {
+
+    /** Queue the purge of a target that the caller has just marked deleted, in the caller's transaction. */
+    DeleteJob schedule(DeleteJob.Target target, String targetId, String workspaceId);
+
+    /** @throws jakarta.persistence.EntityNotFoundException if there is no such job */
+    DeleteJob getJob(String jobId);
+
+    /**
+     * Work through pending jobs, oldest first, until they are done or the run's time budget is spent;
+     * returns the number of messages deleted.
+     */
+    long runPending();
+}
@@ -0,0 +1,12 @@
+package com.slack.server.service;
+
+/**
+ * Hands WebSocket events to a dedicated dispatcher pool instead of sending them on the request thread.
+ * Events published inside a transaction are held until it commits and dropped if it rolls back, so
+ * clients never hear about data that was not written. Events with the same routing key are delivered
+ * in the order they were released. Publishers never wait on a dispatcher that has fallen behind: an event
+ * that finds it full is not delivered, and its destination is sent a RESYNC event instead once there is room.
+ */
+public interface EventOutbox {
+    void publish(String routingKey, String destination, Object event);
+}
@@ -0,0 +1,18 @@
+package com.slack.server.service;
+
+import com.slack.server.dto.MessageDTO;
+import org.springframework.lang.Nullable;
+
+/**
+ * Recently created messages by the client-supplied idempotency key of their author, so a retried post
+ * gets the original message back. Bounded and time-limited; the unique (member, client message id)
+ * index on messages catches retries that arrive after an entry is gone.
+ */
+public interface IdempotencyCache {
+
+    /** The message created under this key, or null when it is unknown or has expired. */
+    @Nullable MessageDTO get(String memberId, String key);
+
+    /** Remember a created message; inside a transaction this only happens once it commits. */
+    void put(String memberId, String key, MessageDTO message);
+}
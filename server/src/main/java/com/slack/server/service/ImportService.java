@@ -0,0 +1,18 @@
+package com.slack.server.service;
+
+import com.slack.server.dto.ImportResultDTO;
+import java.io.InputStream;
+
+public interface ImportService {
+    /**
+     * Load history from another chat system into a workspace. The archive is NDJSON, one
+     * {@link com.slack.server.dto.ImportRecordDTO} per line, read as a stream. Records may only refer
+     * to records earlier in the archive (users before members, and so on); replies may come before their
+     * parent, as long as it is among the same run of messages.
+     * Users are matched by email only to accounts already in the workspace; everyone else gets a new
+     * imported account that cannot sign in.
+     * Rows are written in batches without per-message events; the workspace's counters are rebuilt once at the end.
+     * Ids are derived from the source ids, so re-running a failed import picks up where it stopped.
+     */
+    ImportResultDTO importWorkspace(String workspaceId, InputStream archive);
+}
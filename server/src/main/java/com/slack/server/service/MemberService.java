@@ -1,5 +1,6 @@
 package com.slack.server.service;
 
+import com.slack.server.dto.MemberDTO;
 import com.slack.server.model.Member;
 import java.util.List;
 
@@ -8,7 +9,9 @@ public interface MemberService {
     Member updateMemberRole(String memberId, Member.Role role);
     Member getMemberById(String memberId);
     Member getMemberByWorkspaceAndUser(String workspaceId, String userId);
-    List<Member> getWorkspaceMembers(String workspaceId);
+    MemberDTO getMemberDTO(String memberId);
+    MemberDTO getMemberDTOByWorkspaceAndUser(String workspaceId, String userId);
+    List<MemberDTO> getWorkspaceMembers(String workspaceId);
     List<Member> getWorkspaceAdmins(String workspaceId);
     void removeMember(String memberId);
     boolean isMemberAdmin(String memberId);
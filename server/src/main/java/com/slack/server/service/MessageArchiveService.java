@@ -0,0 +1,11 @@
+package com.slack.server.service;
+
+/**
+ * Applies workspace retention policies: history older than a workspace's retention window moves from the
+ * database to the archive tier, where timeline, thread and export reads still find it.
+ */
+public interface MessageArchiveService {
+
+    /** Archive everything past its workspace's retention window; returns the number of top-level messages moved. */
+    int archiveExpired();
+}
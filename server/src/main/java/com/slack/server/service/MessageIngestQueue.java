@@ -0,0 +1,45 @@
+package com.slack.server.service;
+
+import com.slack.server.dto.MessageDTO;
+import org.springframework.lang.Nullable;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bounded in-memory queue of posted messages waiting for the ingest writer. Messages get their id and
+ * timestamp when they are submitted and are written in submission order, several posts per transaction.
+ * Each poster waits on {@code written} until its message is stored, so nothing is acknowledged that a
+ * crash could still lose.
+ */
+public interface MessageIngestQueue {
+
+    record IngestedMessage(
+        String id,
+        long createdAt,
+        String body,
+        @Nullable String imageId,
+        String workspaceId,
+        String memberId,
+        @Nullable String channelId,
+        @Nullable String conversationId,
+        @Nullable String parentMessageId,
+        @Nullable String clientMessageId,
+        // Completed by the writer once the message's transaction has committed, or with the reason it was not written
+        CompletableFuture<MessageDTO> written
+    ) {}
+
+    boolean isEnabled();
+
+    /**
+     * Assign an id and timestamp and enqueue. Blocks briefly while the queue is full, then fails with
+     * {@link java.util.concurrent.RejectedExecutionException} so callers back off.
+     */
+    IngestedMessage submit(String body, @Nullable String imageId, String workspaceId, String memberId,
+                           @Nullable String channelId, @Nullable String conversationId,
+                           @Nullable String parentMessageId, @Nullable String clientMessageId);
+
+    /** Take up to {@code max} messages, oldest first. */
+    List<IngestedMessage> drain(int max);
+
+    int size();
+}
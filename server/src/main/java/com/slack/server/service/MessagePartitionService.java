@@ -0,0 +1,17 @@
+package com.slack.server.service;
+
+import java.util.List;
+
+/**
+ * Keeps the partitioned messages table ahead of the clock: partitions exist for the coming months before any
+ * message needs them, and months past the retention horizon are detached from the live table.
+ */
+public interface MessagePartitionService {
+
+    record MaintenanceResult(List<String> created, List<String> detached) {}
+
+    /** Whether messages is partitioned; maintenance does nothing otherwise. */
+    boolean isEnabled();
+
+    MaintenanceResult maintain();
+}
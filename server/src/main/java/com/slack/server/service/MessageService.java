@@ -1,16 +1,52 @@
 package com.slack.server.service;
 
 import com.slack.server.model.Message;
+import com.slack.server.dto.MessageBatchDTO;
+import com.slack.server.dto.MessageChangeCursor;
+import com.slack.server.dto.MessageChangesDTO;
+import com.slack.server.dto.MessageCursor;
 import com.slack.server.dto.MessageDTO;
+import com.slack.server.dto.MessageSearchCursor;
+import com.slack.server.dto.MessageSearchResultDTO;
 import org.springframework.lang.Nullable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Optional;
 
 public interface MessageService {
-    Message createMessage(String body, @Nullable String imageId, String workspaceId, 
+    /**
+     * Create a message. When a {@code clientMessageId} (idempotency key) is given and the member already posted
+     * under it, the original message is returned and nothing is written or broadcast.
+     */
+    MessageDTO createMessage(String body, @Nullable String imageId, String workspaceId, 
                         String memberId, @Nullable String channelId, @Nullable String conversationId, 
-                        @Nullable String parentMessageId);
+                        @Nullable String parentMessageId, @Nullable String clientMessageId);
+
+    /** The message a member created under an idempotency key, for retries that lost the race to the first post */
+    Optional<MessageDTO> findByClientMessageId(String memberId, String clientMessageId);
+
+    boolean isIngestionEnabled();
+
+    /**
+     * Hand a message to the ingest writer, which stores it in one transaction with other concurrent posts, and
+     * return it once that transaction has committed. Fails with the reason the message was not written, or with
+     * {@link java.util.concurrent.RejectedExecutionException} when the writer is at capacity or too slow.
+     */
+    MessageDTO ingestMessage(String body, @Nullable String imageId, String workspaceId,
+                             String memberId, @Nullable String channelId, @Nullable String conversationId,
+                             @Nullable String parentMessageId, @Nullable String clientMessageId);
+
+    /**
+     * Write queued messages in one transaction, in order, and return them as stored, one entry per message. A message
+     * whose member, timeline or parent is gone, or whose timeline is outside the member's workspace, is left out: its
+     * {@code written} future is failed with the reason and its entry is null. A message whose idempotency key is
+     * already stored, or taken by an earlier message of the batch, is not written again; its entry is that message.
+     * Throws only when the write itself fails, which leaves nothing stored.
+     */
+    List<MessageDTO> persistIngestedMessages(List<MessageIngestQueue.IngestedMessage> messages);
     
     Message updateMessage(String messageId, String body);
     
@@ -18,14 +54,75 @@ public interface MessageService {
     
     void deleteMessage(String messageId);
     
-    Page<Message> getChannelMessages(String channelId, Pageable pageable);
+    /** Page 0 is served from the recent-message cache when it fits; deeper pages go to the database. */
+    Page<MessageDTO> getChannelMessages(String channelId, Pageable pageable);
     
-    Page<Message> getConversationMessages(String conversationId, Pageable pageable);
+    Page<MessageDTO> getConversationMessages(String conversationId, Pageable pageable);
+
+    /**
+     * Keyset page of top-level channel messages, newest first. Pass {@code before} to walk back in history,
+     * {@code after} to fetch newer messages, or neither for the latest page. Never runs a count query.
+     */
+    Slice<MessageDTO> getChannelMessages(String channelId, @Nullable MessageCursor before, @Nullable MessageCursor after, int limit);
+
+    Slice<MessageDTO> getConversationMessages(String conversationId, @Nullable MessageCursor before, @Nullable MessageCursor after, int limit);
     
-    List<Message> getThreadMessages(String parentMessageId);
+    List<MessageDTO> getThreadMessages(String parentMessageId);
+
+    /**
+     * Keyset page of a thread's replies. Oldest first continuing after {@code cursor}, or with
+     * {@code newestFirst} the latest replies first continuing before it. A null cursor starts at the respective end.
+     */
+    Slice<MessageDTO> getThreadMessages(String parentMessageId, @Nullable MessageCursor cursor, boolean newestFirst, int limit);
+
+    MessageDTO getMessageDTO(String messageId);
+
+    /**
+     * Resolve many messages at once, in request order; ids that don't exist are reported, not fatal.
+     * Archived thread parents resolve, as they do for a single id.
+     */
+    MessageBatchDTO getMessagesByIds(List<String> messageIds);
+
+    /**
+     * Ranked full-text search over a workspace, optionally narrowed to a channel, conversation or author.
+     * DMs are searched only when the current user is one of their two members.
+     * Results continue from {@code after}; the slice reports whether more matches exist.
+     */
+    Slice<MessageSearchResultDTO> searchMessages(String workspaceId, String query, @Nullable String channelId,
+                                                 @Nullable String conversationId, @Nullable String memberId,
+                                                 @Nullable MessageSearchCursor after, int limit);
+
+    /**
+     * Everything in a channel that was created, edited or deleted after {@code since}, for clients resyncing
+     * after a dropped connection. A null cursor returns no changes, just a cursor to track from.
+     */
+    MessageChangesDTO getChannelChanges(String channelId, @Nullable MessageChangeCursor since, int limit);
+
+    MessageChangesDTO getConversationChanges(String conversationId, @Nullable MessageChangeCursor since, int limit);
+
+    /** Drop tombstones past the delta-sync retention window; returns the number removed */
+    int pruneTombstones();
+
+    /**
+     * Write a channel's full history, replies and reactions included, as NDJSON (one message per line, oldest first).
+     * Rows are streamed from the database in batches, so memory use does not grow with the channel.
+     */
+    void exportChannelHistory(String channelId, OutputStream out);
+
+    void exportConversationHistory(String conversationId, OutputStream out);
+
+    /**
+     * Move up to {@code limit} top-level messages of a channel or DM whose whole thread is older than {@code cutoff},
+     * with their replies and reactions, from the database to the archive. Returns the number of top-level messages moved.
+     */
+    int archiveExpiredMessages(String workspaceId, @Nullable String channelId, @Nullable String conversationId,
+                               long cutoff, int limit);
+
+    /** Rebuild denormalized thread counters from the messages table; returns the number of repaired parents */
+    int reconcileThreadCounters();
 
-    /** Enrich a MessageDTO with thread reply count, last replier info, and timestamp */
-    MessageDTO enrichWithThreadInfo(MessageDTO dto);
+    /** The same, for the threads of one workspace only */
+    int reconcileThreadCounters(String workspaceId);
 
     // Real-time methods
     void notifyTyping(String workspaceId, @Nullable String channelId, @Nullable String conversationId, String userId);
@@ -1,10 +1,15 @@
 package com.slack.server.service;
 
 import com.slack.server.model.Reaction;
+import com.slack.server.dto.ReactionDTO;
+import org.springframework.lang.Nullable;
 import java.util.List;
 
 public interface ReactionService {
-    Reaction addReaction(String messageId, String memberId, String value);
+    // Null when the reaction write buffer took the toggle; the reaction is stored with the next flush
+    @Nullable Reaction addReaction(String messageId, String memberId, String value);
     void removeReaction(String messageId, String memberId, String value);
     List<Reaction> getMessageReactions(String messageId);
+    List<ReactionDTO> getReactors(String messageId, String value);
+    void applyReactionBatch(String messageId, List<ReactionWriteBuffer.Toggle> toggles);
 }
\ No newline at end of file
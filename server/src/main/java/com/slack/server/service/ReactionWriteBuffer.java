@@ -0,0 +1,33 @@
+package com.slack.server.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory per-message buffer of reaction toggles. Repeated toggles of the same reaction collapse
+ * to the last one, and the flush job applies each message's net changes in one batch.
+ */
+public interface ReactionWriteBuffer {
+
+    /** The state a member's reaction should end up in once flushed. */
+    record Toggle(String memberId, String value, boolean present) {}
+
+    boolean isEnabled();
+
+    /**
+     * Buffer an add. Returns false when the buffer is full and the reaction has no pending toggle to replace;
+     * the caller then writes it directly.
+     */
+    boolean add(String messageId, String memberId, String value);
+
+    /** Buffer a removal; same contract as {@link #add}. */
+    boolean remove(String messageId, String memberId, String value);
+
+    /** Take everything buffered so far, keyed by message id; toggles arriving meanwhile go to the next drain. */
+    Map<String, List<Toggle>> drain();
+
+    /** Put back toggles whose flush failed, unless a newer toggle for the same reaction arrived meanwhile. */
+    void requeue(String messageId, List<Toggle> toggles);
+
+    int pendingMessages();
+}
@@ -0,0 +1,23 @@
+package com.slack.server.service;
+
+import com.slack.server.dto.ReadMarkerDTO;
+import com.slack.server.dto.UnreadCountDTO;
+import org.springframework.lang.Nullable;
+import java.util.List;
+
+public interface ReadMarkerService {
+    /**
+     * Move a member's read marker in a channel or DM to {@code messageId}, or to the newest message when it is null.
+     * Moving it backwards marks later messages unread again.
+     */
+    ReadMarkerDTO markRead(String memberId, @Nullable String channelId, @Nullable String conversationId, @Nullable String messageId);
+
+    /** Unread top-level message counts for every channel and DM the member sees, from counters only */
+    List<UnreadCountDTO> getUnreadCounts(String workspaceId, String memberId);
+
+    /** Rebuild message and read counters from the messages table; returns the number of repaired rows */
+    int reconcileCounters();
+
+    /** The same, for the channels and DMs of one workspace only */
+    int reconcileCounters(String workspaceId);
+}
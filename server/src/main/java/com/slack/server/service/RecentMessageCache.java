@@ -0,0 +1,59 @@
+package com.slack.server.service;
+
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.dto.ReactionDTO;
+import org.springframework.lang.Nullable;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded per-timeline buffer of the newest top-level messages, so opening a channel or DM
+ * does not have to hit the database. Writes are applied after the surrounding transaction commits.
+ */
+public interface RecentMessageCache {
+
+    /**
+     * The newest messages of a timeline (newest first) together with the timeline's total top-level count,
+     * or a negative total when the count was not needed to fill the window and is unknown.
+     */
+    record Window(List<MessageDTO> messages, long total) {}
+
+    static String channelKey(String channelId) {
+        return "channel:" + channelId;
+    }
+
+    static String conversationKey(String conversationId) {
+        return "conversation:" + conversationId;
+    }
+
+    static @Nullable String keyOf(@Nullable String channelId, @Nullable String conversationId) {
+        if (channelId != null) return channelKey(channelId);
+        if (conversationId != null) return conversationKey(conversationId);
+        return null;
+    }
+
+    /** Number of messages buffered per timeline; requests for more bypass the cache. */
+    int capacity();
+
+    /**
+     * Return the newest {@code size} messages of a timeline, calling {@code loader} on a miss.
+     * The loader must return up to {@link #capacity()} messages.
+     */
+    Window getLatest(String key, int size, Supplier<Window> loader);
+
+    void messageCreated(MessageDTO message);
+
+    void messageUpdated(MessageDTO message);
+
+    void messageDeleted(String key, String messageId, @Nullable String parentMessageId);
+
+    void reactionAdded(String key, ReactionDTO reaction);
+
+    void reactionRemoved(String key, String messageId, String memberId, String value);
+
+    void evict(String key);
+
+    /** Hit, miss and memory figures, logged by RecentMessageCacheStatsJob. */
+    Map<String, Object> stats();
+}
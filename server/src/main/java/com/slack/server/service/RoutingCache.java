@@ -0,0 +1,31 @@
+package com.slack.server.service;
+
+/**
+ * Small, bounded cache of what posting a message needs to know: a member's workspace and author details,
+ * and which workspace a channel or conversation belongs to. Entries are dropped by the services that
+ * change them, immediately and again once their transaction commits.
+ */
+public interface RoutingCache {
+
+    record MemberRoute(String memberId, String workspaceId, String userId, String role, String userName, String userImage) {}
+
+    /** @throws jakarta.persistence.EntityNotFoundException if the member does not exist */
+    MemberRoute member(String memberId);
+
+    /** @throws jakarta.persistence.EntityNotFoundException if the channel does not exist */
+    String channelWorkspaceId(String channelId);
+
+    /** @throws jakarta.persistence.EntityNotFoundException if the conversation does not exist */
+    String conversationWorkspaceId(String conversationId);
+
+    void evictMember(String memberId);
+
+    /** Drop every membership of a user, e.g. after a profile change. */
+    void evictUser(String userId);
+
+    void evictChannel(String channelId);
+
+    void evictConversation(String conversationId);
+
+    void evictWorkspace(String workspaceId);
+}
@@ -1,16 +1,21 @@
 package com.slack.server.service;
 
+import com.slack.server.model.DeleteJob;
 import com.slack.server.model.Workspace;
-import com.slack.server.model.Member;
+import com.slack.server.dto.MemberDTO;
+import org.springframework.lang.Nullable;
 import java.util.List;
 
 public interface WorkspaceService {
     Workspace createWorkspace(String name, String userId);
     Workspace updateWorkspace(String workspaceId, String name);
+    /** Days of history kept in the database before it moves to the archive; null turns archiving off. */
+    Workspace updateRetention(String workspaceId, @Nullable Integer retentionDays);
     Workspace getWorkspaceById(String workspaceId);
     List<Workspace> getUserWorkspaces(String userId);
-    List<Member> getWorkspaceMembers(String workspaceId);
+    List<MemberDTO> getWorkspaceMembers(String workspaceId);
     Workspace joinWorkspace(String joinCode, String userId);
-    void deleteWorkspace(String workspaceId);
+    /** Hide the workspace with its channels and DMs now and queue the purge of everything in it; returns the job. */
+    DeleteJob deleteWorkspace(String workspaceId);
     String regenerateJoinCode(String workspaceId);
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.slack.server.model.User;
 import com.slack.server.repository.UserRepository;
 import com.slack.server.security.JwtTokenProvider;
 import com.slack.server.service.AuthService;
+import com.slack.server.service.RoutingCache;
 import com.slack.server.service.WebSocketService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.Nullable;
@@ -35,6 +36,9 @@ public class AuthServiceImpl implements AuthService {
     @Autowired
     private WebSocketService webSocketService;
 
+    @Autowired
+    private RoutingCache routingCache;
+
     @Override
     public User register(String name, String email, String password) {
         if (userRepository.existsByEmail(java.util.Objects.requireNonNull(email))) {
@@ -93,6 +97,8 @@ public class AuthServiceImpl implements AuthService {
         if (imageUrl != null) {
             user.setImageUrl(imageUrl);
         }
+        // Cached member routes carry the author's name and image
+        routingCache.evictUser(userId);
         return userRepository.save(user);
     }
 
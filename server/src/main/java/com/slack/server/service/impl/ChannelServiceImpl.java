@@ -1,12 +1,16 @@
 package com.slack.server.service.impl;
 
 import com.slack.server.model.Channel;
+import com.slack.server.model.DeleteJob;
 import com.slack.server.model.Workspace;
 import com.slack.server.model.event.WebSocketEvent;
 import com.slack.server.dto.ChannelDTO;
 import com.slack.server.repository.ChannelRepository;
 import com.slack.server.repository.WorkspaceRepository;
 import com.slack.server.service.ChannelService;
+import com.slack.server.service.DeleteJobService;
+import com.slack.server.service.RecentMessageCache;
+import com.slack.server.service.RoutingCache;
 import com.slack.server.service.WebSocketService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -21,12 +25,21 @@ public class ChannelServiceImpl implements ChannelService {
     @Autowired
     private ChannelRepository channelRepository;
 
+    @Autowired
+    private DeleteJobService deleteJobService;
+
     @Autowired
     private WorkspaceRepository workspaceRepository;
 
     @Autowired
     private WebSocketService webSocketService;
 
+    @Autowired
+    private RecentMessageCache recentMessageCache;
+
+    @Autowired
+    private RoutingCache routingCache;
+
     @Override
     public Channel createChannel(String name, String workspaceId) {
         Workspace workspace = workspaceRepository.findById(java.util.Objects.requireNonNull(workspaceId))
@@ -86,10 +99,14 @@ public class ChannelServiceImpl implements ChannelService {
     }
 
     @Override
-    public void deleteChannel(String channelId) {
+    public DeleteJob deleteChannel(String channelId) {
         Channel channel = getChannelById(java.util.Objects.requireNonNull(channelId));
         String workspaceId = channel.getWorkspace().getId();
-        channelRepository.delete(channel);
+        channel.setDeletedAt(System.currentTimeMillis());
+        channelRepository.save(channel);
+        DeleteJob job = deleteJobService.schedule(DeleteJob.Target.CHANNEL, channelId, workspaceId);
+        recentMessageCache.evict(RecentMessageCache.channelKey(channelId));
+        routingCache.evictChannel(channelId);
 
         // Send WebSocket notification
         WebSocketEvent<String> event = new WebSocketEvent<>();
@@ -97,5 +114,7 @@ public class ChannelServiceImpl implements ChannelService {
         event.setWorkspaceId(workspaceId);
         event.setPayload(channelId);
         webSocketService.sendToWorkspace(workspaceId, event);
+
+        return job;
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.slack.server.service.impl;
 
 import com.slack.server.model.Conversation;
+import com.slack.server.model.DeleteJob;
 import com.slack.server.model.Member;
 import com.slack.server.model.Workspace;
 import com.slack.server.model.event.WebSocketEvent;
@@ -9,6 +10,9 @@ import com.slack.server.repository.ConversationRepository;
 import com.slack.server.repository.MemberRepository;
 import com.slack.server.repository.WorkspaceRepository;
 import com.slack.server.service.ConversationService;
+import com.slack.server.service.DeleteJobService;
+import com.slack.server.service.RecentMessageCache;
+import com.slack.server.service.RoutingCache;
 import com.slack.server.service.WebSocketService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -24,6 +28,9 @@ public class ConversationServiceImpl implements ConversationService {
     @Autowired
     private ConversationRepository conversationRepository;
 
+    @Autowired
+    private DeleteJobService deleteJobService;
+
     @Autowired
     private MemberRepository memberRepository;
 
@@ -33,6 +40,12 @@ public class ConversationServiceImpl implements ConversationService {
     @Autowired
     private WebSocketService webSocketService;
 
+    @Autowired
+    private RecentMessageCache recentMessageCache;
+
+    @Autowired
+    private RoutingCache routingCache;
+
     @Override
     public Conversation createConversation(String workspaceId, String memberOneId, String memberTwoId) {
         // Check if conversation already exists
@@ -74,10 +87,14 @@ public class ConversationServiceImpl implements ConversationService {
     }
 
     @Override
-    public void deleteConversation(String conversationId) {
+    public DeleteJob deleteConversation(String conversationId) {
         Conversation conversation = getConversationById(java.util.Objects.requireNonNull(conversationId));
         String workspaceId = conversation.getWorkspace().getId();
-        conversationRepository.delete(conversation);
+        conversation.setDeletedAt(System.currentTimeMillis());
+        conversationRepository.save(conversation);
+        DeleteJob job = deleteJobService.schedule(DeleteJob.Target.CONVERSATION, conversationId, workspaceId);
+        recentMessageCache.evict(RecentMessageCache.conversationKey(conversationId));
+        routingCache.evictConversation(conversationId);
 
         // Send WebSocket notification
         WebSocketEvent<String> event = new WebSocketEvent<>();
@@ -86,6 +103,8 @@ public class ConversationServiceImpl implements ConversationService {
         event.setConversationId(conversationId);
         event.setPayload(conversationId);
         webSocketService.sendToWorkspace(workspaceId, event);
+
+        return job;
     }
 
     @Override
@@ -95,15 +114,26 @@ public class ConversationServiceImpl implements ConversationService {
     }
 
     @Override
-    public List<Conversation> getMemberConversations(String workspaceId, String memberId) {
-        return conversationRepository.findByWorkspaceIdAndMemberId(
-            java.util.Objects.requireNonNull(workspaceId), 
+    @Transactional(readOnly = true)
+    public ConversationDTO getConversationDTO(String conversationId) {
+        return conversationRepository.findRowById(java.util.Objects.requireNonNull(conversationId))
+            .map(ConversationDTO::fromRow)
+            .orElseThrow(() -> new EntityNotFoundException("Conversation not found"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ConversationDTO> getMemberConversations(String workspaceId, String memberId) {
+        return conversationRepository.findRowsByWorkspaceIdAndMemberId(
+            java.util.Objects.requireNonNull(workspaceId),
             java.util.Objects.requireNonNull(memberId)
-        );
+        ).stream().map(ConversationDTO::fromRow).toList();
     }
 
     @Override
-    public List<Conversation> getWorkspaceConversations(String workspaceId) {
-        return conversationRepository.findByWorkspaceId(java.util.Objects.requireNonNull(workspaceId));
+    @Transactional(readOnly = true)
+    public List<ConversationDTO> getWorkspaceConversations(String workspaceId) {
+        return conversationRepository.findRowsByWorkspaceId(java.util.Objects.requireNonNull(workspaceId))
+            .stream().map(ConversationDTO::fromRow).toList();
     }
 }
\ No newline at end of file
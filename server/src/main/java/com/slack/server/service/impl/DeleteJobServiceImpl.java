@@ -0,0 +1,155 @@
+package com.slack.server.service.impl;
+
+import com.slack.server.model.DeleteJob;
+import com.slack.server.repository.BulkDeleteRepository;
+import com.slack.server.repository.DeleteJobRepository;
+import com.slack.server.repository.MessageArchiveRepository;
+import com.slack.server.service.DeleteJobService;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Not transactional as a whole: every batch commits on its own, so a large delete never holds one big transaction
+@Service
+public class DeleteJobServiceImpl implements DeleteJobService {
+    private static final Logger log = LoggerFactory.getLogger(DeleteJobServiceImpl.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private record TimelineId(BulkDeleteRepository.Timeline timeline, String id) {}
+
+    @Autowired
+    private DeleteJobRepository deleteJobRepository;
+
+    @Autowired
+    private BulkDeleteRepository bulkDeleteRepository;
+
+    @Autowired
+    private MessageArchiveRepository messageArchiveRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final int batchSize;
+    private final long maxRunMillis;
+
+    public DeleteJobServiceImpl(@Value("${app.delete-jobs.batch-size:1000}") int batchSize,
+                                @Value("${app.delete-jobs.max-run-ms:10000}") long maxRunMillis) {
+        this.batchSize = batchSize;
+        this.maxRunMillis = maxRunMillis;
+    }
+
+    @Override
+    @Transactional
+    public DeleteJob schedule(DeleteJob.Target target, String targetId, String workspaceId) {
+        long now = System.currentTimeMillis();
+        DeleteJob job = new DeleteJob();
+        job.setTargetType(java.util.Objects.requireNonNull(target));
+        job.setTargetId(java.util.Objects.requireNonNull(targetId));
+        job.setWorkspaceId(java.util.Objects.requireNonNull(workspaceId));
+        job.setStatus(DeleteJob.Status.PENDING);
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        return deleteJobRepository.save(job);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DeleteJob getJob(String jobId) {
+        return deleteJobRepository.findById(java.util.Objects.requireNonNull(jobId))
+            .orElseThrow(() -> new EntityNotFoundException("Delete job not found"));
+    }
+
+    @Override
+    public long runPending() {
+        long deadline = System.currentTimeMillis() + maxRunMillis;
+        long deleted = 0;
+        for (DeleteJob job : deleteJobRepository.findByStatusOrderByCreatedAtAsc(DeleteJob.Status.PENDING)) {
+            if (System.currentTimeMillis() >= deadline) break;
+            try {
+                deleted += run(job, deadline);
+            } catch (RuntimeException ex) {
+                log.warn("Delete job {} for {} {} failed; it is retried on the next run",
+                    job.getId(), job.getTargetType(), job.getTargetId(), ex);
+                String error = String.valueOf(ex.getMessage());
+                String truncated = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+                inTransaction(() -> deleteJobRepository.recordError(job.getId(), truncated, System.currentTimeMillis()));
+            }
+        }
+        return deleted;
+    }
+
+    /** Carry a job as far as the deadline allows; whatever is left is picked up by a later run. */
+    private long run(DeleteJob job, long deadline) {
+        List<TimelineId> timelines = timelines(job);
+        if (job.getTotalMessages() == null) {
+            long total = timelines.stream()
+                .mapToLong(timeline -> bulkDeleteRepository.countMessages(timeline.timeline(), timeline.id()))
+                .sum();
+            inTransaction(() -> deleteJobRepository.recordTotal(job.getId(), total, System.currentTimeMillis()));
+        }
+
+        long deleted = 0;
+        for (TimelineId timeline : timelines) {
+            int batch;
+            do {
+                if (System.currentTimeMillis() >= deadline) return deleted;
+                batch = inTransaction(() -> {
+                    int removed = bulkDeleteRepository.deleteMessages(timeline.timeline(), timeline.id(), batchSize);
+                    if (removed > 0) {
+                        deleteJobRepository.recordProgress(job.getId(), removed, System.currentTimeMillis());
+                    }
+                    return removed;
+                });
+                deleted += batch;
+            } while (batch > 0);
+        }
+
+        // Archived history goes before the rows: the target is hidden already, so nothing can miss it if the rest fails
+        if (job.getTargetType() == DeleteJob.Target.WORKSPACE) {
+            messageArchiveRepository.deleteWorkspace(job.getWorkspaceId(), timelines.stream().map(TimelineId::id).toList());
+        } else {
+            messageArchiveRepository.deleteTimeline(job.getTargetId());
+        }
+        inTransaction(() -> {
+            timelines.forEach(timeline -> bulkDeleteRepository.deleteTimeline(timeline.timeline(), timeline.id()));
+            if (job.getTargetType() == DeleteJob.Target.WORKSPACE) {
+                bulkDeleteRepository.deleteWorkspace(job.getWorkspaceId());
+            }
+            return deleteJobRepository.markFinished(job.getId(), DeleteJob.Status.COMPLETED, System.currentTimeMillis());
+        });
+        log.info("Delete job {} removed {} {} {} ms after it was queued",
+            job.getId(), job.getTargetType(), job.getTargetId(), System.currentTimeMillis() - job.getCreatedAt());
+        return deleted;
+    }
+
+    private List<TimelineId> timelines(DeleteJob job) {
+        return switch (job.getTargetType()) {
+            case CHANNEL -> List.of(new TimelineId(BulkDeleteRepository.Timeline.CHANNEL, job.getTargetId()));
+            case CONVERSATION -> List.of(new TimelineId(BulkDeleteRepository.Timeline.CONVERSATION, job.getTargetId()));
+            case WORKSPACE -> {
+                List<TimelineId> all = new ArrayList<>();
+                for (BulkDeleteRepository.Timeline timeline : BulkDeleteRepository.Timeline.values()) {
+                    for (String id : bulkDeleteRepository.findTimelineIds(timeline, job.getWorkspaceId())) {
+                        all.add(new TimelineId(timeline, id));
+                    }
+                }
+                yield all;
+            }
+        };
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+}
@@ -0,0 +1,127 @@
+package com.slack.server.service.impl;
+
+import com.slack.server.model.event.WebSocketEvent;
+import com.slack.server.service.EventOutbox;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class EventOutboxImpl implements EventOutbox {
+    private static final Logger log = LoggerFactory.getLogger(EventOutboxImpl.class);
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    // One single-threaded lane per slot: a routing key always lands on the same lane, which keeps its events in order
+    private final Lane[] lanes;
+
+    public EventOutboxImpl(
+            @Value("${app.websocket.dispatcher.threads:4}") int threads,
+            @Value("${app.websocket.dispatcher.queue-capacity:10000}") int queueCapacity) {
+        lanes = new Lane[threads];
+        for (int i = 0; i < threads; i++) {
+            lanes[i] = new Lane("ws-dispatch-" + i, queueCapacity);
+        }
+    }
+
+    private final class Send implements Runnable {
+        private final String destination;
+        private final Object event;
+
+        Send(String destination, Object event) {
+            this.destination = destination;
+            this.event = event;
+        }
+
+        @Override
+        public void run() {
+            deliver(destination, event);
+        }
+    }
+
+    /*
+     * A full lane never makes the publisher wait, and never sends the event on the publisher's thread, which
+     * would overtake the events already queued. The event is not delivered; instead its destination is noted,
+     * and once the lane has sent its next event it tells that destination to RESYNC, so subscribers reload
+     * whatever they missed. That covers every event type, not only the messages delta sync can replay.
+     */
+    private final class Lane extends ThreadPoolExecutor {
+        private final Set<String> resync = ConcurrentHashMap.newKeySet();
+
+        Lane(String name, int queueCapacity) {
+            super(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, name);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            setRejectedExecutionHandler((runnable, executor) -> {
+                if (!executor.isShutdown() && runnable instanceof Send send && resync.add(send.destination)) {
+                    log.warn("Dispatch lane {} is full; {} will be told to resync", name, send.destination);
+                }
+            });
+        }
+
+        @Override
+        protected void afterExecute(Runnable runnable, Throwable failure) {
+            for (String destination : resync) {
+                resync.remove(destination);
+                WebSocketEvent<Void> event = new WebSocketEvent<>();
+                event.setType(WebSocketEvent.EventType.RESYNC);
+                deliver(destination, event);
+            }
+        }
+    }
+
+    private void deliver(String destination, Object event) {
+        try {
+            messagingTemplate.convertAndSend(destination, event);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to dispatch event to {}", destination, ex);
+        }
+    }
+
+    @Override
+    public void publish(String routingKey, String destination, Object event) {
+        java.util.Objects.requireNonNull(destination);
+        java.util.Objects.requireNonNull(event);
+        Lane lane = lanes[Math.floorMod(routingKey.hashCode(), lanes.length)];
+        Send send = new Send(destination, event);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lane.execute(send);
+            return;
+        }
+        // Callbacks run in registration order, so a transaction's events keep their order too
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lane.execute(send);
+            }
+        });
+    }
+
+    /** Deliver what is already queued before the broker goes away. */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        for (Lane lane : lanes) {
+            lane.shutdown();
+        }
+        for (Lane lane : lanes) {
+            lane.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
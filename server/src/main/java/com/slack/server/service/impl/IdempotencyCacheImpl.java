@@ -0,0 +1,67 @@
+package com.slack.server.service.impl;
+
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.service.IdempotencyCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+public class IdempotencyCacheImpl implements IdempotencyCache {
+
+    private record Entry(MessageDTO message, long expiresAt) {}
+
+    private final long ttlMs;
+
+    // Insertion-ordered, so the eldest entry is also the first to expire. Guarded by "this".
+    private final LinkedHashMap<String, Entry> entries;
+
+    public IdempotencyCacheImpl(
+            @Value("${app.messages.idempotency.max-entries:100000}") int maxEntries,
+            @Value("${app.messages.idempotency.ttl-ms:3600000}") long ttlMs) {
+        this.ttlMs = ttlMs;
+        this.entries = new LinkedHashMap<>(256, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries || eldest.getValue().expiresAt() < System.currentTimeMillis();
+            }
+        };
+    }
+
+    @Override
+    public @Nullable MessageDTO get(String memberId, String key) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(memberId + ":" + key);
+        }
+        if (entry == null || entry.expiresAt() < System.currentTimeMillis()) {
+            return null;
+        }
+        return MessageDTO.copyOf(entry.message());
+    }
+
+    @Override
+    public void put(String memberId, String key, MessageDTO message) {
+        Entry entry = new Entry(MessageDTO.copyOf(message), System.currentTimeMillis() + ttlMs);
+        Runnable store = () -> {
+            synchronized (this) {
+                entries.put(memberId + ":" + key, entry);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            store.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                store.run();
+            }
+        });
+    }
+}
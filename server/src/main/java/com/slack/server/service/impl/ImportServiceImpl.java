@@ -0,0 +1,374 @@
+package com.slack.server.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slack.server.dto.ImportRecordDTO;
+import com.slack.server.dto.ImportResultDTO;
+import com.slack.server.model.Member;
+import com.slack.server.model.MessageText;
+import com.slack.server.repository.ImportWriteRepository;
+import com.slack.server.repository.WorkspaceRepository;
+import com.slack.server.service.ImportService;
+import com.slack.server.service.MessageService;
+import com.slack.server.service.ReadMarkerService;
+import com.slack.server.service.RecentMessageCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import jakarta.persistence.EntityNotFoundException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Not transactional: each batch commits on its own so a large archive never becomes one huge transaction
+@Service
+public class ImportServiceImpl implements ImportService {
+    private static final Logger log = LoggerFactory.getLogger(ImportServiceImpl.class);
+
+    // Matches no encoded password, so imported users cannot sign in until they are given one
+    private static final String NO_PASSWORD = "!imported";
+
+    // Reserved top-level domain, so a placeholder email can never reach anyone
+    private static final String PLACEHOLDER_EMAIL_DOMAIN = "@imported.invalid";
+
+    @Autowired
+    private ImportWriteRepository importWriteRepository;
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private ReadMarkerService readMarkerService;
+
+    @Autowired
+    private RecentMessageCache recentMessageCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.import.batch-size:5000}")
+    private int batchSize;
+
+    @Override
+    public ImportResultDTO importWorkspace(String workspaceId, InputStream archive) {
+        if (!workspaceRepository.existsById(java.util.Objects.requireNonNull(workspaceId))) {
+            throw new EntityNotFoundException("Workspace not found");
+        }
+        long started = System.currentTimeMillis();
+        Load load = new Load(workspaceId);
+
+        try (MappingIterator<ImportRecordDTO> records = objectMapper.readerFor(ImportRecordDTO.class).readValues(archive)) {
+            while (records.hasNextValue()) {
+                ImportRecordDTO record = records.nextValue();
+                try {
+                    load.accept(record);
+                } catch (IllegalArgumentException ex) {
+                    throw new IllegalArgumentException("Line " + records.getCurrentLocation().getLineNr() + ": " + ex.getMessage(), ex);
+                }
+            }
+            load.flush();
+            load.checkNoWaitingReplies();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Malformed import record: " + ex.getOriginalMessage(), ex);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        // Counters were left alone during the load; rebuild this workspace's once instead of per message
+        int threads = messageService.reconcileThreadCounters(workspaceId);
+        readMarkerService.reconcileCounters(workspaceId);
+        load.timelines.forEach(recentMessageCache::evict);
+
+        ImportResultDTO result = new ImportResultDTO(load.users, load.members, load.channels, load.conversations,
+            load.messages, load.reactions, System.currentTimeMillis() - started);
+        log.info("Imported into workspace {}: {} ({} threads rebuilt)", workspaceId, result, threads);
+        return result;
+    }
+
+    private record PendingReply(String sourceId, String parentSourceId, String parentId, Object[] row) {
+    }
+
+    /** State of one import: source id to local id for the small entity types, and the pending batches. */
+    private final class Load {
+        private final String workspaceId;
+
+        private final Map<String, String> userIds = new HashMap<>();
+        private final Map<String, String> memberIds = new HashMap<>();
+        private final Map<String, String> channelIds = new HashMap<>();
+        private final Map<String, String> conversationIds = new HashMap<>();
+
+        // What the workspace already has; imported records merge into these instead of duplicating them
+        private final Map<String, String> membersByUser;
+        private final Map<String, String> channelsByName;
+        private final Map<String, String> conversationsByMembers;
+
+        private final List<ImportRecordDTO> pendingUsers = new ArrayList<>();
+        private final List<Object[]> pendingMembers = new ArrayList<>();
+        private final List<Object[]> pendingChannels = new ArrayList<>();
+        private final List<Object[]> pendingConversations = new ArrayList<>();
+        private final List<Object[]> pendingMessages = new ArrayList<>();
+        private final List<PendingReply> pendingReplies = new ArrayList<>();
+        // Replies whose parent was not stored yet when their batch was written; they go out with a later batch.
+        // Archives list parents before replies in practice, so this stays small
+        private final List<PendingReply> waitingReplies = new ArrayList<>();
+        private final List<Object[]> pendingReactions = new ArrayList<>();
+
+        private final Set<String> timelines = new HashSet<>();
+        private @Nullable String currentType;
+        private long users, members, channels, conversations, messages, reactions;
+
+        Load(String workspaceId) {
+            this.workspaceId = workspaceId;
+            this.membersByUser = importWriteRepository.findMemberIdsByUser(workspaceId);
+            this.channelsByName = importWriteRepository.findChannelIdsByName(workspaceId);
+            this.conversationsByMembers = importWriteRepository.findConversationIdsByMembers(workspaceId);
+        }
+
+        void accept(ImportRecordDTO record) {
+            String type = required(record.getType(), "type");
+            // Later types refer to earlier ones, so everything pending is written whenever the type changes
+            if (!type.equals(currentType)) {
+                flush();
+                if ("message".equals(currentType)) {
+                    checkNoWaitingReplies();
+                }
+                currentType = type;
+            }
+            switch (type) {
+                case "user" -> user(record);
+                case "member" -> member(record);
+                case "channel" -> channel(record);
+                case "conversation" -> conversation(record);
+                case "message" -> message(record);
+                case "reaction" -> reaction(record);
+                default -> throw new IllegalArgumentException("Unknown record type " + type);
+            }
+        }
+
+        void flush() {
+            flushUsers();
+            flush(pendingMembers, importWriteRepository::insertMembers);
+            flush(pendingChannels, importWriteRepository::insertChannels);
+            flush(pendingConversations, importWriteRepository::insertConversations);
+            flush(pendingMessages, importWriteRepository::insertMessages);
+            flushReplies();
+            flush(pendingReactions, importWriteRepository::insertReactions);
+        }
+
+        /** Every reply still waiting for its parent by the end of the messages is one whose parent is not in the archive. */
+        void checkNoWaitingReplies() {
+            if (!waitingReplies.isEmpty()) {
+                PendingReply reply = waitingReplies.get(0);
+                throw new IllegalArgumentException("Message " + reply.sourceId() + " replies to message "
+                    + reply.parentSourceId() + ", which is not in the archive (" + waitingReplies.size() + " such replies)");
+            }
+        }
+
+        // Runs after the batch's top-level messages are stored; repeats while a pass stores parents of other replies
+        private void flushReplies() {
+            List<PendingReply> replies = new ArrayList<>(waitingReplies);
+            replies.addAll(pendingReplies);
+            pendingReplies.clear();
+            waitingReplies.clear();
+
+            while (!replies.isEmpty()) {
+                Set<String> parents = new HashSet<>();
+                replies.forEach(reply -> parents.add(reply.parentId()));
+                Set<String> stored = importWriteRepository.findExistingMessageIds(parents);
+                List<Object[]> ready = new ArrayList<>(replies.size());
+                List<PendingReply> waiting = new ArrayList<>();
+                for (PendingReply reply : replies) {
+                    if (stored.contains(reply.parentId())) {
+                        ready.add(reply.row());
+                    } else {
+                        waiting.add(reply);
+                    }
+                }
+                if (ready.isEmpty()) break;
+                importWriteRepository.insertMessages(ready);
+                replies = waiting;
+            }
+            waitingReplies.addAll(replies);
+        }
+
+        private void user(ImportRecordDTO record) {
+            required(record.getId(), "id");
+            required(record.getName(), "name");
+            required(record.getEmail(), "email");
+            pendingUsers.add(record);
+            users++;
+            if (pendingUsers.size() >= batchSize) flushUsers();
+        }
+
+        /*
+         * Only accounts already in this workspace are matched on email. Anyone else gets an imported account of
+         * their own, so an archive can never enroll, or post as, a user from outside the workspace. When such a
+         * user's email belongs to an outside account, the imported account gets a placeholder email instead.
+         */
+        private void flushUsers() {
+            if (pendingUsers.isEmpty()) return;
+            List<String> emails = pendingUsers.stream().map(ImportRecordDTO::getEmail).toList();
+            Map<String, String> inWorkspace = importWriteRepository.findMemberUserIdsByEmail(workspaceId, emails);
+            List<Object[]> rows = new ArrayList<>(pendingUsers.size());
+            for (ImportRecordDTO record : pendingUsers) {
+                String userId = inWorkspace.get(record.getEmail());
+                if (userId == null) {
+                    userId = localId("user", record.getId());
+                    rows.add(new Object[] { userId, record.getName(), record.getEmail(), NO_PASSWORD, record.getImageUrl() });
+                }
+                userIds.put(record.getId(), userId);
+            }
+            importWriteRepository.insertUsers(rows);
+
+            Set<String> stored = importWriteRepository.findExistingUserIds(rows.stream().map(row -> (String) row[0]).toList());
+            List<Object[]> renamed = rows.stream().filter(row -> !stored.contains((String) row[0]))
+                .map(row -> new Object[] { row[0], row[1], row[0] + PLACEHOLDER_EMAIL_DOMAIN, NO_PASSWORD, row[4] })
+                .toList();
+            if (!renamed.isEmpty()) {
+                importWriteRepository.insertUsers(renamed);
+            }
+            pendingUsers.clear();
+        }
+
+        private void member(ImportRecordDTO record) {
+            String sourceId = required(record.getId(), "id");
+            String userId = resolve(userIds, record.getUserId(), "user");
+            Member.Role role = record.getRole() != null ? Member.Role.valueOf(record.getRole()) : Member.Role.MEMBER;
+            String memberId = membersByUser.get(userId);
+            if (memberId == null) {
+                memberId = localId("member", sourceId);
+                membersByUser.put(userId, memberId);
+                add(pendingMembers, new Object[] { memberId, userId, role.name(), workspaceId });
+            }
+            memberIds.put(sourceId, memberId);
+            members++;
+        }
+
+        private void channel(ImportRecordDTO record) {
+            String sourceId = required(record.getId(), "id");
+            String name = required(record.getName(), "name");
+            String channelId = channelsByName.get(name);
+            if (channelId == null) {
+                channelId = localId("channel", sourceId);
+                channelsByName.put(name, channelId);
+                long createdAt = record.getCreatedAt() != null ? record.getCreatedAt() : System.currentTimeMillis();
+                add(pendingChannels, new Object[] { channelId, name, workspaceId, new Timestamp(createdAt) });
+            }
+            channelIds.put(sourceId, channelId);
+            channels++;
+        }
+
+        private void conversation(ImportRecordDTO record) {
+            String sourceId = required(record.getId(), "id");
+            String memberOneId = resolve(memberIds, record.getMemberOneId(), "member");
+            String memberTwoId = resolve(memberIds, record.getMemberTwoId(), "member");
+            String pair = ImportWriteRepository.memberPair(memberOneId, memberTwoId);
+            String conversationId = conversationsByMembers.get(pair);
+            if (conversationId == null) {
+                conversationId = localId("conversation", sourceId);
+                conversationsByMembers.put(pair, conversationId);
+                add(pendingConversations, new Object[] { conversationId, memberOneId, memberTwoId, workspaceId });
+            }
+            conversationIds.put(sourceId, conversationId);
+            conversations++;
+        }
+
+        private void message(ImportRecordDTO record) {
+            String id = localId("message", required(record.getId(), "id"));
+            String memberId = resolve(memberIds, record.getMemberId(), "member");
+            if (record.getCreatedAt() == null) {
+                throw new IllegalArgumentException("Missing createdAt");
+            }
+            long createdAt = record.getCreatedAt();
+            String channelId = record.getChannelId() != null ? resolve(channelIds, record.getChannelId(), "channel") : null;
+            String conversationId = record.getConversationId() != null
+                ? resolve(conversationIds, record.getConversationId(), "conversation") : null;
+            if ((channelId == null) == (conversationId == null)) {
+                throw new IllegalArgumentException("A message needs exactly one of channelId and conversationId");
+            }
+            String parentId = record.getParentMessageId() != null ? localId("message", record.getParentMessageId()) : null;
+
+            String body = required(record.getBody(), "body");
+            String searchText;
+            if (body.startsWith("{\"ops\"")) {
+                searchText = MessageText.plainText(body);
+            } else {
+                // Plain text from the source system; no need to parse the delta built from it again
+                searchText = body.strip();
+                body = MessageText.quillDelta(body);
+            }
+            Object[] row = { id, body, record.getImageId(), memberId, workspaceId, channelId,
+                conversationId, parentId, searchText, createdAt, createdAt, record.getUpdatedAt() };
+            if (parentId == null) {
+                add(pendingMessages, row);
+            } else {
+                // Held back until the parent is stored, wherever the archive lists it
+                pendingReplies.add(new PendingReply(record.getId(), record.getParentMessageId(), parentId, row));
+                if (pendingReplies.size() >= batchSize) flush();
+            }
+            timelines.add(RecentMessageCache.keyOf(channelId, conversationId));
+            messages++;
+        }
+
+        private void reaction(ImportRecordDTO record) {
+            String messageSourceId = required(record.getMessageId(), "messageId");
+            String memberId = resolve(memberIds, record.getMemberId(), "member");
+            String value = required(record.getValue(), "value");
+            long createdAt = record.getCreatedAt() != null ? record.getCreatedAt() : System.currentTimeMillis();
+            add(pendingReactions, new Object[] { localId("reaction", messageSourceId + "/" + memberId + "/" + value),
+                value, workspaceId, localId("message", messageSourceId), memberId, createdAt });
+            reactions++;
+        }
+
+        private void add(List<Object[]> pending, Object[] row) {
+            pending.add(row);
+            if (pending.size() >= batchSize) {
+                // Earlier types may still hold rows this batch refers to
+                flush();
+            }
+        }
+
+        private void flush(List<Object[]> pending, java.util.function.Consumer<List<Object[]>> writer) {
+            if (pending.isEmpty()) return;
+            writer.accept(pending);
+            pending.clear();
+        }
+
+        /** Stable id for a source record, so a repeated import maps it to the same row. */
+        private String localId(String type, String sourceId) {
+            return UUID.nameUUIDFromBytes((workspaceId + "/" + type + "/" + sourceId).getBytes(StandardCharsets.UTF_8)).toString();
+        }
+
+        private String resolve(Map<String, String> ids, @Nullable String sourceId, String type) {
+            String id = ids.get(required(sourceId, type + " id"));
+            if (id == null) {
+                throw new IllegalArgumentException("Unknown " + type + " " + sourceId);
+            }
+            return id;
+        }
+
+        private String required(@Nullable String value, String field) {
+            if (value == null || value.isBlank()) {
+                throw new IllegalArgumentException("Missing " + field);
+            }
+            return value;
+        }
+    }
+}
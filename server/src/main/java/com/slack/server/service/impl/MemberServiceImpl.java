@@ -6,9 +6,11 @@ import com.slack.server.model.Workspace;
 import com.slack.server.model.event.WebSocketEvent;
 import com.slack.server.dto.MemberDTO;
 import com.slack.server.repository.MemberRepository;
+import com.slack.server.repository.ReadMarkerRepository;
 import com.slack.server.repository.UserRepository;
 import com.slack.server.repository.WorkspaceRepository;
 import com.slack.server.service.MemberService;
+import com.slack.server.service.RoutingCache;
 import com.slack.server.service.WebSocketService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -24,6 +26,9 @@ public class MemberServiceImpl implements MemberService {
     @Autowired
     private MemberRepository memberRepository;
 
+    @Autowired
+    private ReadMarkerRepository readMarkerRepository;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -33,6 +38,9 @@ public class MemberServiceImpl implements MemberService {
     @Autowired
     private WebSocketService webSocketService;
 
+    @Autowired
+    private RoutingCache routingCache;
+
     @Override
     public Member addMember(String workspaceId, String userId, Member.Role role) {
         Workspace workspace = workspaceRepository.findById(java.util.Objects.requireNonNull(workspaceId))
@@ -66,6 +74,7 @@ public class MemberServiceImpl implements MemberService {
         Member member = getMemberById(java.util.Objects.requireNonNull(memberId));
         member.setRole(java.util.Objects.requireNonNull(role));
         member = memberRepository.save(member);
+        routingCache.evictMember(memberId);
 
         // Send WebSocket notification
         WebSocketEvent<MemberDTO> event = new WebSocketEvent<>();
@@ -90,8 +99,26 @@ public class MemberServiceImpl implements MemberService {
     }
 
     @Override
-    public List<Member> getWorkspaceMembers(String workspaceId) {
-        return memberRepository.findByWorkspaceId(java.util.Objects.requireNonNull(workspaceId));
+    @Transactional(readOnly = true)
+    public MemberDTO getMemberDTO(String memberId) {
+        return memberRepository.findRowById(java.util.Objects.requireNonNull(memberId))
+            .map(MemberDTO::fromRow)
+            .orElseThrow(() -> new EntityNotFoundException("Member not found"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MemberDTO getMemberDTOByWorkspaceAndUser(String workspaceId, String userId) {
+        return memberRepository.findRowByWorkspaceIdAndUserId(java.util.Objects.requireNonNull(workspaceId), java.util.Objects.requireNonNull(userId))
+            .map(MemberDTO::fromRow)
+            .orElseThrow(() -> new EntityNotFoundException("Member not found"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MemberDTO> getWorkspaceMembers(String workspaceId) {
+        return memberRepository.findRowsByWorkspaceId(java.util.Objects.requireNonNull(workspaceId))
+            .stream().map(MemberDTO::fromRow).toList();
     }
 
     @Override
@@ -104,6 +131,8 @@ public class MemberServiceImpl implements MemberService {
         Member member = getMemberById(java.util.Objects.requireNonNull(memberId));
         String workspaceId = member.getWorkspace().getId();
         memberRepository.delete(member);
+        readMarkerRepository.deleteByMemberId(memberId);
+        routingCache.evictMember(memberId);
 
         // Send WebSocket notification
         WebSocketEvent<String> event = new WebSocketEvent<>();
@@ -0,0 +1,58 @@
+package com.slack.server.service.impl;
+
+import com.slack.server.model.Workspace;
+import com.slack.server.repository.ChannelRepository;
+import com.slack.server.repository.ConversationRepository;
+import com.slack.server.repository.WorkspaceRepository;
+import com.slack.server.service.MessageArchiveService;
+import com.slack.server.service.MessageService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+// Not transactional itself: every batch commits on its own, so a long run never holds one big transaction
+@Service
+public class MessageArchiveServiceImpl implements MessageArchiveService {
+
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Value("${app.archive.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public int archiveExpired() {
+        int archived = 0;
+        for (Workspace workspace : workspaceRepository.findByRetentionDaysIsNotNull()) {
+            long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(workspace.getRetentionDays());
+            for (String channelId : channelRepository.findIdsByWorkspaceId(workspace.getId())) {
+                archived += archiveTimeline(workspace.getId(), channelId, null, cutoff);
+            }
+            for (String conversationId : conversationRepository.findIdsByWorkspaceId(workspace.getId())) {
+                archived += archiveTimeline(workspace.getId(), null, conversationId, cutoff);
+            }
+        }
+        return archived;
+    }
+
+    private int archiveTimeline(String workspaceId, String channelId, String conversationId, long cutoff) {
+        int archived = 0;
+        int moved;
+        do {
+            moved = messageService.archiveExpiredMessages(workspaceId, channelId, conversationId, cutoff, batchSize);
+            archived += moved;
+        } while (moved == batchSize);
+        return archived;
+    }
+}
@@ -0,0 +1,97 @@
+package com.slack.server.service.impl;
+
+import com.slack.server.model.TimeOrderedIds;
+import com.slack.server.service.MessageIngestQueue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+public class MessageIngestQueueImpl implements MessageIngestQueue {
+
+    private final boolean enabled;
+    private final int capacity;
+    private final long offerTimeoutMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    // Guarded by lock
+    private final ArrayDeque<IngestedMessage> queue = new ArrayDeque<>();
+
+    public MessageIngestQueueImpl(
+            @Value("${app.messages.ingest.enabled:false}") boolean enabled,
+            @Value("${app.messages.ingest.queue-capacity:20000}") int capacity,
+            @Value("${app.messages.ingest.offer-timeout-ms:250}") long offerTimeoutMs) {
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.offerTimeoutMs = offerTimeoutMs;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public IngestedMessage submit(String body, @Nullable String imageId, String workspaceId, String memberId,
+                                  @Nullable String channelId, @Nullable String conversationId,
+                                  @Nullable String parentMessageId, @Nullable String clientMessageId) {
+        lock.lock();
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+            while (queue.size() >= capacity) {
+                if (nanos <= 0) {
+                    throw new RejectedExecutionException("Message ingestion is at capacity, retry shortly");
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            // Stamped under the lock, so id, timestamp and queue (= write) order all agree
+            String id = TimeOrderedIds.next();
+            IngestedMessage message = new IngestedMessage(id, TimeOrderedIds.timestampOf(id), body, imageId,
+                workspaceId, memberId, channelId, conversationId, parentMessageId, clientMessageId, new CompletableFuture<>());
+            queue.addLast(message);
+            return message;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for ingestion capacity", ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<IngestedMessage> drain(int max) {
+        lock.lock();
+        try {
+            List<IngestedMessage> batch = new ArrayList<>(Math.min(max, queue.size()));
+            while (batch.size() < max && !queue.isEmpty()) {
+                batch.add(queue.pollFirst());
+            }
+            if (!batch.isEmpty()) {
+                notFull.signalAll();
+            }
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.slack.server.service.impl;
+
+import com.slack.server.repository.MessagePartitionRepository;
+import com.slack.server.repository.projection.MessagePartitionRow;
+import com.slack.server.service.MessagePartitionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class MessagePartitionServiceImpl implements MessagePartitionService {
+
+    @Autowired
+    private MessagePartitionRepository messagePartitionRepository;
+
+    private final int premakeMonths;
+    private final int detachAfterMonths;
+    private final String archiveSchema;
+
+    public MessagePartitionServiceImpl(
+        @Value("${app.messages.partitioning.premake-months:3}") int premakeMonths,
+        @Value("${app.messages.partitioning.detach-after-months:0}") int detachAfterMonths,
+        @Value("${app.messages.partitioning.archive-schema:archive}") String archiveSchema
+    ) {
+        if (premakeMonths < 1) {
+            throw new IllegalArgumentException("app.messages.partitioning.premake-months must be at least 1");
+        }
+        this.premakeMonths = premakeMonths;
+        this.detachAfterMonths = detachAfterMonths;
+        this.archiveSchema = archiveSchema;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return messagePartitionRepository.isPartitioned();
+    }
+
+    @Override
+    public MaintenanceResult maintain() {
+        if (!isEnabled()) return new MaintenanceResult(List.of(), List.of());
+
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        List<MessagePartitionRow> partitions = messagePartitionRepository.findPartitions();
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i <= premakeMonths; i++) {
+            YearMonth month = current.plusMonths(i);
+            long from = MessagePartitionRepository.monthStart(month);
+            // The converted legacy table may already cover the current month
+            boolean covered = partitions.stream().anyMatch(p ->
+                (p.from() == null || p.from() <= from) && (p.to() == null || p.to() > from));
+            if (!covered) {
+                created.add(messagePartitionRepository.createPartition(month));
+            }
+        }
+
+        List<String> detached = new ArrayList<>();
+        if (detachAfterMonths > 0) {
+            long horizon = MessagePartitionRepository.monthStart(current.minusMonths(detachAfterMonths));
+            for (MessagePartitionRow partition : partitions) {
+                if (partition.to() != null && partition.to() <= horizon) {
+                    messagePartitionRepository.detachPartition(partition.name(), archiveSchema);
+                    detached.add(partition.name());
+                }
+            }
+        }
+        return new MaintenanceResult(created, detached);
+    }
+}
@@ -1,30 +1,102 @@
 package com.slack.server.service.impl;
 
 import com.slack.server.model.Message;
+import com.slack.server.model.User;
 import com.slack.server.model.Member;
 import com.slack.server.model.Channel;
 import com.slack.server.model.Conversation;
+import com.slack.server.model.MessageTombstone;
+import com.slack.server.model.TimeOrderedIds;
 import com.slack.server.model.event.WebSocketEvent;
 import com.slack.server.dto.MessageDTO;
+import com.slack.server.dto.MessageBatchDTO;
+import com.slack.server.dto.MessageChangeCursor;
+import com.slack.server.dto.MessageChangesDTO;
+import com.slack.server.dto.MessageCursor;
+import com.slack.server.dto.MessageSearchCursor;
+import com.slack.server.dto.MessageSearchResultDTO;
+import com.slack.server.dto.ReactionSummaryDTO;
 import com.slack.server.repository.MessageRepository;
+import com.slack.server.repository.MessageArchiveRepository;
+import com.slack.server.repository.MessagePartitionRepository;
 import com.slack.server.repository.MemberRepository;
 import com.slack.server.repository.ChannelRepository;
 import com.slack.server.repository.ConversationRepository;
+import com.slack.server.repository.MessageSearchRepository;
+import com.slack.server.repository.MessageTombstoneRepository;
+import com.slack.server.repository.ReactionRepository;
+import com.slack.server.repository.ReadMarkerRepository;
+import com.slack.server.repository.WorkspaceRepository;
+import com.slack.server.repository.projection.ClientMessageRow;
+import com.slack.server.repository.projection.MessageSearchHit;
+import com.slack.server.repository.projection.MessageRow;
+import com.slack.server.repository.projection.ReactionSampleRow;
+import com.slack.server.repository.projection.ViewerReactionRow;
+import com.slack.server.service.IdempotencyCache;
+import com.slack.server.service.MessageIngestQueue;
 import com.slack.server.service.MessageService;
+import com.slack.server.service.RecentMessageCache;
+import com.slack.server.service.RoutingCache;
 import com.slack.server.service.WebSocketService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.lang.Nullable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class MessageServiceImpl implements MessageService {
+    private static final Logger log = LoggerFactory.getLogger(MessageServiceImpl.class);
+
+    private static final int EXPORT_BATCH_SIZE = 500;
+
+    private static final int MAX_BATCH_IDS = 500;
+
+    private static final Comparator<MessageDTO> ARCHIVE_ORDER =
+        Comparator.comparing(MessageDTO::getCreatedAt).thenComparing(MessageDTO::getId);
+
+    // Changes are stamped before they commit, so each sync re-reads a short overlap to catch slow commits
+    private static final long SYNC_OVERLAP_MS = 5_000;
 
     @Autowired
     private MessageRepository messageRepository;
@@ -38,49 +110,128 @@ public class MessageServiceImpl implements MessageService {
     @Autowired
     private ConversationRepository conversationRepository;
 
+    @Autowired
+    private WorkspaceRepository workspaceRepository;
+
+    @Autowired
+    private ReactionRepository reactionRepository;
+
+    @Autowired
+    private MessageSearchRepository messageSearchRepository;
+
+    @Autowired
+    private MessageTombstoneRepository messageTombstoneRepository;
+
+    @Autowired
+    private ReadMarkerRepository readMarkerRepository;
+
     @Autowired
     private WebSocketService webSocketService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RecentMessageCache recentMessageCache;
+
+    @Autowired
+    private MessageIngestQueue messageIngestQueue;
+
+    @Autowired
+    private RoutingCache routingCache;
+
+    @Autowired
+    private IdempotencyCache idempotencyCache;
+
+    @Autowired
+    private MessagePartitionRepository messagePartitionRepository;
+
+    @Autowired
+    private MessageArchiveRepository messageArchiveRepository;
+
+    @Value("${app.messages.tombstones.retention-days:30}")
+    private int tombstoneRetentionDays;
+
+    @Value("${app.messages.ingest.write-timeout-ms:5000}")
+    private long ingestWriteTimeoutMs;
+
     @Override
-    public Message createMessage(String body, @Nullable String imageId, String workspaceId,
+    public MessageDTO createMessage(String body, @Nullable String imageId, String workspaceId,
                                String memberId, @Nullable String channelId, @Nullable String conversationId,
-                               @Nullable String parentMessageId) {
-        Member member = memberRepository.findById(java.util.Objects.requireNonNull(memberId))
-            .orElseThrow(() -> new EntityNotFoundException("Member not found"));
+                               @Nullable String parentMessageId, @Nullable String clientMessageId) {
+        if (clientMessageId != null) {
+            checkClientMessageId(clientMessageId);
+            MessageDTO original = idempotencyCache.get(java.util.Objects.requireNonNull(memberId), clientMessageId);
+            if (original != null) {
+                return original;
+            }
+            if (messagePartitionRepository.isPartitioned()) {
+                // No unique index on a partitioned table: a racing retry waits here, then finds this post's row
+                messagePartitionRepository.lockClientMessage(memberId, clientMessageId);
+                Optional<MessageDTO> stored = findByClientMessageId(memberId, clientMessageId);
+                if (stored.isPresent()) {
+                    return stored.get();
+                }
+            }
+        }
+
+        // Validated against the routing cache; the entities themselves are only referenced, never loaded
+        RoutingCache.MemberRoute author = routingCache.member(java.util.Objects.requireNonNull(memberId));
+        if (!author.workspaceId().equals(workspaceId)) {
+            throw new IllegalArgumentException("Member is not in this workspace");
+        }
+        if (channelId != null && !author.workspaceId().equals(routingCache.channelWorkspaceId(channelId))) {
+            throw new IllegalArgumentException("Channel is not in the member's workspace");
+        }
+        if (conversationId != null && !author.workspaceId().equals(routingCache.conversationWorkspaceId(conversationId))) {
+            throw new IllegalArgumentException("Conversation is not in the member's workspace");
+        }
 
         Message message = new Message();
         message.setBody(java.util.Objects.requireNonNull(body));
         message.setImageId(imageId);
-        message.setMember(member);
-        message.setWorkspace(member.getWorkspace());
-
+        message.setClientMessageId(clientMessageId);
+        message.setMember(memberRepository.getReferenceById(memberId));
+        message.setWorkspace(workspaceRepository.getReferenceById(author.workspaceId()));
         if (channelId != null) {
-            Channel channel = channelRepository.findById(channelId)
-                .orElseThrow(() -> new EntityNotFoundException("Channel not found"));
-            message.setChannel(channel);
+            message.setChannel(channelRepository.getReferenceById(channelId));
         }
-
         if (conversationId != null) {
-            Conversation conversation = conversationRepository.findById(conversationId)
-                .orElseThrow(() -> new EntityNotFoundException("Conversation not found"));
-            message.setConversation(conversation);
+            message.setConversation(conversationRepository.getReferenceById(conversationId));
         }
-
+        // Probed rather than left to the foreign key: a partitioned table has none, and the key's violation would be a 409
         if (parentMessageId != null) {
-            Message parentMessage = messageRepository.findById(parentMessageId)
-                .orElseThrow(() -> new EntityNotFoundException("Parent message not found"));
-            message.setParentMessage(parentMessage);
+            if (!messageRepository.existsById(parentMessageId)) {
+                throw new EntityNotFoundException("Parent message not found");
+            }
+            message.setParentMessage(messageRepository.getReferenceById(parentMessageId));
         }
 
         message = messageRepository.save(message);
 
+        if (parentMessageId != null) {
+            messageRepository.recordThreadReply(parentMessageId, memberId, message.getCreatedAt());
+        } else if (channelId != null) {
+            channelRepository.adjustMessageCount(channelId, 1);
+        } else if (conversationId != null) {
+            conversationRepository.adjustMessageCount(conversationId, 1);
+        }
+
+        MessageDTO dto = MessageDTO.fromEntity(message, new MessageDTO.MemberSummaryDTO(
+            author.memberId(), author.role(),
+            new MessageDTO.UserSummaryDTO(author.userId(), author.userName(), author.userImage())));
+        recentMessageCache.messageCreated(dto);
+        if (clientMessageId != null) {
+            idempotencyCache.put(memberId, clientMessageId, dto);
+        }
+
         // Send WebSocket notification
         WebSocketEvent<MessageDTO> event = new WebSocketEvent<>();
         event.setType(WebSocketEvent.EventType.MESSAGE_SENT);
         event.setWorkspaceId(java.util.Objects.requireNonNull(workspaceId));
         event.setChannelId(channelId);
         event.setConversationId(conversationId);
-        event.setPayload(MessageDTO.fromEntity(message));
+        event.setPayload(dto);
 
         if (channelId != null) {
             webSocketService.sendToChannel(workspaceId, channelId, event);
@@ -88,6 +239,273 @@ public class MessageServiceImpl implements MessageService {
             webSocketService.sendToConversation(workspaceId, conversationId, event);
         }
 
+        return dto;
+    }
+
+    @Override
+    public boolean isIngestionEnabled() {
+        return messageIngestQueue.isEnabled();
+    }
+
+    /*
+     * No transaction and no database work before the wait: with open-in-view a request keeps the first
+     * connection it takes until it completes, and posters holding connections would starve the writer.
+     * Membership and workspace checks therefore happen in persistIngestedMessages.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public MessageDTO ingestMessage(String body, @Nullable String imageId, String workspaceId,
+                                    String memberId, @Nullable String channelId, @Nullable String conversationId,
+                                    @Nullable String parentMessageId, @Nullable String clientMessageId) {
+        if (channelId == null && conversationId == null) {
+            throw new IllegalArgumentException("A message needs a channel or a conversation");
+        }
+        if (clientMessageId != null) {
+            checkClientMessageId(clientMessageId);
+            MessageDTO original = idempotencyCache.get(java.util.Objects.requireNonNull(memberId), clientMessageId);
+            if (original != null) {
+                return original;
+            }
+        }
+        MessageIngestQueue.IngestedMessage accepted = messageIngestQueue.submit(
+            java.util.Objects.requireNonNull(body), imageId, java.util.Objects.requireNonNull(workspaceId),
+            java.util.Objects.requireNonNull(memberId), channelId, conversationId, parentMessageId, clientMessageId);
+
+        MessageDTO dto;
+        try {
+            dto = accepted.written().get(ingestWriteTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            // A concurrent retry with the same key was written first; the unique index turned this copy away
+            if (clientMessageId != null && ex.getCause() instanceof DataIntegrityViolationException) {
+                Optional<MessageDTO> stored = findByClientMessageId(memberId, clientMessageId);
+                if (stored.isPresent()) {
+                    return stored.get();
+                }
+            }
+            throw ex.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            // Still queued and may yet be written: a retry with the same idempotency key finds it instead of posting twice
+            throw new RejectedExecutionException("Message was not written in time, retry shortly");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for the message to be written", ex);
+        }
+        // Remembered only now that the row exists, so retries never get a message that was not stored
+        if (clientMessageId != null) {
+            idempotencyCache.put(memberId, clientMessageId, dto);
+        }
+        return dto;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<MessageDTO> findByClientMessageId(String memberId, String clientMessageId) {
+        return messageRepository.findRowByClientMessageId(java.util.Objects.requireNonNull(memberId),
+                java.util.Objects.requireNonNull(clientMessageId))
+            .map(row -> {
+                MessageDTO dto = toDTOs(List.of(row)).get(0);
+                idempotencyCache.put(memberId, clientMessageId, dto);
+                return dto;
+            });
+    }
+
+    private static void checkClientMessageId(String clientMessageId) {
+        if (clientMessageId.isBlank() || clientMessageId.length() > 100) {
+            throw new IllegalArgumentException("Idempotency key must be 1 to 100 characters");
+        }
+    }
+
+    @Override
+    public List<MessageDTO> persistIngestedMessages(List<MessageIngestQueue.IngestedMessage> accepted) {
+        // One lookup per referenced table for the whole batch
+        Map<String, Member> members = memberRepository.findAllById(accepted.stream()
+                .map(MessageIngestQueue.IngestedMessage::memberId).collect(Collectors.toSet()))
+            .stream().collect(Collectors.toMap(Member::getId, Function.identity()));
+        Map<String, Channel> channels = channelRepository.findAllById(accepted.stream()
+                .map(MessageIngestQueue.IngestedMessage::channelId).filter(java.util.Objects::nonNull).collect(Collectors.toSet()))
+            .stream().collect(Collectors.toMap(Channel::getId, Function.identity()));
+        Map<String, Conversation> conversations = conversationRepository.findAllById(accepted.stream()
+                .map(MessageIngestQueue.IngestedMessage::conversationId).filter(java.util.Objects::nonNull).collect(Collectors.toSet()))
+            .stream().collect(Collectors.toMap(Conversation::getId, Function.identity()));
+        Map<String, Message> parents = messageRepository.findAllById(accepted.stream()
+                .map(MessageIngestQueue.IngestedMessage::parentMessageId).filter(java.util.Objects::nonNull).collect(Collectors.toSet()))
+            .stream().collect(Collectors.toMap(Message::getId, Function.identity()));
+        Map<String, MessageDTO> stored = storedClientMessages(accepted);
+
+        List<Message> messages = new ArrayList<>(accepted.size());
+        // Per accepted message: its new row, or the id of the row that already answers its idempotency key
+        List<Message> newRows = new ArrayList<>(accepted.size());
+        List<String> answeredBy = new ArrayList<>(accepted.size());
+        Map<String, String> keysInBatch = new HashMap<>();
+        for (MessageIngestQueue.IngestedMessage ingested : accepted) {
+            String key = ingested.clientMessageId() != null ? ingested.memberId() + "/" + ingested.clientMessageId() : null;
+            String original = key == null ? null
+                : stored.containsKey(key) ? stored.get(key).getId() : keysInBatch.get(key);
+            if (original != null) {
+                newRows.add(null);
+                answeredBy.add(original);
+                continue;
+            }
+            Message message;
+            try {
+                message = toIngestedMessage(ingested, members, channels, conversations, parents);
+            } catch (RuntimeException ex) {
+                // Only this message fails; the rest of the batch, its own timeline included, is still written
+                ingested.written().completeExceptionally(ex);
+                newRows.add(null);
+                answeredBy.add(null);
+                continue;
+            }
+            messages.add(message);
+            newRows.add(message);
+            answeredBy.add(null);
+            // A reply or a retry later in the same batch can point at this message
+            parents.put(ingested.id(), message);
+            if (key != null) {
+                keysInBatch.put(key, ingested.id());
+            }
+        }
+
+        // Inserts go out in JDBC batches (hibernate.jdbc.batch_size); counters take one UPDATE per timeline.
+        // Flushed before any cache or subscriber hears of the messages, so a rejected insert fails the batch first
+        messageRepository.saveAll(messages);
+        messageRepository.flush();
+        Map<String, Integer> channelCounts = new HashMap<>();
+        Map<String, Integer> conversationCounts = new HashMap<>();
+        for (Message message : messages) {
+            if (message.getParentMessage() != null) {
+                messageRepository.recordThreadReply(message.getParentMessage().getId(), message.getMember().getId(), message.getCreatedAt());
+            } else if (message.getChannel() != null) {
+                channelCounts.merge(message.getChannel().getId(), 1, Integer::sum);
+            } else if (message.getConversation() != null) {
+                conversationCounts.merge(message.getConversation().getId(), 1, Integer::sum);
+            }
+        }
+        channelCounts.forEach(channelRepository::adjustMessageCount);
+        conversationCounts.forEach(conversationRepository::adjustMessageCount);
+
+        Map<String, MessageDTO> byId = new HashMap<>();
+        stored.values().forEach(dto -> byId.put(dto.getId(), dto));
+        for (Message message : messages) {
+            MessageDTO dto = MessageDTO.fromEntity(message);
+            byId.put(dto.getId(), dto);
+            recentMessageCache.messageCreated(dto);
+
+            WebSocketEvent<MessageDTO> event = new WebSocketEvent<>();
+            event.setType(WebSocketEvent.EventType.MESSAGE_SENT);
+            event.setWorkspaceId(dto.getWorkspaceId());
+            event.setChannelId(dto.getChannelId());
+            event.setConversationId(dto.getConversationId());
+            event.setPayload(dto);
+
+            if (dto.getChannelId() != null) {
+                webSocketService.sendToChannel(dto.getWorkspaceId(), dto.getChannelId(), event);
+            } else if (dto.getConversationId() != null) {
+                webSocketService.sendToConversation(dto.getWorkspaceId(), dto.getConversationId(), event);
+            }
+        }
+
+        List<MessageDTO> written = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            Message row = newRows.get(i);
+            String original = answeredBy.get(i);
+            written.add(row != null ? byId.get(row.getId()) : original != null ? byId.get(original) : null);
+        }
+        return written;
+    }
+
+    /**
+     * Rows already stored under the batch's idempotency keys, keyed by member and key. On a partitioned table,
+     * which has no unique index to turn a second copy away, each key is locked first (in a fixed order, so two
+     * writers cannot deadlock); a concurrent createMessage with the same key then waits for this batch.
+     */
+    private Map<String, MessageDTO> storedClientMessages(List<MessageIngestQueue.IngestedMessage> accepted) {
+        List<MessageIngestQueue.IngestedMessage> keyed = accepted.stream()
+            .filter(ingested -> ingested.clientMessageId() != null)
+            .toList();
+        if (keyed.isEmpty()) {
+            return Map.of();
+        }
+        if (messagePartitionRepository.isPartitioned()) {
+            keyed.stream()
+                .map(ingested -> List.of(ingested.memberId(), ingested.clientMessageId()))
+                .distinct()
+                .sorted(Comparator.comparing((List<String> pair) -> pair.get(0)).thenComparing(pair -> pair.get(1)))
+                .forEach(pair -> messagePartitionRepository.lockClientMessage(pair.get(0), pair.get(1)));
+        }
+        Set<String> wanted = keyed.stream()
+            .map(ingested -> ingested.memberId() + "/" + ingested.clientMessageId())
+            .collect(Collectors.toSet());
+        Map<String, String> keyById = new HashMap<>();
+        for (ClientMessageRow row : messageRepository.findClientMessages(
+                keyed.stream().map(MessageIngestQueue.IngestedMessage::memberId).collect(Collectors.toSet()),
+                keyed.stream().map(MessageIngestQueue.IngestedMessage::clientMessageId).collect(Collectors.toSet()))) {
+            String key = row.memberId() + "/" + row.clientMessageId();
+            if (wanted.contains(key)) {
+                keyById.put(row.id(), key);
+            }
+        }
+        if (keyById.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, MessageDTO> stored = new HashMap<>();
+        for (MessageDTO dto : toDTOs(messageRepository.findRowsByIds(keyById.keySet()))) {
+            stored.put(keyById.get(dto.getId()), dto);
+        }
+        return stored;
+    }
+
+    // Same checks as createMessage, against the entities loaded for the batch
+    private static Message toIngestedMessage(MessageIngestQueue.IngestedMessage ingested, Map<String, Member> members,
+                                             Map<String, Channel> channels, Map<String, Conversation> conversations,
+                                             Map<String, Message> parents) {
+        Member member = members.get(ingested.memberId());
+        if (member == null) {
+            throw new EntityNotFoundException("Member not found");
+        }
+        String workspaceId = member.getWorkspace().getId();
+        if (!workspaceId.equals(ingested.workspaceId())) {
+            throw new IllegalArgumentException("Member is not in this workspace");
+        }
+        Channel channel = null;
+        if (ingested.channelId() != null) {
+            channel = channels.get(ingested.channelId());
+            if (channel == null) {
+                throw new EntityNotFoundException("Channel not found");
+            }
+            if (!workspaceId.equals(channel.getWorkspace().getId())) {
+                throw new IllegalArgumentException("Channel is not in the member's workspace");
+            }
+        }
+        Conversation conversation = null;
+        if (ingested.conversationId() != null) {
+            conversation = conversations.get(ingested.conversationId());
+            if (conversation == null) {
+                throw new EntityNotFoundException("Conversation not found");
+            }
+            if (!workspaceId.equals(conversation.getWorkspace().getId())) {
+                throw new IllegalArgumentException("Conversation is not in the member's workspace");
+            }
+        }
+        Message parent = null;
+        if (ingested.parentMessageId() != null) {
+            parent = parents.get(ingested.parentMessageId());
+            if (parent == null) {
+                throw new EntityNotFoundException("Parent message not found");
+            }
+        }
+
+        Message message = new Message();
+        message.setPresetId(ingested.id());
+        message.setCreatedAt(ingested.createdAt());
+        message.setBody(ingested.body());
+        message.setImageId(ingested.imageId());
+        message.setClientMessageId(ingested.clientMessageId());
+        message.setMember(member);
+        message.setWorkspace(member.getWorkspace());
+        message.setChannel(channel);
+        message.setConversation(conversation);
+        message.setParentMessage(parent);
         return message;
     }
 
@@ -100,13 +518,16 @@ public class MessageServiceImpl implements MessageService {
         message.setUpdatedAt(System.currentTimeMillis());
         message = messageRepository.save(message);
 
+        MessageDTO dto = MessageDTO.fromEntity(message);
+        recentMessageCache.messageUpdated(dto);
+
         // Send WebSocket notification
         WebSocketEvent<MessageDTO> event = new WebSocketEvent<>();
         event.setType(WebSocketEvent.EventType.MESSAGE_UPDATED);
         event.setWorkspaceId(message.getWorkspace().getId());
         event.setChannelId(message.getChannel() != null ? message.getChannel().getId() : null);
         event.setConversationId(message.getConversation() != null ? message.getConversation().getId() : null);
-        event.setPayload(MessageDTO.fromEntity(message));
+        event.setPayload(dto);
 
         if (message.getChannel() != null) {
             webSocketService.sendToChannel(message.getWorkspace().getId(), message.getChannel().getId(), event);
@@ -126,8 +547,39 @@ public class MessageServiceImpl implements MessageService {
     @Override
     public void deleteMessage(String messageId) {
         Message message = getMessageById(java.util.Objects.requireNonNull(messageId));
+        // Replies would be orphaned; the foreign key used to refuse this, and a partitioned table has none
+        if (message.getParentMessage() == null && message.getReplyCount() > 0) {
+            throw new DataIntegrityViolationException("Message has replies");
+        }
         messageRepository.delete(java.util.Objects.requireNonNull(message));
 
+        long deletedAt = System.currentTimeMillis();
+        String parentMessageId = message.getParentMessage() != null ? message.getParentMessage().getId() : null;
+        if (parentMessageId != null) {
+            messageRepository.recomputeThreadCounters(parentMessageId, deletedAt);
+        } else if (message.getChannel() != null) {
+            channelRepository.adjustMessageCount(message.getChannel().getId(), -1);
+            readMarkerRepository.recordChannelMessageDeleted(message.getChannel().getId(), message.getCreatedAt(), messageId);
+        } else if (message.getConversation() != null) {
+            conversationRepository.adjustMessageCount(message.getConversation().getId(), -1);
+            readMarkerRepository.recordConversationMessageDeleted(message.getConversation().getId(), message.getCreatedAt(), messageId);
+        }
+
+        messageTombstoneRepository.save(new MessageTombstone(
+            messageId,
+            message.getWorkspace().getId(),
+            message.getChannel() != null ? message.getChannel().getId() : null,
+            message.getConversation() != null ? message.getConversation().getId() : null,
+            parentMessageId,
+            deletedAt));
+
+        String cacheKey = RecentMessageCache.keyOf(
+            message.getChannel() != null ? message.getChannel().getId() : null,
+            message.getConversation() != null ? message.getConversation().getId() : null);
+        if (cacheKey != null) {
+            recentMessageCache.messageDeleted(cacheKey, messageId, parentMessageId);
+        }
+
         // Send WebSocket notification
         WebSocketEvent<String> event = new WebSocketEvent<>();
         event.setType(WebSocketEvent.EventType.MESSAGE_DELETED);
@@ -144,35 +596,549 @@ public class MessageServiceImpl implements MessageService {
     }
 
     @Override
-    public Page<Message> getChannelMessages(String channelId, Pageable pageable) {
-        return messageRepository.findByChannelIdAndParentMessageIsNullOrderByCreatedAtDesc(java.util.Objects.requireNonNull(channelId), pageable);
+    @Transactional(readOnly = true)
+    public Page<MessageDTO> getChannelMessages(String channelId, Pageable pageable) {
+        java.util.Objects.requireNonNull(channelId);
+        if (pageable.getPageNumber() == 0 && pageable.getPageSize() <= recentMessageCache.capacity()) {
+            RecentMessageCache.Window window = recentMessageCache.getLatest(
+                RecentMessageCache.channelKey(channelId), pageable.getPageSize(), () -> toWindow(
+                    messageRepository.findChannelPage(channelId, latestWindow())));
+            long total = window.total() >= 0 ? window.total() : messageRepository.countByChannelIdAndParentMessageIsNull(channelId);
+            return forViewer(new PageImpl<>(window.messages(), pageable, total));
+        }
+        return forViewer(toDTOs(messageRepository.findChannelPage(channelId, pageable)));
     }
 
     @Override
-    public Page<Message> getConversationMessages(String conversationId, Pageable pageable) {
-        return messageRepository.findByConversationIdAndParentMessageIsNullOrderByCreatedAtDesc(java.util.Objects.requireNonNull(conversationId), pageable);
+    @Transactional(readOnly = true)
+    public Page<MessageDTO> getConversationMessages(String conversationId, Pageable pageable) {
+        java.util.Objects.requireNonNull(conversationId);
+        if (pageable.getPageNumber() == 0 && pageable.getPageSize() <= recentMessageCache.capacity()) {
+            RecentMessageCache.Window window = recentMessageCache.getLatest(
+                RecentMessageCache.conversationKey(conversationId), pageable.getPageSize(), () -> toWindow(
+                    messageRepository.findConversationPage(conversationId, latestWindow())));
+            long total = window.total() >= 0 ? window.total() : messageRepository.countByConversationIdAndParentMessageIsNull(conversationId);
+            return forViewer(new PageImpl<>(window.messages(), pageable, total));
+        }
+        return forViewer(toDTOs(messageRepository.findConversationPage(conversationId, pageable)));
     }
 
     @Override
-    public List<Message> getThreadMessages(String parentMessageId) {
-        return messageRepository.findByParentMessageId(java.util.Objects.requireNonNull(parentMessageId));
+    @Transactional(readOnly = true)
+    public Slice<MessageDTO> getChannelMessages(String channelId, @Nullable MessageCursor before,
+                                                @Nullable MessageCursor after, int limit) {
+        java.util.Objects.requireNonNull(channelId);
+        Pageable pageable = PageRequest.of(0, limit);
+        if (after != null) {
+            return forViewer(newestFirst(withArchivedAfter(channelId,
+                toDTOs(messageRepository.findChannelAfter(channelId, after.createdAt(), after.id(), pageable)), after, limit)));
+        }
+        if (before != null) {
+            return forViewer(withArchivedBefore(channelId,
+                toDTOs(messageRepository.findChannelBefore(channelId, before.createdAt(), before.id(), pageable)), before, limit));
+        }
+        if (limit <= recentMessageCache.capacity()) {
+            return forViewer(withArchivedBefore(channelId, toSlice(recentMessageCache.getLatest(RecentMessageCache.channelKey(channelId), limit,
+                () -> toWindow(channelLatest(channelId, latestWindow()))), pageable), null, limit));
+        }
+        return forViewer(withArchivedBefore(channelId, toDTOs(channelLatest(channelId, pageable)), null, limit));
     }
 
     @Override
-    public MessageDTO enrichWithThreadInfo(MessageDTO dto) {
-        if (dto == null || dto.getId() == null) return dto;
-        long threadCount = messageRepository.countByParentMessageId(dto.getId());
-        if (threadCount > 0) {
-            dto.setThreadCount((int) threadCount);
-            messageRepository.findLatestReplyByParentMessageId(dto.getId()).ifPresent(latestReply -> {
-                if (latestReply.getMember() != null && latestReply.getMember().getUser() != null) {
-                    dto.setThreadImage(latestReply.getMember().getUser().getImageUrl());
-                    dto.setThreadName(latestReply.getMember().getUser().getName());
+    @Transactional(readOnly = true)
+    public Slice<MessageDTO> getConversationMessages(String conversationId, @Nullable MessageCursor before,
+                                                     @Nullable MessageCursor after, int limit) {
+        java.util.Objects.requireNonNull(conversationId);
+        Pageable pageable = PageRequest.of(0, limit);
+        if (after != null) {
+            return forViewer(newestFirst(withArchivedAfter(conversationId,
+                toDTOs(messageRepository.findConversationAfter(conversationId, after.createdAt(), after.id(), pageable)), after, limit)));
+        }
+        if (before != null) {
+            return forViewer(withArchivedBefore(conversationId,
+                toDTOs(messageRepository.findConversationBefore(conversationId, before.createdAt(), before.id(), pageable)), before, limit));
+        }
+        if (limit <= recentMessageCache.capacity()) {
+            return forViewer(withArchivedBefore(conversationId, toSlice(recentMessageCache.getLatest(RecentMessageCache.conversationKey(conversationId), limit,
+                () -> toWindow(conversationLatest(conversationId, latestWindow()))), pageable), null, limit));
+        }
+        return forViewer(withArchivedBefore(conversationId, toDTOs(conversationLatest(conversationId, pageable)), null, limit));
+    }
+
+    /** Map projected rows to DTOs, loading reactions for the whole slice in one query. */
+    private Slice<MessageDTO> toDTOs(Slice<MessageRow> slice) {
+        return slice.map(toDTOMapper(slice.getContent()));
+    }
+
+    private Page<MessageDTO> toDTOs(Page<MessageRow> page) {
+        return page.map(toDTOMapper(page.getContent()));
+    }
+
+    private List<MessageDTO> toDTOs(List<MessageRow> rows) {
+        return rows.stream().map(toDTOMapper(rows)).collect(Collectors.toList());
+    }
+
+    private Function<MessageRow, MessageDTO> toDTOMapper(List<MessageRow> rows) {
+        return toDTOMapper(rows, ReactionSummaryDTO.REACTOR_SAMPLE_SIZE);
+    }
+
+    /**
+     * Reaction groups are viewer-independent so the DTOs can be cached and shared;
+     * reactedByMe is filled in on the way out by forViewer().
+     */
+    private Function<MessageRow, MessageDTO> toDTOMapper(List<MessageRow> rows, int reactorSampleSize) {
+        Map<String, List<ReactionSampleRow>> samples = new HashMap<>();
+        if (!rows.isEmpty()) {
+            List<String> ids = rows.stream().map(MessageRow::id).collect(Collectors.toList());
+            for (ReactionSampleRow sample : reactionRepository.findReactionSamples(ids, reactorSampleSize)) {
+                samples.computeIfAbsent(sample.messageId(), id -> new ArrayList<>()).add(sample);
+            }
+        }
+        return row -> MessageDTO.fromRow(row, ReactionSummaryDTO.fromRows(samples.getOrDefault(row.id(), List.of())));
+    }
+
+    private Slice<MessageDTO> forViewer(Slice<MessageDTO> slice) {
+        return new SliceImpl<>(forViewer(slice.getContent()), slice.getPageable(), slice.hasNext());
+    }
+
+    private Page<MessageDTO> forViewer(Page<MessageDTO> page) {
+        return new PageImpl<>(forViewer(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    /** Flag the current user's reaction groups, copying rather than touching DTOs that may be cached. */
+    private List<MessageDTO> forViewer(List<MessageDTO> messages) {
+        String userId = currentUserId();
+        List<String> reacted = messages.stream()
+            .filter(m -> m.getReactions() != null && !m.getReactions().isEmpty())
+            .map(MessageDTO::getId)
+            .collect(Collectors.toList());
+        if (userId == null || reacted.isEmpty()) {
+            return messages;
+        }
+
+        Map<String, Set<String>> mine = new HashMap<>();
+        for (ViewerReactionRow reaction : reactionRepository.findViewerReactions(reacted, userId)) {
+            mine.computeIfAbsent(reaction.messageId(), id -> new HashSet<>()).add(reaction.value());
+        }
+        if (mine.isEmpty()) {
+            return messages;
+        }
+        return messages.stream().map(message -> {
+            Set<String> values = mine.get(message.getId());
+            if (values == null) return message;
+            MessageDTO copy = MessageDTO.copyOf(message);
+            copy.setReactions(message.getReactions().stream()
+                .map(group -> values.contains(group.getValue()) ? group.withReactedByMe(true) : group)
+                .collect(Collectors.toList()));
+            return copy;
+        }).collect(Collectors.toList());
+    }
+
+    private static @Nullable String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof User user ? user.getId() : null;
+    }
+
+    private Pageable latestWindow() {
+        return PageRequest.of(0, recentMessageCache.capacity());
+    }
+
+    // A page query knows the total; a slice only knows it when it reached the end of the timeline
+    private RecentMessageCache.Window toWindow(Slice<MessageRow> slice) {
+        Slice<MessageDTO> dtos = toDTOs(slice);
+        long total = slice instanceof Page<MessageRow> page ? page.getTotalElements()
+            : slice.hasNext() ? -1 : slice.getNumberOfElements();
+        return new RecentMessageCache.Window(dtos.getContent(), total);
+    }
+
+    private Slice<MessageDTO> toSlice(RecentMessageCache.Window window, Pageable pageable) {
+        boolean hasNext = window.total() < 0 || window.total() > window.messages().size();
+        return new SliceImpl<>(window.messages(), pageable, hasNext);
+    }
+
+    // A busy timeline fills its newest page from the last two monthly partitions; a quiet one reads them all
+    private Slice<MessageRow> channelLatest(String channelId, Pageable pageable) {
+        if (messagePartitionRepository.isPartitioned()) {
+            Slice<MessageRow> recent = messageRepository.findChannelLatestSince(channelId, recentPartitionsStart(), pageable);
+            if (recent.hasNext()) return recent;
+        }
+        return messageRepository.findChannelLatest(channelId, pageable);
+    }
+
+    private Slice<MessageRow> conversationLatest(String conversationId, Pageable pageable) {
+        if (messagePartitionRepository.isPartitioned()) {
+            Slice<MessageRow> recent = messageRepository.findConversationLatestSince(conversationId, recentPartitionsStart(), pageable);
+            if (recent.hasNext()) return recent;
+        }
+        return messageRepository.findConversationLatest(conversationId, pageable);
+    }
+
+    private static long recentPartitionsStart() {
+        return MessagePartitionRepository.monthStart(YearMonth.now(ZoneOffset.UTC).minusMonths(1));
+    }
+
+    // Replies are newer than their parent, whose time-ordered id gives a lower bound; a day of slack covers clock skew
+    private static long threadSince(String parentMessageId) {
+        Long parentTime = TimeOrderedIds.timestampOf(parentMessageId);
+        return parentTime != null ? parentTime - TimeUnit.DAYS.toMillis(1) : 0L;
+    }
+
+    /**
+     * Continue a newest-first page of database rows into the archive. A full page that ends after everything
+     * archived is returned as is, so reads inside the hot window never open a segment.
+     */
+    private Slice<MessageDTO> withArchivedBefore(String timelineId, Slice<MessageDTO> hot, @Nullable MessageCursor before, int limit) {
+        Long archivedNewest = messageArchiveRepository.newestCreatedAt(timelineId);
+        List<MessageDTO> content = hot.getContent();
+        if (archivedNewest == null || (hot.hasNext() && content.get(content.size() - 1).getCreatedAt() > archivedNewest)) {
+            return hot;
+        }
+        List<MessageDTO> cold = messageArchiveRepository.findBefore(timelineId,
+            before != null ? before.createdAt() : null, before != null ? before.id() : null, limit + 1);
+        List<MessageDTO> merged = mergeTiers(content, cold, ARCHIVE_ORDER.reversed());
+        return new SliceImpl<>(merged.subList(0, Math.min(limit, merged.size())), hot.getPageable(),
+            hot.hasNext() || merged.size() > limit);
+    }
+
+    /** Same for an oldest-first "after" page, before it is flipped. */
+    private Slice<MessageDTO> withArchivedAfter(String timelineId, Slice<MessageDTO> hot, MessageCursor after, int limit) {
+        Long archivedNewest = messageArchiveRepository.newestCreatedAt(timelineId);
+        if (archivedNewest == null || archivedNewest < after.createdAt()) {
+            return hot;
+        }
+        List<MessageDTO> cold = messageArchiveRepository.findAfter(timelineId, after.createdAt(), after.id(), limit + 1);
+        List<MessageDTO> merged = mergeTiers(hot.getContent(), cold, ARCHIVE_ORDER);
+        return new SliceImpl<>(merged.subList(0, Math.min(limit, merged.size())), hot.getPageable(),
+            hot.hasNext() || merged.size() > limit);
+    }
+
+    // A message in both tiers is a move still in flight; the database copy wins
+    private static List<MessageDTO> mergeTiers(List<MessageDTO> hot, List<MessageDTO> cold, Comparator<MessageDTO> order) {
+        Map<String, MessageDTO> byId = new LinkedHashMap<>();
+        hot.forEach(message -> byId.put(message.getId(), message));
+        cold.forEach(message -> byId.putIfAbsent(message.getId(), withReactorSample(message)));
+        return byId.values().stream().sorted(order).collect(Collectors.toList());
+    }
+
+    // Archived messages keep every reactor, for exports; timelines show the usual sample
+    private static MessageDTO withReactorSample(MessageDTO archived) {
+        MessageDTO copy = MessageDTO.copyOf(archived);
+        copy.setReactions(copy.getReactions().stream()
+            .map(group -> new ReactionSummaryDTO(group.getValue(), group.getCount(), false,
+                group.getReactors().subList(0, Math.min(ReactionSummaryDTO.REACTOR_SAMPLE_SIZE, group.getReactors().size()))))
+            .collect(Collectors.toList()));
+        return copy;
+    }
+
+    /** "after" queries scan forward in time; flip them so every slice is returned newest first. */
+    private Slice<MessageDTO> newestFirst(Slice<MessageDTO> ascending) {
+        List<MessageDTO> content = new ArrayList<>(ascending.getContent());
+        Collections.reverse(content);
+        return new SliceImpl<>(content, ascending.getPageable(), ascending.hasNext());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MessageDTO> getThreadMessages(String parentMessageId) {
+        List<MessageDTO> replies = toDTOs(messageRepository.findThreadRows(java.util.Objects.requireNonNull(parentMessageId),
+            threadSince(parentMessageId)));
+        // Threads are archived whole, so a thread with no replies in the database may have all of them in the archive
+        if (replies.isEmpty()) {
+            replies = archivedReplies(parentMessageId);
+        }
+        return forViewer(replies);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<MessageDTO> getThreadMessages(String parentMessageId, @Nullable MessageCursor cursor,
+                                               boolean newestFirst, int limit) {
+        java.util.Objects.requireNonNull(parentMessageId);
+        Pageable pageable = PageRequest.of(0, limit);
+        Slice<MessageDTO> page;
+        if (newestFirst) {
+            page = toDTOs(cursor == null
+                ? messageRepository.findThreadLatest(parentMessageId, threadSince(parentMessageId), pageable)
+                : messageRepository.findThreadBefore(parentMessageId, cursor.createdAt(), cursor.id(), pageable));
+        } else {
+            page = toDTOs(cursor == null
+                ? messageRepository.findThreadFirst(parentMessageId, threadSince(parentMessageId), pageable)
+                : messageRepository.findThreadAfter(parentMessageId, cursor.createdAt(), cursor.id(), pageable));
+        }
+        if (page.hasContent()) {
+            return forViewer(page);
+        }
+
+        // An archived thread is small enough to page in memory
+        Comparator<MessageDTO> order = newestFirst ? ARCHIVE_ORDER.reversed() : ARCHIVE_ORDER;
+        List<MessageDTO> replies = archivedReplies(parentMessageId).stream()
+            .filter(reply -> cursor == null || order.compare(reply, positionOf(cursor)) > 0)
+            .sorted(order)
+            .collect(Collectors.toList());
+        return forViewer(new SliceImpl<>(replies.subList(0, Math.min(limit, replies.size())), pageable, replies.size() > limit));
+    }
+
+    private List<MessageDTO> archivedReplies(String parentMessageId) {
+        List<MessageDTO> thread = messageArchiveRepository.findThread(parentMessageId);
+        return thread.stream().skip(1).map(MessageServiceImpl::withReactorSample).collect(Collectors.toList());
+    }
+
+    private static MessageDTO positionOf(MessageCursor cursor) {
+        MessageDTO position = new MessageDTO();
+        position.setCreatedAt(cursor.createdAt());
+        position.setId(cursor.id());
+        return position;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MessageDTO getMessageDTO(String messageId) {
+        Optional<MessageRow> row = messageRepository.findRowById(java.util.Objects.requireNonNull(messageId));
+        if (row.isPresent()) {
+            return forViewer(toDTOs(List.of(row.get()))).get(0);
+        }
+        return findArchived(messageId).orElseThrow(() -> new EntityNotFoundException("Message not found"));
+    }
+
+    // Archived thread parents stay reachable, so an old thread can still be opened by id
+    private Optional<MessageDTO> findArchived(String messageId) {
+        return messageArchiveRepository.findThread(messageId).stream().findFirst()
+            .map(MessageServiceImpl::withReactorSample);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MessageBatchDTO getMessagesByIds(List<String> messageIds) {
+        LinkedHashSet<String> ids = new LinkedHashSet<>(java.util.Objects.requireNonNull(messageIds));
+        ids.remove(null);
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_IDS + " message ids can be fetched at once");
+        }
+        if (ids.isEmpty()) {
+            return new MessageBatchDTO(List.of(), List.of());
+        }
+
+        Map<String, MessageDTO> found = new HashMap<>();
+        for (MessageDTO message : forViewer(toDTOs(messageRepository.findRowsByIds(ids)))) {
+            found.put(message.getId(), message);
+        }
+
+        List<MessageDTO> messages = new ArrayList<>(ids.size());
+        List<String> missingIds = new ArrayList<>();
+        for (String id : ids) {
+            MessageDTO message = found.get(id);
+            if (message == null) {
+                message = findArchived(id).orElse(null);
+            }
+            if (message != null) {
+                messages.add(message);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new MessageBatchDTO(messages, missingIds);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<MessageSearchResultDTO> searchMessages(String workspaceId, String query, @Nullable String channelId,
+                                                        @Nullable String conversationId, @Nullable String memberId,
+                                                        @Nullable MessageSearchCursor after, int limit) {
+        java.util.Objects.requireNonNull(workspaceId);
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        // DM hits are limited to the caller's own DMs, so the caller has to be a member of the workspace
+        String userId = currentUserId();
+        Member viewer = userId == null ? null : memberRepository.findByWorkspaceIdAndUserId(workspaceId, userId).orElse(null);
+        if (viewer == null) {
+            throw new EntityNotFoundException("You are not a member of this workspace");
+        }
+        List<MessageSearchHit> hits = messageSearchRepository.search(
+            workspaceId, viewer.getId(), query.strip(), channelId, conversationId, memberId, after, limit + 1);
+        boolean hasNext = hits.size() > limit;
+        if (hasNext) {
+            hits = hits.subList(0, limit);
+        }
+
+        // Hits carry ids and ranking only; the messages themselves come from the usual projection
+        List<MessageRow> rows = hits.isEmpty() ? List.of()
+            : messageRepository.findRowsByIds(hits.stream().map(MessageSearchHit::id).collect(Collectors.toList()));
+        Map<String, MessageDTO> messages = new HashMap<>();
+        for (MessageDTO message : forViewer(toDTOs(rows))) {
+            messages.put(message.getId(), message);
+        }
+
+        List<MessageSearchResultDTO> results = new ArrayList<>(hits.size());
+        for (MessageSearchHit hit : hits) {
+            MessageDTO message = messages.get(hit.id());
+            // Archived since the search ran
+            if (message == null) {
+                message = findArchived(hit.id()).orElse(null);
+            }
+            if (message != null) {
+                results.add(new MessageSearchResultDTO(message, hit.highlight(), hit.rank()));
+            }
+        }
+        return new SliceImpl<>(results, PageRequest.of(0, limit), hasNext);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MessageChangesDTO getChannelChanges(String channelId, @Nullable MessageChangeCursor since, int limit) {
+        java.util.Objects.requireNonNull(channelId);
+        return changesSince(since, limit,
+            (from, page) -> messageRepository.findChannelChanges(channelId, from, page),
+            (from, page) -> messageTombstoneRepository.findByChannelIdAndDeletedAtGreaterThanOrderByDeletedAtAsc(channelId, from, page));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public MessageChangesDTO getConversationChanges(String conversationId, @Nullable MessageChangeCursor since, int limit) {
+        java.util.Objects.requireNonNull(conversationId);
+        return changesSince(since, limit,
+            (from, page) -> messageRepository.findConversationChanges(conversationId, from, page),
+            (from, page) -> messageTombstoneRepository.findByConversationIdAndDeletedAtGreaterThanOrderByDeletedAtAsc(conversationId, from, page));
+    }
+
+    private MessageChangesDTO changesSince(@Nullable MessageChangeCursor since, int limit,
+                                           BiFunction<Long, Pageable, List<MessageRow>> changed,
+                                           BiFunction<Long, Pageable, List<MessageTombstone>> deleted) {
+        // Taken before reading, so anything committed while this runs is picked up next time
+        long now = System.currentTimeMillis();
+        String nextCursor = new MessageChangeCursor(now).encode();
+        if (since == null) {
+            return new MessageChangesDTO(List.of(), List.of(), nextCursor, false);
+        }
+        if (since.since() < now - TimeUnit.DAYS.toMillis(tombstoneRetentionDays)) {
+            return new MessageChangesDTO(List.of(), List.of(), nextCursor, true);
+        }
+
+        long from = since.since() - SYNC_OVERLAP_MS;
+        Pageable page = PageRequest.of(0, limit + 1);
+        List<MessageRow> rows = changed.apply(from, page);
+        List<MessageTombstone> tombstones = deleted.apply(from, page);
+        if (rows.size() > limit || tombstones.size() > limit) {
+            return new MessageChangesDTO(List.of(), List.of(), nextCursor, true);
+        }
+        return new MessageChangesDTO(
+            forViewer(toDTOs(rows)),
+            tombstones.stream().map(MessageChangesDTO.DeletedMessageDTO::fromEntity).collect(Collectors.toList()),
+            nextCursor,
+            false);
+    }
+
+    @Override
+    public int pruneTombstones() {
+        return messageTombstoneRepository.deleteOlderThan(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(tombstoneRetentionDays));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportChannelHistory(String channelId, OutputStream out) {
+        writeArchived(java.util.Objects.requireNonNull(channelId), out);
+        try (Stream<MessageRow> rows = messageRepository.streamChannelHistory(channelId)) {
+            writeNdjson(rows, out);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportConversationHistory(String conversationId, OutputStream out) {
+        writeArchived(java.util.Objects.requireNonNull(conversationId), out);
+        try (Stream<MessageRow> rows = messageRepository.streamConversationHistory(conversationId)) {
+            writeNdjson(rows, out);
+        }
+    }
+
+    // Archived history is older than the hot window, so it leads the export
+    private void writeArchived(String timelineId, OutputStream out) {
+        messageArchiveRepository.forEachBlock(timelineId, block -> {
+            try {
+                for (MessageDTO message : block) {
+                    out.write(objectMapper.writeValueAsBytes(message));
+                    out.write('\n');
                 }
-                dto.setThreadTimestamp(latestReply.getCreatedAt());
-            });
+                out.flush();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    // Projections never enter the persistence context, so only the current batch is held in memory
+    private void writeNdjson(Stream<MessageRow> rows, OutputStream out) {
+        List<MessageRow> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+        rows.forEachOrdered(row -> {
+            batch.add(row);
+            if (batch.size() == EXPORT_BATCH_SIZE) {
+                writeBatch(batch, out);
+                batch.clear();
+            }
+        });
+        writeBatch(batch, out);
+    }
+
+    private void writeBatch(List<MessageRow> batch, OutputStream out) {
+        if (batch.isEmpty()) return;
+        try {
+            // Exports keep every reactor, not just the sample shown in timelines
+            Function<MessageRow, MessageDTO> toDTO = toDTOMapper(batch, Integer.MAX_VALUE);
+            for (MessageRow row : batch) {
+                out.write(objectMapper.writeValueAsBytes(toDTO.apply(row)));
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
         }
-        return dto;
+    }
+
+    @Override
+    public int archiveExpiredMessages(String workspaceId, @Nullable String channelId, @Nullable String conversationId,
+                                      long cutoff, int limit) {
+        java.util.Objects.requireNonNull(workspaceId);
+        String timelineId = java.util.Objects.requireNonNull(channelId != null ? channelId : conversationId);
+        List<MessageRow> parents = channelId != null
+            ? messageRepository.findChannelArchivable(channelId, cutoff, PageRequest.of(0, limit))
+            : messageRepository.findConversationArchivable(timelineId, cutoff, PageRequest.of(0, limit));
+        if (parents.isEmpty()) return 0;
+
+        List<String> parentIds = parents.stream().map(MessageRow::id).collect(Collectors.toList());
+        List<MessageRow> replies = messageRepository.findReplyRows(parentIds);
+        List<MessageRow> rows = new ArrayList<>(parents);
+        rows.addAll(replies);
+        // Synced to disk before any row goes; if this transaction then fails, the next run archives the rows again
+        Function<MessageRow, MessageDTO> toDTO = toDTOMapper(rows, Integer.MAX_VALUE);
+        messageArchiveRepository.append(workspaceId, timelineId, rows.stream().map(toDTO).collect(Collectors.toList()));
+
+        List<String> replyIds = replies.stream().map(MessageRow::id).collect(Collectors.toList());
+        List<String> allIds = new ArrayList<>(parentIds);
+        allIds.addAll(replyIds);
+        reactionRepository.deleteByMessageIdIn(allIds);
+        if (channelId != null) {
+            readMarkerRepository.recordChannelMessagesArchived(channelId, parentIds);
+            channelRepository.adjustMessageCount(channelId, -parents.size());
+        } else {
+            readMarkerRepository.recordConversationMessagesArchived(timelineId, parentIds);
+            conversationRepository.adjustMessageCount(timelineId, -parents.size());
+        }
+        if (!replyIds.isEmpty()) {
+            messageRepository.deleteByIdIn(replyIds);
+        }
+        messageRepository.deleteByIdIn(parentIds);
+        recentMessageCache.evict(java.util.Objects.requireNonNull(RecentMessageCache.keyOf(channelId, conversationId)));
+        return parents.size();
+    }
+
+    @Override
+    public int reconcileThreadCounters() {
+        return messageRepository.reconcileThreadCounters();
+    }
+
+    @Override
+    public int reconcileThreadCounters(String workspaceId) {
+        return messageRepository.reconcileThreadCountersByWorkspaceId(java.util.Objects.requireNonNull(workspaceId));
     }
 
     @Override
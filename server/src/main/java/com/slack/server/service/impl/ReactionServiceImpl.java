@@ -2,21 +2,30 @@ package com.slack.server.service.impl;
 
 import com.slack.server.model.Reaction;
 import com.slack.server.model.Message;
-import com.slack.server.model.Member;
+import com.slack.server.model.TimeOrderedIds;
 import com.slack.server.model.event.WebSocketEvent;
 import com.slack.server.dto.ReactionDTO;
+import com.slack.server.dto.ReactionDeltaDTO;
 import com.slack.server.repository.ReactionRepository;
+import com.slack.server.repository.ReactionWriteRepository;
 import com.slack.server.repository.MessageRepository;
-import com.slack.server.repository.MemberRepository;
+import com.slack.server.repository.projection.ReactionRouteRow;
 import com.slack.server.service.ReactionService;
+import com.slack.server.service.ReactionWriteBuffer;
+import com.slack.server.service.RecentMessageCache;
+import com.slack.server.service.RoutingCache;
 import com.slack.server.service.WebSocketService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.EntityNotFoundException;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -25,33 +34,54 @@ public class ReactionServiceImpl implements ReactionService {
     @Autowired
     private ReactionRepository reactionRepository;
 
+    @Autowired
+    private ReactionWriteRepository reactionWriteRepository;
+
     @Autowired
     private MessageRepository messageRepository;
 
     @Autowired
-    private MemberRepository memberRepository;
+    private RoutingCache routingCache;
 
     @Autowired
     private WebSocketService webSocketService;
 
+    @Autowired
+    private RecentMessageCache recentMessageCache;
+
+    @Autowired
+    private ReactionWriteBuffer reactionWriteBuffer;
+
     @Override
-    public Reaction addReaction(String messageId, String memberId, String value) {
-        Message message = messageRepository.findById(java.util.Objects.requireNonNull(messageId))
-            .orElseThrow(() -> new EntityNotFoundException("Message not found"));
+    public @Nullable Reaction addReaction(String messageId, String memberId, String value) {
+        java.util.Objects.requireNonNull(messageId);
+        java.util.Objects.requireNonNull(memberId);
+        java.util.Objects.requireNonNull(value);
+        if (reactionWriteBuffer.isEnabled()) {
+            requireSameWorkspace(messageId, memberId);
+            if (reactionWriteBuffer.add(messageId, memberId, value)) {
+                return null;
+            }
+            // Buffer full: write through
+        }
+
+        String reactionId = TimeOrderedIds.next();
+        if (reactionWriteRepository.insertIfAbsent(reactionId, messageId, memberId, value, System.currentTimeMillis()) == 0) {
+            // Already reacted (a double-click, say): nothing changed, so nothing to broadcast
+            return reactionRepository.findByMessageIdAndMemberIdAndValue(messageId, memberId, value)
+                .orElseThrow(() -> new EntityNotFoundException("Message or member not found"));
+        }
+        messageRepository.markChanged(messageId, System.currentTimeMillis());
 
-        Member member = memberRepository.findById(java.util.Objects.requireNonNull(memberId))
-            .orElseThrow(() -> new EntityNotFoundException("Member not found"));
+        Reaction reaction = reactionRepository.findWithMemberById(reactionId)
+            .orElseThrow(() -> new EntityNotFoundException("Reaction not found after insert"));
+        Message message = reaction.getMessage();
 
-        // Check if reaction already exists
-        Reaction reaction = reactionRepository.findByMessageIdAndMemberIdAndValue(messageId, memberId, java.util.Objects.requireNonNull(value))
-            .orElseGet(() -> {
-                Reaction newReaction = new Reaction();
-                newReaction.setMessage(message);
-                newReaction.setMember(member);
-                newReaction.setValue(value);
-                newReaction.setWorkspace(message.getWorkspace());
-                return reactionRepository.save(newReaction);
-            });
+        ReactionDTO dto = ReactionDTO.fromEntity(reaction);
+        String cacheKey = cacheKeyOf(message);
+        if (cacheKey != null) {
+            recentMessageCache.reactionAdded(cacheKey, dto);
+        }
 
         // Send WebSocket notification
         WebSocketEvent<ReactionDTO> event = new WebSocketEvent<>();
@@ -59,7 +89,7 @@ public class ReactionServiceImpl implements ReactionService {
         event.setWorkspaceId(message.getWorkspace().getId());
         event.setChannelId(message.getChannel() != null ? message.getChannel().getId() : null);
         event.setConversationId(message.getConversation() != null ? message.getConversation().getId() : null);
-        event.setPayload(ReactionDTO.fromEntity(reaction));
+        event.setPayload(dto);
 
         if (message.getChannel() != null) {
             webSocketService.sendToChannel(message.getWorkspace().getId(), message.getChannel().getId(), event);
@@ -72,23 +102,108 @@ public class ReactionServiceImpl implements ReactionService {
 
     @Override
     public void removeReaction(String messageId, String memberId, String value) {
-        Message message = messageRepository.findById(java.util.Objects.requireNonNull(messageId))
-            .orElseThrow(() -> new EntityNotFoundException("Message not found"));
+        java.util.Objects.requireNonNull(messageId);
+        java.util.Objects.requireNonNull(memberId);
+        java.util.Objects.requireNonNull(value);
+        if (reactionWriteBuffer.isEnabled()) {
+            requireSameWorkspace(messageId, memberId);
+            if (reactionWriteBuffer.remove(messageId, memberId, value)) {
+                return;
+            }
+        }
 
-        reactionRepository.deleteByMessageIdAndMemberIdAndValue(messageId, java.util.Objects.requireNonNull(memberId), java.util.Objects.requireNonNull(value));
+        // The delete hands back the message's routing ids, so the message itself is never loaded
+        ReactionRouteRow route = reactionWriteRepository.deleteReturningRoute(messageId, memberId, value).orElse(null);
+        if (route == null) {
+            return;
+        }
+        messageRepository.markChanged(messageId, System.currentTimeMillis());
+
+        String cacheKey = route.parentMessageId() != null ? null
+            : RecentMessageCache.keyOf(route.channelId(), route.conversationId());
+        if (cacheKey != null) {
+            recentMessageCache.reactionRemoved(cacheKey, messageId, memberId, value);
+        }
 
         // Send WebSocket notification
         WebSocketEvent<Object> event = new WebSocketEvent<>();
         event.setType(WebSocketEvent.EventType.REACTION_REMOVED);
-        event.setWorkspaceId(message.getWorkspace().getId());
-        event.setChannelId(message.getChannel() != null ? message.getChannel().getId() : null);
-        event.setConversationId(message.getConversation() != null ? message.getConversation().getId() : null);
+        event.setWorkspaceId(route.workspaceId());
+        event.setChannelId(route.channelId());
+        event.setConversationId(route.conversationId());
         event.setPayload(Map.of(
             "messageId", messageId,
             "memberId", memberId,
             "value", value
         ));
 
+        if (route.channelId() != null) {
+            webSocketService.sendToChannel(route.workspaceId(), route.channelId(), event);
+        } else if (route.conversationId() != null) {
+            webSocketService.sendToConversation(route.workspaceId(), route.conversationId(), event);
+        }
+    }
+
+    @Override
+    public List<Reaction> getMessageReactions(String messageId) {
+        return reactionRepository.findByMessageId(java.util.Objects.requireNonNull(messageId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReactionDTO> getReactors(String messageId, String value) {
+        return reactionRepository.findRowsByMessageIdAndValue(
+            java.util.Objects.requireNonNull(messageId),
+            java.util.Objects.requireNonNull(value)
+        ).stream().map(ReactionDTO::fromRow).toList();
+    }
+
+    @Override
+    public void applyReactionBatch(String messageId, List<ReactionWriteBuffer.Toggle> toggles) {
+        Message message = messageRepository.findById(java.util.Objects.requireNonNull(messageId)).orElse(null);
+        if (message == null) {
+            // Deleted before the flush; its reactions went with it
+            return;
+        }
+
+        // Each toggle is the final state for its reaction. The same single statements as the direct path
+        // apply it, so a reaction that already exists (or is already gone) is a no-op, not a failed batch.
+        List<String> addedIds = new ArrayList<>();
+        List<ReactionDeltaDTO.RemovedReactionDTO> removedDTOs = new ArrayList<>();
+        for (ReactionWriteBuffer.Toggle toggle : toggles) {
+            if (toggle.present()) {
+                String reactionId = TimeOrderedIds.next();
+                if (reactionWriteRepository.insertIfAbsent(reactionId, messageId, toggle.memberId(), toggle.value(),
+                        System.currentTimeMillis()) > 0) {
+                    addedIds.add(reactionId);
+                }
+            } else if (reactionWriteRepository.deleteReturningRoute(messageId, toggle.memberId(), toggle.value()).isPresent()) {
+                removedDTOs.add(new ReactionDeltaDTO.RemovedReactionDTO(toggle.memberId(), toggle.value()));
+            }
+        }
+        if (addedIds.isEmpty() && removedDTOs.isEmpty()) {
+            return;
+        }
+        messageRepository.markChanged(messageId, System.currentTimeMillis());
+
+        Map<String, Reaction> inserted = reactionRepository.findWithMemberByIdIn(addedIds).stream()
+            .collect(Collectors.toMap(Reaction::getId, Function.identity()));
+        List<ReactionDTO> addedDTOs = addedIds.stream().map(inserted::get).map(ReactionDTO::fromEntity).toList();
+
+        String cacheKey = cacheKeyOf(message);
+        if (cacheKey != null) {
+            addedDTOs.forEach(dto -> recentMessageCache.reactionAdded(cacheKey, dto));
+            removedDTOs.forEach(r -> recentMessageCache.reactionRemoved(cacheKey, messageId, r.getMemberId(), r.getValue()));
+        }
+
+        // One event per message per flush instead of one per click
+        WebSocketEvent<ReactionDeltaDTO> event = new WebSocketEvent<>();
+        event.setType(WebSocketEvent.EventType.REACTION_DELTA);
+        event.setWorkspaceId(message.getWorkspace().getId());
+        event.setChannelId(message.getChannel() != null ? message.getChannel().getId() : null);
+        event.setConversationId(message.getConversation() != null ? message.getConversation().getId() : null);
+        event.setPayload(new ReactionDeltaDTO(messageId, addedDTOs, removedDTOs));
+
         if (message.getChannel() != null) {
             webSocketService.sendToChannel(message.getWorkspace().getId(), message.getChannel().getId(), event);
         } else if (message.getConversation() != null) {
@@ -96,8 +211,22 @@ public class ReactionServiceImpl implements ReactionService {
         }
     }
 
-    @Override
-    public List<Reaction> getMessageReactions(String messageId) {
-        return reactionRepository.findByMessageId(java.util.Objects.requireNonNull(messageId));
+    // Checked before buffering, so a toggle that could never be applied is refused now rather than dropped at the flush
+    private void requireSameWorkspace(String messageId, String memberId) {
+        String workspaceId = messageRepository.findWorkspaceIdById(messageId)
+            .orElseThrow(() -> new EntityNotFoundException("Message not found"));
+        if (!routingCache.member(memberId).workspaceId().equals(workspaceId)) {
+            throw new IllegalArgumentException("Member is not in the message's workspace");
+        }
+    }
+
+    // Reactions on thread replies never appear in a cached timeline
+    private String cacheKeyOf(Message message) {
+        if (message.getParentMessage() != null) {
+            return null;
+        }
+        return RecentMessageCache.keyOf(
+            message.getChannel() != null ? message.getChannel().getId() : null,
+            message.getConversation() != null ? message.getConversation().getId() : null);
     }
 }
\ No newline at end of file
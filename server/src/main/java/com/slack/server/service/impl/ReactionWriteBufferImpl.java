@@ -0,0 +1,96 @@
+package com.slack.server.service.impl;
+
+import com.slack.server.service.ReactionWriteBuffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class ReactionWriteBufferImpl implements ReactionWriteBuffer {
+
+    private record Key(String memberId, String value) {}
+
+    private final boolean enabled;
+    private final int maxPending;
+
+    // Per-message maps are only touched inside compute()/remove() on their key, which lock that key
+    private final ConcurrentHashMap<String, Map<Key, Toggle>> pending = new ConcurrentHashMap<>();
+
+    // Toggles across all messages; replacing a pending toggle doesn't grow it
+    private final AtomicInteger size = new AtomicInteger();
+
+    public ReactionWriteBufferImpl(@Value("${app.reactions.write-buffer.enabled:false}") boolean enabled,
+                                   @Value("${app.reactions.write-buffer.max-pending:10000}") int maxPending) {
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public boolean add(String messageId, String memberId, String value) {
+        return record(messageId, new Toggle(memberId, value, true));
+    }
+
+    @Override
+    public boolean remove(String messageId, String memberId, String value) {
+        return record(messageId, new Toggle(memberId, value, false));
+    }
+
+    private boolean record(String messageId, Toggle toggle) {
+        boolean[] accepted = {true};
+        pending.compute(messageId, (id, toggles) -> {
+            Map<Key, Toggle> result = toggles != null ? toggles : new LinkedHashMap<>();
+            Key key = new Key(toggle.memberId(), toggle.value());
+            if (!result.containsKey(key) && size.incrementAndGet() > maxPending) {
+                size.decrementAndGet();
+                accepted[0] = false;
+            } else {
+                result.put(key, toggle);
+            }
+            return result.isEmpty() ? null : result;
+        });
+        return accepted[0];
+    }
+
+    @Override
+    public Map<String, List<Toggle>> drain() {
+        Map<String, List<Toggle>> drained = new LinkedHashMap<>();
+        for (String messageId : pending.keySet()) {
+            Map<Key, Toggle> toggles = pending.remove(messageId);
+            if (toggles != null) {
+                size.addAndGet(-toggles.size());
+                drained.put(messageId, new ArrayList<>(toggles.values()));
+            }
+        }
+        return drained;
+    }
+
+    // Requeued toggles were already admitted once, so they may briefly take the buffer past its bound
+    @Override
+    public void requeue(String messageId, List<Toggle> toggles) {
+        pending.compute(messageId, (id, current) -> {
+            Map<Key, Toggle> result = current != null ? current : new LinkedHashMap<>();
+            for (Toggle toggle : toggles) {
+                if (result.putIfAbsent(new Key(toggle.memberId(), toggle.value()), toggle) == null) {
+                    size.incrementAndGet();
+                }
+            }
+            return result.isEmpty() ? null : result;
+        });
+    }
+
+    @Override
+    public int pendingMessages() {
+        return pending.size();
+    }
+}
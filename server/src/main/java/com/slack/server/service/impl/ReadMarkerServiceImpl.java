@@ -0,0 +1,148 @@
+package com.slack.server.service.impl;
+
+import com.slack.server.model.Channel;
+import com.slack.server.model.Conversation;
+import com.slack.server.model.ReadMarker;
+import com.slack.server.dto.ReadMarkerDTO;
+import com.slack.server.dto.UnreadCountDTO;
+import com.slack.server.repository.ChannelRepository;
+import com.slack.server.repository.ConversationRepository;
+import com.slack.server.repository.MemberRepository;
+import com.slack.server.repository.MessageRepository;
+import com.slack.server.repository.ReadMarkerRepository;
+import com.slack.server.repository.projection.MessageRow;
+import com.slack.server.repository.projection.UnreadCountRow;
+import com.slack.server.service.ReadMarkerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.EntityNotFoundException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+@Transactional
+public class ReadMarkerServiceImpl implements ReadMarkerService {
+
+    @Autowired
+    private ReadMarkerRepository readMarkerRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Override
+    public ReadMarkerDTO markRead(String memberId, @Nullable String channelId, @Nullable String conversationId,
+                                  @Nullable String messageId) {
+        if ((channelId == null) == (conversationId == null)) {
+            throw new IllegalArgumentException("Exactly one of channelId or conversationId is required");
+        }
+        if (!memberRepository.existsById(Objects.requireNonNull(memberId))) {
+            throw new EntityNotFoundException("Member not found");
+        }
+
+        int messageCount;
+        ReadMarker marker;
+        if (channelId != null) {
+            Channel channel = channelRepository.findById(channelId)
+                .orElseThrow(() -> new EntityNotFoundException("Channel not found"));
+            messageCount = channel.getMessageCount();
+            marker = readMarkerRepository.findByMemberIdAndChannelId(memberId, channelId).orElseGet(ReadMarker::new);
+        } else {
+            Conversation conversation = conversationRepository.findById(conversationId)
+                .orElseThrow(() -> new EntityNotFoundException("Conversation not found"));
+            messageCount = conversation.getMessageCount();
+            marker = readMarkerRepository.findByMemberIdAndConversationId(memberId, conversationId).orElseGet(ReadMarker::new);
+        }
+
+        MessageRow target = messageId != null ? findTarget(messageId, channelId, conversationId) : findNewest(channelId, conversationId);
+        int readCount = 0;
+        if (target != null) {
+            readCount = channelId != null
+                ? readMarkerRepository.countChannelReadUpTo(channelId, target.createdAt(), target.id())
+                : readMarkerRepository.countConversationReadUpTo(conversationId, target.createdAt(), target.id());
+        }
+
+        marker.setMemberId(memberId);
+        marker.setChannelId(channelId);
+        marker.setConversationId(conversationId);
+        marker.setLastReadMessageId(target != null ? target.id() : null);
+        marker.setLastReadAt(target != null ? target.createdAt() : null);
+        marker.setReadCount(readCount);
+        marker.setUpdatedAt(System.currentTimeMillis());
+        marker = readMarkerRepository.save(marker);
+
+        return ReadMarkerDTO.fromEntity(marker, Math.max(messageCount - readCount, 0));
+    }
+
+    private MessageRow findTarget(String messageId, @Nullable String channelId, @Nullable String conversationId) {
+        MessageRow row = messageRepository.findRowById(messageId)
+            .orElseThrow(() -> new EntityNotFoundException("Message not found"));
+        if (row.parentMessageId() != null) {
+            throw new IllegalArgumentException("Read markers point at top-level messages, not thread replies");
+        }
+        if (!Objects.equals(row.channelId(), channelId) || !Objects.equals(row.conversationId(), conversationId)) {
+            throw new IllegalArgumentException("Message does not belong to this channel or conversation");
+        }
+        return row;
+    }
+
+    private @Nullable MessageRow findNewest(@Nullable String channelId, @Nullable String conversationId) {
+        PageRequest newest = PageRequest.of(0, 1);
+        List<MessageRow> rows = channelId != null
+            ? messageRepository.findChannelLatest(channelId, newest).getContent()
+            : messageRepository.findConversationLatest(conversationId, newest).getContent();
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UnreadCountDTO> getUnreadCounts(String workspaceId, String memberId) {
+        Objects.requireNonNull(workspaceId);
+        Objects.requireNonNull(memberId);
+        List<UnreadCountDTO> counts = new ArrayList<>();
+        for (UnreadCountRow row : readMarkerRepository.findChannelUnreadRows(workspaceId, memberId)) {
+            counts.add(new UnreadCountDTO(row.timelineId(), null, unread(row), row.lastReadMessageId()));
+        }
+        for (UnreadCountRow row : readMarkerRepository.findConversationUnreadRows(workspaceId, memberId)) {
+            counts.add(new UnreadCountDTO(null, row.timelineId(), unread(row), row.lastReadMessageId()));
+        }
+        return counts;
+    }
+
+    // Without a marker the member has read nothing yet
+    private static int unread(UnreadCountRow row) {
+        int read = row.readCount() != null ? row.readCount() : 0;
+        return Math.max(row.messageCount() - read, 0);
+    }
+
+    @Override
+    public int reconcileCounters() {
+        // Timeline counters first: read counts are compared against the same messages
+        return channelRepository.reconcileMessageCounts()
+            + conversationRepository.reconcileMessageCounts()
+            + readMarkerRepository.reconcileChannelReadCounts()
+            + readMarkerRepository.reconcileConversationReadCounts();
+    }
+
+    @Override
+    public int reconcileCounters(String workspaceId) {
+        Objects.requireNonNull(workspaceId);
+        return channelRepository.reconcileMessageCountsByWorkspaceId(workspaceId)
+            + conversationRepository.reconcileMessageCountsByWorkspaceId(workspaceId)
+            + readMarkerRepository.reconcileChannelReadCountsByWorkspaceId(workspaceId)
+            + readMarkerRepository.reconcileConversationReadCountsByWorkspaceId(workspaceId);
+    }
+}
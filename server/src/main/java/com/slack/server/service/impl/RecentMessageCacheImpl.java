@@ -0,0 +1,336 @@
+package com.slack.server.service.impl;
+
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.dto.ReactionDTO;
+import com.slack.server.dto.ReactionSummaryDTO;
+import com.slack.server.service.RecentMessageCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+@Service
+public class RecentMessageCacheImpl implements RecentMessageCache {
+
+    private final boolean enabled;
+    private final int capacity;
+    private final long maxBytes;
+
+    // Access-ordered, so iteration starts at the least recently used timeline. Guarded by "this".
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long usedBytes;
+
+    // Orders snapshot installs against commits, see apply()
+    private final AtomicLong clock = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * A buffered timeline. Message lists are replaced, never mutated, so readers can hand them
+     * straight to the serializer while writers keep going.
+     */
+    private static final class Entry {
+        List<MessageDTO> messages = List.of();
+        long total;
+        long bytes;
+        boolean loading = true;
+        // Set when a write lands while the entry is being loaded; the loaded snapshot is then discarded
+        boolean dirty;
+        // Clock value taken after the snapshot was read; writes stamped earlier may already be in it
+        long installedAt;
+    }
+
+    public RecentMessageCacheImpl(
+            @Value("${app.messages.recent-cache.enabled:true}") boolean enabled,
+            @Value("${app.messages.recent-cache.per-timeline:100}") int capacity,
+            @Value("${app.messages.recent-cache.max-bytes:67108864}") long maxBytes) {
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public int capacity() {
+        return enabled ? capacity : 0;
+    }
+
+    @Override
+    public Window getLatest(String key, int size, Supplier<Window> loader) {
+        if (!enabled || size > capacity) {
+            return trim(loader.get(), size);
+        }
+
+        Entry placeholder;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && !entry.loading) {
+                hits.incrementAndGet();
+                return trim(new Window(entry.messages, entry.total), size);
+            }
+            misses.incrementAndGet();
+            if (entry == null) {
+                placeholder = new Entry();
+                entries.put(key, placeholder);
+            } else {
+                // Someone else is already loading this timeline; don't race them
+                placeholder = null;
+            }
+        }
+
+        Window loaded;
+        try {
+            loaded = loader.get();
+        } catch (RuntimeException ex) {
+            if (placeholder != null) {
+                synchronized (this) {
+                    entries.remove(key, placeholder);
+                }
+            }
+            throw ex;
+        }
+
+        if (placeholder != null) {
+            synchronized (this) {
+                if (entries.get(key) == placeholder && !placeholder.dirty) {
+                    placeholder.loading = false;
+                    placeholder.installedAt = clock.incrementAndGet();
+                    replace(placeholder, limit(loaded.messages()), loaded.total());
+                    evictColdEntries(key);
+                } else {
+                    entries.remove(key, placeholder);
+                }
+            }
+        }
+        return trim(loaded, size);
+    }
+
+    @Override
+    public void messageCreated(MessageDTO message) {
+        String key = RecentMessageCache.keyOf(message.getChannelId(), message.getConversationId());
+        if (key == null) return;
+        if (message.getParentMessageId() == null) {
+            onCommit(stamp -> apply(key, stamp, entry -> {
+                if (entry.messages.stream().anyMatch(m -> message.getId().equals(m.getId()))) {
+                    return entry.messages;
+                }
+                List<MessageDTO> messages = new ArrayList<>(entry.messages.size() + 1);
+                messages.add(MessageDTO.copyOf(message));
+                messages.addAll(entry.messages);
+                if (entry.total >= 0) entry.total++;
+                return messages;
+            }));
+        } else {
+            // A reply only changes the thread summary of its parent
+            onCommit(stamp -> apply(key, stamp, entry -> mapMessage(entry.messages, message.getParentMessageId(), parent -> {
+                MessageDTO copy = MessageDTO.copyOf(parent);
+                copy.setThreadCount(parent.getThreadCount() + 1);
+                copy.setThreadTimestamp(message.getCreatedAt());
+                if (message.getMember() != null && message.getMember().getUser() != null) {
+                    copy.setThreadName(message.getMember().getUser().getName());
+                    copy.setThreadImage(message.getMember().getUser().getImageUrl());
+                }
+                return copy;
+            })));
+        }
+    }
+
+    @Override
+    public void messageUpdated(MessageDTO message) {
+        String key = RecentMessageCache.keyOf(message.getChannelId(), message.getConversationId());
+        if (key == null || message.getParentMessageId() != null) return;
+        onCommit(stamp -> apply(key, stamp, entry -> mapMessage(entry.messages, message.getId(), cached -> {
+            MessageDTO copy = MessageDTO.copyOf(cached);
+            copy.setBody(message.getBody());
+            copy.setUpdatedAt(message.getUpdatedAt());
+            return copy;
+        })));
+    }
+
+    @Override
+    public void messageDeleted(String key, String messageId, @Nullable String parentMessageId) {
+        if (parentMessageId != null) {
+            // Thread counters are recomputed in the database on reply delete; reload rather than guess
+            evict(key);
+            return;
+        }
+        onCommit(stamp -> apply(key, stamp, entry -> {
+            List<MessageDTO> messages = new ArrayList<>(entry.messages);
+            if (messages.removeIf(m -> messageId.equals(m.getId()))) {
+                if (entry.total > 0) entry.total--;
+            }
+            return messages;
+        }));
+    }
+
+    @Override
+    public void reactionAdded(String key, ReactionDTO reaction) {
+        onCommit(stamp -> apply(key, stamp, entry -> mapMessage(entry.messages, reaction.getMessageId(), cached -> {
+            MessageDTO copy = MessageDTO.copyOf(cached);
+            List<ReactionSummaryDTO> groups = copy.getReactions();
+            for (int i = 0; i < groups.size(); i++) {
+                ReactionSummaryDTO group = groups.get(i);
+                if (!group.getValue().equals(reaction.getValue())) continue;
+                List<ReactionDTO.MemberSummaryDTO> reactors = new ArrayList<>(group.getReactors());
+                if (reactors.size() < ReactionSummaryDTO.REACTOR_SAMPLE_SIZE) {
+                    reactors.add(reaction.getMember());
+                }
+                groups.set(i, new ReactionSummaryDTO(group.getValue(), group.getCount() + 1, false, reactors));
+                return copy;
+            }
+            groups.add(new ReactionSummaryDTO(reaction.getValue(), 1, false, new ArrayList<>(List.of(reaction.getMember()))));
+            return copy;
+        })));
+    }
+
+    @Override
+    public void reactionRemoved(String key, String messageId, String memberId, String value) {
+        onCommit(stamp -> apply(key, stamp, entry -> mapMessage(entry.messages, messageId, cached -> {
+            MessageDTO copy = MessageDTO.copyOf(cached);
+            List<ReactionSummaryDTO> groups = copy.getReactions();
+            for (int i = 0; i < groups.size(); i++) {
+                ReactionSummaryDTO group = groups.get(i);
+                if (!group.getValue().equals(value)) continue;
+                if (group.getCount() <= 1) {
+                    groups.remove(i);
+                    return copy;
+                }
+                // The sample is not refilled here; the next load brings the following reactor back in
+                List<ReactionDTO.MemberSummaryDTO> reactors = new ArrayList<>(group.getReactors());
+                reactors.removeIf(r -> memberId.equals(r.getId()));
+                groups.set(i, new ReactionSummaryDTO(group.getValue(), group.getCount() - 1, false, reactors));
+                return copy;
+            }
+            return cached;
+        })));
+    }
+
+    @Override
+    public void evict(String key) {
+        onCommit(stamp -> apply(key, stamp, null));
+    }
+
+    @Override
+    public synchronized Map<String, Object> stats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("timelines", entries.size());
+        stats.put("usedBytes", usedBytes);
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    /**
+     * Apply a committed write to a buffered timeline; a null update drops the timeline.
+     * Writes to timelines that are not buffered are ignored and writes to one that is loading poison the load.
+     * A write stamped before the snapshot was installed may or may not be part of it, so the timeline
+     * is dropped rather than risk applying the write twice.
+     */
+    private synchronized void apply(String key, long stamp, @Nullable Function<Entry, List<MessageDTO>> update) {
+        Entry entry = entries.get(key);
+        if (entry == null) return;
+        if (entry.loading) {
+            entry.dirty = true;
+            return;
+        }
+        if (update == null || stamp < entry.installedAt) {
+            entries.remove(key);
+            usedBytes -= entry.bytes;
+            return;
+        }
+        replace(entry, limit(update.apply(entry)), entry.total);
+        evictColdEntries(key);
+    }
+
+    private void replace(Entry entry, List<MessageDTO> messages, long total) {
+        long bytes = estimateBytes(messages);
+        usedBytes += bytes - entry.bytes;
+        entry.messages = messages;
+        entry.total = total;
+        entry.bytes = bytes;
+    }
+
+    /** Drop least recently used timelines until the global budget holds, keeping the one just touched. */
+    private void evictColdEntries(String keep) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            if (eldest.getKey().equals(keep) || eldest.getValue().loading) continue;
+            usedBytes -= eldest.getValue().bytes;
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private List<MessageDTO> limit(List<MessageDTO> messages) {
+        return List.copyOf(messages.size() > capacity ? messages.subList(0, capacity) : messages);
+    }
+
+    private static Window trim(Window window, int size) {
+        List<MessageDTO> messages = window.messages();
+        return messages.size() > size ? new Window(messages.subList(0, size), window.total()) : window;
+    }
+
+    private static List<MessageDTO> mapMessage(List<MessageDTO> messages, String messageId, UnaryOperator<MessageDTO> mapper) {
+        List<MessageDTO> result = new ArrayList<>(messages.size());
+        for (MessageDTO message : messages) {
+            result.add(messageId.equals(message.getId()) ? mapper.apply(message) : message);
+        }
+        return result;
+    }
+
+    // Rough heap footprint: fixed object overhead plus UTF-16 text
+    private static long estimateBytes(List<MessageDTO> messages) {
+        long bytes = 0;
+        for (MessageDTO message : messages) {
+            bytes += 512;
+            bytes += message.getBody() != null ? 2L * message.getBody().length() : 0;
+            if (message.getReactions() != null) {
+                for (ReactionSummaryDTO group : message.getReactions()) {
+                    bytes += 96 + 128L * group.getReactors().size();
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /** Run a cache write once the surrounding transaction commits, stamped just before the commit. */
+    private void onCommit(LongConsumer action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(clock.incrementAndGet());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long stamp;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                stamp = clock.incrementAndGet();
+            }
+
+            @Override
+            public void afterCommit() {
+                action.accept(stamp);
+            }
+        });
+    }
+}
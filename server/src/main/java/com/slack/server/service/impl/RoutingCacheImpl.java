@@ -0,0 +1,136 @@
+package com.slack.server.service.impl;
+
+import com.slack.server.repository.ChannelRepository;
+import com.slack.server.repository.ConversationRepository;
+import com.slack.server.repository.MemberRepository;
+import com.slack.server.service.RoutingCache;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@Service
+public class RoutingCacheImpl implements RoutingCache {
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private ChannelRepository channelRepository;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    // Access-ordered LRU maps, guarded by "this"
+    private final Lru<MemberRoute> members;
+    private final Lru<String> channels;
+    private final Lru<String> conversations;
+
+    private static final class Lru<V> extends LinkedHashMap<String, V> {
+        private final int maxEntries;
+
+        Lru(int maxEntries) {
+            super(256, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+            return size() > maxEntries;
+        }
+    }
+
+    public RoutingCacheImpl(@Value("${app.routing-cache.max-entries:100000}") int maxEntries) {
+        this.members = new Lru<>(maxEntries);
+        this.channels = new Lru<>(maxEntries);
+        this.conversations = new Lru<>(maxEntries);
+    }
+
+    @Override
+    public MemberRoute member(String memberId) {
+        return get(members, memberId, () -> memberRepository.findRowById(memberId)
+            .map(row -> new MemberRoute(row.id(), row.workspaceId(), row.userId(),
+                row.role() != null ? row.role().name() : null, row.userName(), row.userImage()))
+            .orElseThrow(() -> new EntityNotFoundException("Member not found")));
+    }
+
+    @Override
+    public String channelWorkspaceId(String channelId) {
+        return get(channels, channelId, () -> channelRepository.findWorkspaceIdById(channelId)
+            .orElseThrow(() -> new EntityNotFoundException("Channel not found")));
+    }
+
+    @Override
+    public String conversationWorkspaceId(String conversationId) {
+        return get(conversations, conversationId, () -> conversationRepository.findWorkspaceIdById(conversationId)
+            .orElseThrow(() -> new EntityNotFoundException("Conversation not found")));
+    }
+
+    // Loaded outside the lock; a concurrent load of the same key just writes the same value twice
+    private <V> V get(Lru<V> cache, String key, Supplier<V> loader) {
+        synchronized (this) {
+            V cached = cache.get(key);
+            if (cached != null) return cached;
+        }
+        V loaded = loader.get();
+        synchronized (this) {
+            cache.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void evictMember(String memberId) {
+        evict(() -> members.remove(memberId));
+    }
+
+    @Override
+    public void evictUser(String userId) {
+        evict(() -> members.values().removeIf(route -> userId.equals(route.userId())));
+    }
+
+    @Override
+    public void evictChannel(String channelId) {
+        evict(() -> channels.remove(channelId));
+    }
+
+    @Override
+    public void evictConversation(String conversationId) {
+        evict(() -> conversations.remove(conversationId));
+    }
+
+    @Override
+    public void evictWorkspace(String workspaceId) {
+        evict(() -> {
+            members.values().removeIf(route -> workspaceId.equals(route.workspaceId()));
+            channels.values().removeIf(workspaceId::equals);
+            conversations.values().removeIf(workspaceId::equals);
+        });
+    }
+
+    /**
+     * Evict now, so this transaction stops using the entry, and again after commit, in case another
+     * request reloaded the old row in between.
+     */
+    private void evict(Runnable eviction) {
+        synchronized (this) {
+            eviction.run();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    synchronized (RoutingCacheImpl.this) {
+                        eviction.run();
+                    }
+                }
+            });
+        }
+    }
+}
@@ -1,31 +1,32 @@
 package com.slack.server.service.impl;
 
 import com.slack.server.model.event.WebSocketEvent;
+import com.slack.server.service.EventOutbox;
 import com.slack.server.service.WebSocketService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import java.util.Map;
 
+// Sends go through the outbox: after commit when called in a transaction, on the outbox's dispatcher threads
 @Service
 public class WebSocketServiceImpl implements WebSocketService {
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private EventOutbox eventOutbox;
 
     @Override
     public <T> void sendToWorkspace(String workspaceId, WebSocketEvent<T> event) {
-        messagingTemplate.convertAndSend("/topic/workspace/" + java.util.Objects.requireNonNull(workspaceId), java.util.Objects.requireNonNull(event));
+        eventOutbox.publish(workspaceId, "/topic/workspace/" + java.util.Objects.requireNonNull(workspaceId), java.util.Objects.requireNonNull(event));
     }
 
     @Override
     public <T> void sendToChannel(String workspaceId, String channelId, WebSocketEvent<T> event) {
-        messagingTemplate.convertAndSend("/topic/workspace/" + java.util.Objects.requireNonNull(workspaceId) + "/channel/" + java.util.Objects.requireNonNull(channelId), java.util.Objects.requireNonNull(event));
+        eventOutbox.publish(workspaceId, "/topic/workspace/" + java.util.Objects.requireNonNull(workspaceId) + "/channel/" + java.util.Objects.requireNonNull(channelId), java.util.Objects.requireNonNull(event));
     }
 
     @Override
     public <T> void sendToConversation(String workspaceId, String conversationId, WebSocketEvent<T> event) {
-        messagingTemplate.convertAndSend("/topic/workspace/" + java.util.Objects.requireNonNull(workspaceId) + "/conversation/" + java.util.Objects.requireNonNull(conversationId), java.util.Objects.requireNonNull(event));
+        eventOutbox.publish(workspaceId, "/topic/workspace/" + java.util.Objects.requireNonNull(workspaceId) + "/conversation/" + java.util.Objects.requireNonNull(conversationId), java.util.Objects.requireNonNull(event));
     }
 
     @Override
@@ -36,7 +37,7 @@ public class WebSocketServiceImpl implements WebSocketService {
             "userId", userId,
             "isOnline", isOnline
         ));
-        messagingTemplate.convertAndSend("/topic/presence", event);
+        eventOutbox.publish(userId, "/topic/presence", event);
     }
 
     @Override
@@ -1,6 +1,7 @@
 package com.slack.server.service.impl;
 
 import com.slack.server.model.Channel;
+import com.slack.server.model.DeleteJob;
 import com.slack.server.model.Workspace;
 import com.slack.server.model.Member;
 import com.slack.server.model.User;
@@ -8,12 +9,17 @@ import com.slack.server.model.event.WebSocketEvent;
 import com.slack.server.dto.WorkspaceDTO;
 import com.slack.server.dto.MemberDTO;
 import com.slack.server.repository.ChannelRepository;
+import com.slack.server.repository.ConversationRepository;
 import com.slack.server.repository.WorkspaceRepository;
 import com.slack.server.repository.MemberRepository;
 import com.slack.server.repository.UserRepository;
+import com.slack.server.service.DeleteJobService;
+import com.slack.server.service.RecentMessageCache;
 import com.slack.server.service.WorkspaceService;
 import com.slack.server.service.WebSocketService;
+import com.slack.server.service.RoutingCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.EntityNotFoundException;
@@ -36,9 +42,21 @@ public class WorkspaceServiceImpl implements WorkspaceService {
     @Autowired
     private ChannelRepository channelRepository;
 
+    @Autowired
+    private ConversationRepository conversationRepository;
+
     @Autowired
     private WebSocketService webSocketService;
 
+    @Autowired
+    private RoutingCache routingCache;
+
+    @Autowired
+    private RecentMessageCache recentMessageCache;
+
+    @Autowired
+    private DeleteJobService deleteJobService;
+
     @Override
     public Workspace createWorkspace(String name, String userId) {
         User owner = userRepository.findById(java.util.Objects.requireNonNull(userId))
@@ -101,8 +119,10 @@ public class WorkspaceServiceImpl implements WorkspaceService {
     }
 
     @Override
-    public List<Member> getWorkspaceMembers(String workspaceId) {
-        return memberRepository.findByWorkspaceId(java.util.Objects.requireNonNull(workspaceId));
+    @Transactional(readOnly = true)
+    public List<MemberDTO> getWorkspaceMembers(String workspaceId) {
+        return memberRepository.findRowsByWorkspaceId(java.util.Objects.requireNonNull(workspaceId))
+            .stream().map(MemberDTO::fromRow).toList();
     }
 
     @Override
@@ -134,9 +154,20 @@ public class WorkspaceServiceImpl implements WorkspaceService {
     }
 
     @Override
-    public void deleteWorkspace(String workspaceId) {
+    public DeleteJob deleteWorkspace(String workspaceId) {
         Workspace workspace = getWorkspaceById(java.util.Objects.requireNonNull(workspaceId));
-        workspaceRepository.delete(java.util.Objects.requireNonNull(workspace));
+        List<String> channelIds = channelRepository.findIdsByWorkspaceId(workspaceId);
+        List<String> conversationIds = conversationRepository.findIdsByWorkspaceId(workspaceId);
+        long now = System.currentTimeMillis();
+        workspace.setDeletedAt(now);
+        workspaceRepository.save(workspace);
+        // Its channels and DMs disappear with it, so nothing more is posted into them while they are purged
+        channelRepository.markDeletedByWorkspaceId(workspaceId, now);
+        conversationRepository.markDeletedByWorkspaceId(workspaceId, now);
+        DeleteJob job = deleteJobService.schedule(DeleteJob.Target.WORKSPACE, workspaceId, workspaceId);
+        routingCache.evictWorkspace(workspaceId);
+        channelIds.forEach(id -> recentMessageCache.evict(RecentMessageCache.channelKey(id)));
+        conversationIds.forEach(id -> recentMessageCache.evict(RecentMessageCache.conversationKey(id)));
 
         // Send WebSocket notification
         WebSocketEvent<String> event = new WebSocketEvent<>();
@@ -144,6 +175,26 @@ public class WorkspaceServiceImpl implements WorkspaceService {
         event.setWorkspaceId(workspaceId);
         event.setPayload(workspaceId);
         webSocketService.sendToWorkspace(workspaceId, event);
+
+        return job;
+    }
+
+    @Override
+    public Workspace updateRetention(String workspaceId, @Nullable Integer retentionDays) {
+        if (retentionDays != null && retentionDays < 1) {
+            throw new IllegalArgumentException("Retention must be at least one day");
+        }
+        Workspace workspace = getWorkspaceById(java.util.Objects.requireNonNull(workspaceId));
+        workspace.setRetentionDays(retentionDays);
+        workspace = workspaceRepository.save(workspace);
+
+        WebSocketEvent<WorkspaceDTO> event = new WebSocketEvent<>();
+        event.setType(WebSocketEvent.EventType.WORKSPACE_UPDATED);
+        event.setWorkspaceId(workspaceId);
+        event.setPayload(WorkspaceDTO.fromEntity(workspace));
+        webSocketService.sendToWorkspace(workspaceId, event);
+
+        return workspace;
     }
 
     @Override
@@ -0,0 +1,99 @@
+package com.slack.server;
+
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.model.Channel;
+import com.slack.server.model.Conversation;
+import com.slack.server.model.Member;
+import com.slack.server.model.User;
+import com.slack.server.model.Workspace;
+import com.slack.server.service.AuthService;
+import com.slack.server.service.ChannelService;
+import com.slack.server.service.ConversationService;
+import com.slack.server.service.MemberService;
+import com.slack.server.service.MessageService;
+import com.slack.server.service.WorkspaceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.lang.Nullable;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Builds users, workspaces and timelines through the services, the way the API would.
+ * Every call creates fresh rows, so tests sharing the application context never see each other's data.
+ */
+@TestComponent
+public class TestFixtures {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private WorkspaceService workspaceService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private ChannelService channelService;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private MessageService messageService;
+
+    public User user(String name) {
+        return authService.register(name, UUID.randomUUID() + "@test.dev", "Password@123");
+    }
+
+    /** A workspace owned by {@code owner}, with its default "general" channel */
+    public Workspace workspace(User owner) {
+        return workspaceService.createWorkspace("Workspace " + UUID.randomUUID(), owner.getId());
+    }
+
+    public Member owner(Workspace workspace) {
+        return memberService.getMemberByWorkspaceAndUser(workspace.getId(), workspace.getUserId());
+    }
+
+    public Member member(Workspace workspace, User user) {
+        return memberService.addMember(workspace.getId(), user.getId(), Member.Role.MEMBER);
+    }
+
+    public Channel channel(Workspace workspace) {
+        return channelService.createChannel("channel-" + UUID.randomUUID().toString().substring(0, 8), workspace.getId());
+    }
+
+    public Conversation conversation(Member one, Member two) {
+        return conversationService.createConversation(one.getWorkspace().getId(), one.getId(), two.getId());
+    }
+
+    public MessageDTO post(Member member, Channel channel, String text) {
+        return messageService.createMessage(body(text), null, channel.getWorkspace().getId(), member.getId(),
+            channel.getId(), null, null, null);
+    }
+
+    public MessageDTO post(Member member, Conversation conversation, String text) {
+        return messageService.createMessage(body(text), null, conversation.getWorkspace().getId(), member.getId(),
+            null, conversation.getId(), null, null);
+    }
+
+    public MessageDTO reply(Member member, MessageDTO parent, String text) {
+        return messageService.createMessage(body(text), null, parent.getWorkspaceId(), member.getId(),
+            parent.getChannelId(), parent.getConversationId(), parent.getId(), null);
+    }
+
+    /** Make {@code user} the authenticated caller for service methods that read the security context */
+    public void signIn(@Nullable User user) {
+        SecurityContextHolder.getContext().setAuthentication(user == null ? null
+            : new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    /** A Quill delta holding {@code text}, as the client sends it */
+    public static String body(String text) {
+        return "{\"ops\":[{\"insert\":\"" + text.replace("\\", "\\\\").replace("\"", "\\\"") + "\\n\"}]}";
+    }
+}
@@ -0,0 +1,62 @@
+package com.slack.server.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimeOrderedIdsTest {
+
+    @Test
+    void idsSortInCreationOrderEvenWithinOneMillisecond() {
+        // Far more than 4096 ids, so the sequence carries into the timestamp at least once
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            ids.add(TimeOrderedIds.next());
+        }
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        assertThat(ids).allSatisfy(id -> {
+            UUID uuid = UUID.fromString(id);
+            assertThat(uuid.version()).isEqualTo(7);
+            assertThat(uuid.variant()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    void idsCarryTheirCreationTime() {
+        long before = System.currentTimeMillis();
+        String id = TimeOrderedIds.next();
+
+        // Earlier bursts may have pushed the timestamp slightly ahead of the clock
+        assertThat(TimeOrderedIds.timestampOf(id)).isBetween(before, System.currentTimeMillis() + 1000);
+    }
+
+    @Test
+    void otherIdsHaveNoTimestamp() {
+        assertThat(TimeOrderedIds.timestampOf(UUID.randomUUID().toString())).isNull();
+        assertThat(TimeOrderedIds.timestampOf("not-an-id")).isNull();
+    }
+
+    @Test
+    void concurrentCallersNeverShareAnId() {
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        List<CompletableFuture<Void>> callers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            callers.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    ids.add(TimeOrderedIds.next());
+                }
+            }));
+        }
+        callers.forEach(CompletableFuture::join);
+
+        assertThat(ids).hasSize(40_000);
+    }
+}
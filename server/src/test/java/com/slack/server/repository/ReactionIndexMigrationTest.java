@@ -0,0 +1,77 @@
+package com.slack.server.repository;
+
+import com.slack.server.TestFixtures;
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.model.Member;
+import com.slack.server.model.Reaction;
+import com.slack.server.model.User;
+import com.slack.server.model.Workspace;
+import com.slack.server.service.ReactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+class ReactionIndexMigrationTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private ReactionService reactionService;
+
+    @Autowired
+    private ReactionIndexMigration reactionIndexMigration;
+
+    @Autowired
+    private SchemaMigrationRepository schemaMigrationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void runsOnceWhenTheContextStarts() {
+        assertThat(schemaMigrationRepository.isApplied("reactions-unique-index")).isTrue();
+    }
+
+    @Test
+    void repairsATableFromBeforeTheIndex() {
+        User user = fixtures.user("Alice");
+        Workspace workspace = fixtures.workspace(user);
+        Member alice = fixtures.owner(workspace);
+        fixtures.signIn(user);
+        MessageDTO message = fixtures.post(alice, fixtures.channel(workspace), "reacted twice");
+        Reaction original = reactionService.addReaction(message.getId(), alice.getId(), "eyes");
+
+        jdbcTemplate.execute("ALTER TABLE reactions DROP CONSTRAINT IF EXISTS " + ReactionIndexMigration.INDEX);
+        jdbcTemplate.execute("DROP INDEX IF EXISTS " + ReactionIndexMigration.INDEX);
+        jdbcTemplate.update("DELETE FROM schema_migrations WHERE name = 'reactions-unique-index'");
+        copy(original);
+        copy(original);
+
+        reactionIndexMigration.migrate();
+
+        assertThat(jdbcTemplate.queryForList("SELECT CAST(id AS varchar) FROM reactions WHERE message_id = ?",
+            String.class, message.getId())).containsExactly(original.getId());
+        assertThatThrownBy(() -> copy(original)).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(schemaMigrationRepository.isApplied("reactions-unique-index")).isTrue();
+    }
+
+    // A later duplicate of the reaction, as tables from before the index may hold
+    private void copy(Reaction reaction) {
+        jdbcTemplate.update("INSERT INTO reactions (id, value, workspace_id, message_id, member_id, created_at) " +
+            "SELECT CAST(? AS uuid), value, workspace_id, message_id, member_id, created_at + 1 FROM reactions WHERE id = ?",
+            UUID.randomUUID().toString(), reaction.getId());
+    }
+}
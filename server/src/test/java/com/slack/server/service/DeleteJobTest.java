@@ -0,0 +1,133 @@
+package com.slack.server.service;
+
+import com.slack.server.TestFixtures;
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.model.Channel;
+import com.slack.server.model.Conversation;
+import com.slack.server.model.DeleteJob;
+import com.slack.server.model.Member;
+import com.slack.server.model.User;
+import com.slack.server.model.Workspace;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Tiny batches, so a purge takes several of them
+@SpringBootTest(properties = "app.delete-jobs.batch-size=2")
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+class DeleteJobTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private DeleteJobService deleteJobService;
+
+    @Autowired
+    private ChannelService channelService;
+
+    @Autowired
+    private WorkspaceService workspaceService;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private ReactionService reactionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Workspace workspace;
+    private Member alice;
+    private Member bob;
+
+    @BeforeEach
+    void setUp() {
+        User aliceUser = fixtures.user("Alice");
+        workspace = fixtures.workspace(aliceUser);
+        alice = fixtures.owner(workspace);
+        bob = fixtures.member(workspace, fixtures.user("Bob"));
+        fixtures.signIn(aliceUser);
+    }
+
+    @Test
+    void channelsArePurgedInBatchesWithProgress() {
+        Channel doomed = fixtures.channel(workspace);
+        Channel kept = fixtures.channel(workspace);
+        MessageDTO first = fixtures.post(alice, doomed, "one");
+        fixtures.reply(bob, first, "reply");
+        fixtures.post(alice, doomed, "two");
+        fixtures.post(bob, doomed, "three");
+        reactionService.addReaction(first.getId(), bob.getId(), "eyes");
+        fixtures.post(alice, kept, "stays");
+
+        DeleteJob queued = channelService.deleteChannel(doomed.getId());
+        assertThat(queued.getStatus()).isEqualTo(DeleteJob.Status.PENDING);
+        assertThat(count("SELECT COUNT(*) FROM messages WHERE channel_id = ?", doomed.getId())).isEqualTo(4);
+
+        deleteJobService.runPending();
+
+        DeleteJob done = deleteJobService.getJob(queued.getId());
+        assertThat(done.getStatus()).isEqualTo(DeleteJob.Status.COMPLETED);
+        assertThat(done.getTotalMessages()).isEqualTo(4L);
+        assertThat(done.getDeletedMessages()).isEqualTo(4L);
+        assertThat(done.getCompletedAt()).isNotNull();
+        assertThat(count("SELECT COUNT(*) FROM messages WHERE channel_id = ?", doomed.getId())).isZero();
+        assertThat(count("SELECT COUNT(*) FROM reactions WHERE message_id = ?", first.getId())).isZero();
+        assertThat(count("SELECT COUNT(*) FROM channels WHERE id = ?", doomed.getId())).isZero();
+        assertThat(count("SELECT COUNT(*) FROM messages WHERE channel_id = ?", kept.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void archivedHistoryGoesWithItsChannel() {
+        Channel doomed = fixtures.channel(workspace);
+        MessageDTO parent = fixtures.post(alice, doomed, "old thread");
+        fixtures.reply(bob, parent, "old reply");
+        messageService.archiveExpiredMessages(workspace.getId(), doomed.getId(), null, System.currentTimeMillis() + 1, 100);
+        assertThat(messageService.getMessagesByIds(List.of(parent.getId())).getMissingIds()).isEmpty();
+
+        DeleteJob queued = channelService.deleteChannel(doomed.getId());
+        deleteJobService.runPending();
+
+        assertThat(deleteJobService.getJob(queued.getId()).getStatus()).isEqualTo(DeleteJob.Status.COMPLETED);
+        assertThat(messageService.getMessagesByIds(List.of(parent.getId())).getMissingIds()).containsExactly(parent.getId());
+    }
+
+    @Test
+    void workspacesArePurgedWithEverythingUnderThem() {
+        Channel channel = fixtures.channel(workspace);
+        Conversation dm = fixtures.conversation(alice, bob);
+        fixtures.post(alice, channel, "in a channel");
+        fixtures.post(bob, dm, "in a DM");
+        fixtures.post(alice, dm, "answer");
+        Workspace other = fixtures.workspace(fixtures.user("Other"));
+        fixtures.post(fixtures.owner(other), fixtures.channel(other), "elsewhere");
+
+        DeleteJob queued = workspaceService.deleteWorkspace(workspace.getId());
+        deleteJobService.runPending();
+
+        DeleteJob done = deleteJobService.getJob(queued.getId());
+        assertThat(done.getStatus()).isEqualTo(DeleteJob.Status.COMPLETED);
+        assertThat(done.getTotalMessages()).isEqualTo(3L);
+        assertThat(done.getDeletedMessages()).isEqualTo(3L);
+        for (String table : List.of("messages", "channels", "conversations", "members")) {
+            assertThat(count("SELECT COUNT(*) FROM " + table + " WHERE workspace_id = ?", workspace.getId())).as(table).isZero();
+        }
+        assertThat(count("SELECT COUNT(*) FROM workspaces WHERE id = ?", workspace.getId())).isZero();
+        assertThat(count("SELECT COUNT(*) FROM messages WHERE workspace_id = ?", other.getId())).isEqualTo(1);
+    }
+
+    private int count(String sql, String id) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, id);
+    }
+}
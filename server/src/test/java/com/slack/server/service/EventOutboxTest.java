@@ -0,0 +1,61 @@
+package com.slack.server.service;
+
+import com.slack.server.model.event.WebSocketEvent;
+import com.slack.server.service.impl.EventOutboxImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class EventOutboxTest {
+
+    @Test
+    void fullLaneTellsTheTopicToResyncInsteadOfBlockingThePublisher() throws Exception {
+        CountDownLatch firstSending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> sent = new CopyOnWriteArrayList<>();
+        List<String> senders = new CopyOnWriteArrayList<>();
+        SimpMessagingTemplate template = mock(SimpMessagingTemplate.class);
+        doAnswer(invocation -> {
+            firstSending.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            Object event = invocation.getArgument(1);
+            sent.add(event instanceof WebSocketEvent<?> ws ? invocation.getArgument(0) + " " + ws.getType() : (String) event);
+            senders.add(Thread.currentThread().getName());
+            return null;
+        }).when(template).convertAndSend(anyString(), any(Object.class));
+
+        // One lane with room for a single waiting event
+        EventOutboxImpl outbox = new EventOutboxImpl(1, 1);
+        ReflectionTestUtils.setField(outbox, "messagingTemplate", template);
+
+        outbox.publish("ws", "/topic/ws", "first");
+        assertThat(firstSending.await(5, TimeUnit.SECONDS)).isTrue();
+        outbox.publish("ws", "/topic/ws", "second");
+        long started = System.nanoTime();
+        outbox.publish("ws", "/topic/ws", "third");
+        outbox.publish("ws", "/topic/ws/channel/c", "typing");
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (sent.size() < 4 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        outbox.publish("ws", "/topic/ws", "fourth");
+        ReflectionTestUtils.invokeMethod(outbox, "shutdown");
+
+        assertThat(waitedMs).isLessThan(40);
+        assertThat(sent).containsExactly("first", "/topic/ws RESYNC", "/topic/ws/channel/c RESYNC", "second", "fourth");
+        assertThat(senders).allMatch(name -> name.startsWith("ws-dispatch-"));
+    }
+}
@@ -0,0 +1,147 @@
+package com.slack.server.service;
+
+import com.slack.server.TestFixtures;
+import com.slack.server.dto.ImportResultDTO;
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.model.Member;
+import com.slack.server.model.User;
+import com.slack.server.model.Workspace;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Tiny batches, so replies and their parents land in different batches
+@SpringBootTest(properties = "app.import.batch-size=2")
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+class ImportTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Workspace workspace;
+    // Emails and channel names are shared across tests, so each test imports its own
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        User owner = fixtures.user("Owner");
+        workspace = fixtures.workspace(owner);
+        prefix = UUID.randomUUID().toString().substring(0, 8);
+        fixtures.signIn(owner);
+    }
+
+    @Test
+    void repliesMayComeBeforeTheirParent() {
+        ImportResultDTO result = importLines(
+            people(),
+            "{\"type\":\"channel\",\"id\":\"c1\",\"name\":\"" + prefix + "-general\",\"createdAt\":1000}",
+            message("r1", "p1", 3000, "reply listed first"),
+            message("r2", "p1", 4000, "second reply"),
+            message("p1", null, 2000, "parent"),
+            message("p2", null, 5000, "later post"),
+            message("r3", "p2", 6000, "reply in order"));
+
+        assertThat(result.getMessages()).isEqualTo(5);
+        List<MessageDTO> timeline = messageService.getChannelMessages(importedChannelId(), null, null, 10).getContent();
+        assertThat(timeline).extracting(MessageDTO::getBody).allSatisfy(body -> assertThat(body).doesNotContain("reply"));
+        assertThat(timeline).extracting(MessageDTO::getThreadCount).containsExactly(1, 2);
+        assertThat(timeline.get(1).getThreadTimestamp()).isEqualTo(4000L);
+    }
+
+    @Test
+    void repliesToMessagesMissingFromTheArchiveAreRejected() {
+        assertThatThrownBy(() -> importLines(
+                people(),
+                "{\"type\":\"channel\",\"id\":\"c1\",\"name\":\"" + prefix + "-general\"}",
+                message("p1", null, 2000, "parent"),
+                message("r1", "gone", 3000, "orphan"),
+                "{\"type\":\"reaction\",\"messageId\":\"p1\",\"memberId\":\"m1\",\"value\":\"eyes\"}"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("r1")
+            .hasMessageContaining("gone");
+    }
+
+    @Test
+    void countersOfOtherWorkspacesAreLeftAlone() {
+        User otherOwner = fixtures.user("Other");
+        Workspace other = fixtures.workspace(otherOwner);
+        Member author = fixtures.owner(other);
+        MessageDTO parent = fixtures.post(author, fixtures.channel(other), "parent");
+        fixtures.reply(author, parent, "reply");
+        jdbcTemplate.update("UPDATE messages SET reply_count = 7 WHERE id = ?", parent.getId());
+
+        importLines(people(),
+            "{\"type\":\"channel\",\"id\":\"c1\",\"name\":\"" + prefix + "-general\"}",
+            message("p1", null, 2000, "parent"));
+
+        assertThat(messageService.getMessageDTO(parent.getId()).getThreadCount()).isEqualTo(7);
+    }
+
+    @Test
+    void usersAreOnlyMatchedToAccountsInTheWorkspace() {
+        User outsider = fixtures.user("Outsider");
+        User colleague = fixtures.user("Colleague");
+        fixtures.member(workspace, colleague);
+
+        importLines(
+            "{\"type\":\"user\",\"id\":\"u1\",\"name\":\"Imported\",\"email\":\"" + outsider.getEmail() + "\"}",
+            "{\"type\":\"user\",\"id\":\"u2\",\"name\":\"Colleague\",\"email\":\"" + colleague.getEmail() + "\"}",
+            "{\"type\":\"member\",\"id\":\"m1\",\"userId\":\"u1\"}",
+            "{\"type\":\"member\",\"id\":\"m2\",\"userId\":\"u2\"}",
+            "{\"type\":\"channel\",\"id\":\"c1\",\"name\":\"" + prefix + "-general\"}",
+            message("p1", null, 2000, "not from the outsider"));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM members WHERE workspace_id = ? AND user_id = ?",
+            Integer.class, workspace.getId(), outsider.getId())).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM members WHERE workspace_id = ? AND user_id = ?",
+            Integer.class, workspace.getId(), colleague.getId())).isEqualTo(1);
+        MessageDTO imported = messageService.getChannelMessages(importedChannelId(), null, null, 10).getContent().get(0);
+        assertThat(imported.getMember().getUser().getId()).isNotEqualTo(outsider.getId());
+        // The outsider keeps their email; the imported account that wanted it gets a placeholder
+        assertThat(jdbcTemplate.queryForObject("SELECT email FROM users WHERE id = CAST(? AS uuid)", String.class,
+            imported.getMember().getUser().getId())).endsWith("@imported.invalid");
+    }
+
+    private String people() {
+        return "{\"type\":\"user\",\"id\":\"u1\",\"name\":\"Imported\",\"email\":\"" + prefix + "@import.test\"}\n" +
+            "{\"type\":\"member\",\"id\":\"m1\",\"userId\":\"u1\"}";
+    }
+
+    private static String message(String id, String parentId, long createdAt, String text) {
+        return "{\"type\":\"message\",\"id\":\"" + id + "\",\"memberId\":\"m1\",\"channelId\":\"c1\"," +
+            (parentId != null ? "\"parentMessageId\":\"" + parentId + "\"," : "") +
+            "\"createdAt\":" + createdAt + ",\"body\":\"" + text + "\"}";
+    }
+
+    private ImportResultDTO importLines(String... lines) {
+        byte[] archive = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        return importService.importWorkspace(workspace.getId(), new ByteArrayInputStream(archive));
+    }
+
+    private String importedChannelId() {
+        return jdbcTemplate.queryForObject("SELECT CAST(id AS varchar) FROM channels WHERE workspace_id = ? AND name = ?",
+            String.class, workspace.getId(), prefix + "-general");
+    }
+}
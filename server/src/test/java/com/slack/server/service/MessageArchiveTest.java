@@ -0,0 +1,93 @@
+package com.slack.server.service;
+
+import com.slack.server.TestFixtures;
+import com.slack.server.dto.MessageBatchDTO;
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.model.Channel;
+import com.slack.server.model.Member;
+import com.slack.server.model.User;
+import com.slack.server.model.Workspace;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+class MessageArchiveTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MessageService messageService;
+
+    private Workspace workspace;
+    private Member alice;
+    private Channel channel;
+
+    @BeforeEach
+    void setUp() {
+        User aliceUser = fixtures.user("Alice");
+        workspace = fixtures.workspace(aliceUser);
+        alice = fixtures.owner(workspace);
+        channel = fixtures.channel(workspace);
+        fixtures.signIn(aliceUser);
+    }
+
+    @Test
+    void archivedThreadsAreReadFromTheArchive() {
+        MessageDTO parent = fixtures.post(alice, channel, "old thread");
+        MessageDTO reply = fixtures.reply(alice, parent, "old reply");
+
+        assertThat(archiveEverything()).isEqualTo(1);
+
+        assertThat(messageService.getChannelMessages(channel.getId(), null, null, 10).getContent())
+            .extracting(MessageDTO::getId).containsExactly(parent.getId());
+        assertThat(messageService.getThreadMessages(parent.getId()))
+            .extracting(MessageDTO::getId).containsExactly(reply.getId());
+        assertThat(messageService.getMessageDTO(parent.getId()).getBody()).contains("old thread");
+    }
+
+    @Test
+    void bulkFetchResolvesArchivedThreadParentsLikeASingleFetch() {
+        MessageDTO archived = fixtures.post(alice, channel, "archived");
+        fixtures.reply(alice, archived, "reply");
+        archiveEverything();
+        MessageDTO live = fixtures.post(alice, channel, "live");
+        String unknown = UUID.randomUUID().toString();
+
+        MessageBatchDTO batch = messageService.getMessagesByIds(List.of(live.getId(), unknown, archived.getId()));
+
+        assertThat(batch.getMessages()).extracting(MessageDTO::getId).containsExactly(live.getId(), archived.getId());
+        assertThat(batch.getMessages().get(1).getThreadCount()).isEqualTo(1);
+        assertThat(batch.getMissingIds()).containsExactly(unknown);
+    }
+
+    @Test
+    void repliesToMissingOrArchivedParentsAreNotFound() {
+        MessageDTO archived = fixtures.post(alice, channel, "archived");
+        archiveEverything();
+
+        assertThatThrownBy(() -> fixtures.reply(alice, archived, "too late"))
+            .isInstanceOf(EntityNotFoundException.class).hasMessage("Parent message not found");
+        assertThatThrownBy(() -> messageService.createMessage(TestFixtures.body("orphan"), null, workspace.getId(),
+                alice.getId(), channel.getId(), null, UUID.randomUUID().toString(), null))
+            .isInstanceOf(EntityNotFoundException.class).hasMessage("Parent message not found");
+    }
+
+    private int archiveEverything() {
+        return messageService.archiveExpiredMessages(workspace.getId(), channel.getId(), null,
+            System.currentTimeMillis() + 1, 100);
+    }
+}
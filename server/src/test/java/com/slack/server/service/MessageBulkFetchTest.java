@@ -0,0 +1,88 @@
+package com.slack.server.service;
+
+import com.slack.server.TestFixtures;
+import com.slack.server.dto.MessageBatchDTO;
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.model.Channel;
+import com.slack.server.model.Member;
+import com.slack.server.model.User;
+import com.slack.server.model.Workspace;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+class MessageBulkFetchTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private ReactionService reactionService;
+
+    private Member alice;
+    private Channel channel;
+
+    @BeforeEach
+    void setUp() {
+        User aliceUser = fixtures.user("Alice");
+        Workspace workspace = fixtures.workspace(aliceUser);
+        alice = fixtures.owner(workspace);
+        channel = fixtures.channel(workspace);
+        fixtures.signIn(aliceUser);
+    }
+
+    @Test
+    void messagesComeBackInRequestOrderWithMissingIdsReported() {
+        MessageDTO first = fixtures.post(alice, channel, "first");
+        MessageDTO second = fixtures.post(alice, channel, "second");
+        MessageDTO reply = fixtures.reply(alice, first, "reply");
+        String unknown = UUID.randomUUID().toString();
+
+        MessageBatchDTO batch = messageService.getMessagesByIds(
+            Arrays.asList(reply.getId(), unknown, second.getId(), null, reply.getId(), first.getId()));
+
+        assertThat(batch.getMessages()).extracting(MessageDTO::getId)
+            .containsExactly(reply.getId(), second.getId(), first.getId());
+        assertThat(batch.getMessages().get(2).getThreadCount()).isEqualTo(1);
+        assertThat(batch.getMissingIds()).containsExactly(unknown);
+    }
+
+    @Test
+    void theViewersReactionsAreFlagged() {
+        MessageDTO message = fixtures.post(alice, channel, "react to me");
+        reactionService.addReaction(message.getId(), alice.getId(), "eyes");
+
+        MessageDTO fetched = messageService.getMessagesByIds(List.of(message.getId())).getMessages().get(0);
+
+        assertThat(fetched.getReactions()).singleElement()
+            .satisfies(group -> assertThat(group.isReactedByMe()).isTrue());
+    }
+
+    @Test
+    void batchesAreCapped() {
+        List<String> ids = new ArrayList<>(List.of(fixtures.post(alice, channel, "one").getId()));
+        for (int i = 0; i < 500; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+
+        assertThatThrownBy(() -> messageService.getMessagesByIds(ids)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(messageService.getMessagesByIds(ids.subList(0, 500)).getMissingIds()).hasSize(499);
+    }
+}
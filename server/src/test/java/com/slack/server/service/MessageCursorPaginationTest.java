@@ -0,0 +1,161 @@
+package com.slack.server.service;
+
+import com.slack.server.TestFixtures;
+import com.slack.server.dto.MessageCursor;
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.model.Channel;
+import com.slack.server.model.Conversation;
+import com.slack.server.model.Member;
+import com.slack.server.model.User;
+import com.slack.server.model.Workspace;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+class MessageCursorPaginationTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MessageService messageService;
+
+    private Member owner;
+    private Member other;
+    private Channel channel;
+
+    @BeforeEach
+    void setUp() {
+        User user = fixtures.user("Owner");
+        Workspace workspace = fixtures.workspace(user);
+        owner = fixtures.owner(workspace);
+        other = fixtures.member(workspace, fixtures.user("Other"));
+        channel = fixtures.channel(workspace);
+        fixtures.signIn(user);
+    }
+
+    @Test
+    void walkingBackVisitsEveryTopLevelMessageOnceNewestFirst() {
+        // Posted back to back, so several share a millisecond and only the id orders them
+        List<String> posted = postAll(7);
+        fixtures.reply(other, messageService.getMessageDTO(posted.get(3)), "not on the timeline");
+
+        List<String> seen = new ArrayList<>();
+        MessageCursor before = null;
+        Slice<MessageDTO> page;
+        do {
+            page = messageService.getChannelMessages(channel.getId(), before, null, 3);
+            page.getContent().forEach(message -> seen.add(message.getId()));
+            if (page.hasContent()) {
+                before = MessageCursor.of(page.getContent().get(page.getNumberOfElements() - 1));
+            }
+        } while (page.hasNext());
+
+        assertThat(seen).containsExactlyElementsOf(reversed(posted));
+    }
+
+    @Test
+    void pagesDoNotShiftWhenNewMessagesArrive() {
+        List<String> posted = postAll(6);
+
+        Slice<MessageDTO> first = messageService.getChannelMessages(channel.getId(), null, null, 3);
+        fixtures.post(other, channel, "arrived while reading");
+        Slice<MessageDTO> second = messageService.getChannelMessages(channel.getId(),
+            MessageCursor.of(first.getContent().get(2)), null, 3);
+
+        assertThat(ids(first)).containsExactlyElementsOf(reversed(posted.subList(3, 6)));
+        assertThat(ids(second)).containsExactlyElementsOf(reversed(posted.subList(0, 3)));
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    void afterCursorReturnsTheNextNewerMessages() {
+        List<String> posted = postAll(6);
+        MessageCursor oldest = MessageCursor.of(messageService.getMessageDTO(posted.get(0)));
+
+        Slice<MessageDTO> newer = messageService.getChannelMessages(channel.getId(), null, oldest, 3);
+
+        assertThat(ids(newer)).containsExactlyElementsOf(reversed(posted.subList(1, 4)));
+        assertThat(newer.hasNext()).isTrue();
+    }
+
+    @Test
+    void conversationsPageTheSameWay() {
+        Conversation conversation = fixtures.conversation(owner, other);
+        List<String> posted = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            posted.add(fixtures.post(i % 2 == 0 ? owner : other, conversation, "dm " + i).getId());
+        }
+
+        Slice<MessageDTO> first = messageService.getConversationMessages(conversation.getId(), null, null, 3);
+        Slice<MessageDTO> second = messageService.getConversationMessages(conversation.getId(),
+            MessageCursor.of(first.getContent().get(2)), null, 3);
+
+        assertThat(ids(first)).containsExactlyElementsOf(reversed(posted.subList(2, 5)));
+        assertThat(ids(second)).containsExactlyElementsOf(reversed(posted.subList(0, 2)));
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    void threadRepliesPageOldestFirstOrNewestFirst() {
+        MessageDTO parent = fixtures.post(owner, channel, "parent");
+        List<String> replies = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            replies.add(fixtures.reply(i % 2 == 0 ? owner : other, parent, "reply " + i).getId());
+        }
+
+        Slice<MessageDTO> first = messageService.getThreadMessages(parent.getId(), null, false, 3);
+        Slice<MessageDTO> second = messageService.getThreadMessages(parent.getId(),
+            MessageCursor.of(first.getContent().get(2)), false, 3);
+        Slice<MessageDTO> latest = messageService.getThreadMessages(parent.getId(), null, true, 2);
+        Slice<MessageDTO> earlier = messageService.getThreadMessages(parent.getId(),
+            MessageCursor.of(latest.getContent().get(1)), true, 2);
+
+        assertThat(ids(first)).containsExactlyElementsOf(replies.subList(0, 3));
+        assertThat(first.hasNext()).isTrue();
+        assertThat(ids(second)).containsExactlyElementsOf(replies.subList(3, 5));
+        assertThat(second.hasNext()).isFalse();
+        assertThat(ids(latest)).containsExactlyElementsOf(reversed(replies.subList(3, 5)));
+        assertThat(ids(earlier)).containsExactlyElementsOf(reversed(replies.subList(1, 3)));
+    }
+
+    @Test
+    void cursorTokensRoundTripAndRejectGarbage() {
+        MessageCursor cursor = new MessageCursor(1_700_000_000_000L, "b9a1c2d3-0000-4000-8000-000000000000");
+
+        assertThat(MessageCursor.decode(cursor.encode())).isEqualTo(cursor);
+        assertThat(MessageCursor.decode(" ")).isNull();
+        assertThatThrownBy(() -> MessageCursor.decode("not-a-cursor")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<String> postAll(int count) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(fixtures.post(i % 2 == 0 ? owner : other, channel, "message " + i).getId());
+        }
+        return ids;
+    }
+
+    private static List<String> ids(Slice<MessageDTO> slice) {
+        return slice.getContent().stream().map(MessageDTO::getId).toList();
+    }
+
+    private static List<String> reversed(List<String> ids) {
+        List<String> copy = new ArrayList<>(ids);
+        java.util.Collections.reverse(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,115 @@
+package com.slack.server.service;
+
+import com.slack.server.TestFixtures;
+import com.slack.server.dto.MessageChangeCursor;
+import com.slack.server.dto.MessageChangesDTO;
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.model.Channel;
+import com.slack.server.model.Member;
+import com.slack.server.model.User;
+import com.slack.server.model.Workspace;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+class MessageDeltaSyncTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private ReactionService reactionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Member alice;
+    private Member bob;
+    private Channel channel;
+
+    @BeforeEach
+    void setUp() {
+        User aliceUser = fixtures.user("Alice");
+        Workspace workspace = fixtures.workspace(aliceUser);
+        alice = fixtures.owner(workspace);
+        bob = fixtures.member(workspace, fixtures.user("Bob"));
+        channel = fixtures.channel(workspace);
+        fixtures.signIn(aliceUser);
+    }
+
+    @Test
+    void firstSyncOnlyHandsOutACursor() {
+        fixtures.post(alice, channel, "already loaded");
+
+        MessageChangesDTO changes = messageService.getChannelChanges(channel.getId(), null, 100);
+
+        assertThat(changes.getMessages()).isEmpty();
+        assertThat(changes.getDeleted()).isEmpty();
+        assertThat(MessageChangeCursor.decode(changes.getNextCursor())).isNotNull();
+    }
+
+    @Test
+    void returnsEverythingTouchedSinceTheCursor() {
+        MessageDTO untouched = past(fixtures.post(alice, channel, "untouched"));
+        MessageDTO edited = past(fixtures.post(alice, channel, "to edit"));
+        MessageDTO reacted = past(fixtures.post(bob, channel, "to react to"));
+        MessageDTO deleted = past(fixtures.post(bob, channel, "to delete"));
+        MessageChangeCursor since = new MessageChangeCursor(System.currentTimeMillis());
+
+        MessageDTO posted = fixtures.post(alice, channel, "new");
+        MessageDTO reply = fixtures.reply(bob, untouched, "new reply");
+        messageService.updateMessage(edited.getId(), TestFixtures.body("edited"));
+        reactionService.addReaction(reacted.getId(), alice.getId(), "eyes");
+        messageService.deleteMessage(deleted.getId());
+
+        MessageChangesDTO changes = messageService.getChannelChanges(channel.getId(), since, 100);
+
+        // The parent of a new reply changes too: its thread counters moved
+        assertThat(changes.getMessages()).extracting(MessageDTO::getId).containsExactlyInAnyOrder(
+            posted.getId(), reply.getId(), untouched.getId(), edited.getId(), reacted.getId());
+        assertThat(changes.getDeleted()).extracting(MessageChangesDTO.DeletedMessageDTO::getId)
+            .containsExactly(deleted.getId());
+        assertThat(changes.isResyncRequired()).isFalse();
+        assertThat(MessageChangeCursor.decode(changes.getNextCursor()).since()).isGreaterThanOrEqualTo(since.since());
+    }
+
+    @Test
+    void tooManyChangesAskForAResync() {
+        MessageChangeCursor since = new MessageChangeCursor(System.currentTimeMillis());
+        for (int i = 0; i < 3; i++) {
+            fixtures.post(alice, channel, "burst " + i);
+        }
+
+        MessageChangesDTO changes = messageService.getChannelChanges(channel.getId(), since, 2);
+
+        assertThat(changes.isResyncRequired()).isTrue();
+        assertThat(changes.getMessages()).isEmpty();
+    }
+
+    @Test
+    void cursorsOlderThanTombstoneRetentionAskForAResync() {
+        MessageChangeCursor ancient = new MessageChangeCursor(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(365));
+
+        assertThat(messageService.getChannelChanges(channel.getId(), ancient, 100).isResyncRequired()).isTrue();
+    }
+
+    // Syncs re-read a few seconds before the cursor, so set-up messages are moved well out of that window
+    private MessageDTO past(MessageDTO message) {
+        jdbcTemplate.update("UPDATE messages SET changed_at = changed_at - 60000 WHERE id = ?", message.getId());
+        return message;
+    }
+}
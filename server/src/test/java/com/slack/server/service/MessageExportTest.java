@@ -0,0 +1,92 @@
+package com.slack.server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.slack.server.TestFixtures;
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.dto.ReactionSummaryDTO;
+import com.slack.server.model.Channel;
+import com.slack.server.model.Member;
+import com.slack.server.model.User;
+import com.slack.server.model.Workspace;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+class MessageExportTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private ReactionService reactionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Workspace workspace;
+    private Member alice;
+    private Channel channel;
+
+    @BeforeEach
+    void setUp() {
+        User aliceUser = fixtures.user("Alice");
+        workspace = fixtures.workspace(aliceUser);
+        alice = fixtures.owner(workspace);
+        channel = fixtures.channel(workspace);
+        fixtures.signIn(aliceUser);
+    }
+
+    @Test
+    void archivedHistoryLeadsAndLiveHistoryFollowsOldestFirst() throws Exception {
+        MessageDTO oldParent = fixtures.post(alice, channel, "old");
+        MessageDTO oldReply = fixtures.reply(alice, oldParent, "old reply");
+        messageService.archiveExpiredMessages(workspace.getId(), channel.getId(), null, System.currentTimeMillis() + 1, 100);
+        MessageDTO parent = fixtures.post(alice, channel, "new");
+        MessageDTO reply = fixtures.reply(alice, parent, "new reply");
+        MessageDTO last = fixtures.post(alice, channel, "newest");
+
+        assertThat(export()).extracting(MessageDTO::getId)
+            .containsExactly(oldParent.getId(), oldReply.getId(), parent.getId(), reply.getId(), last.getId());
+    }
+
+    @Test
+    void exportsKeepEveryReactor() throws Exception {
+        MessageDTO message = fixtures.post(alice, channel, "popular");
+        int reactors = ReactionSummaryDTO.REACTOR_SAMPLE_SIZE + 3;
+        for (int i = 0; i < reactors; i++) {
+            Member member = fixtures.member(workspace, fixtures.user("Reactor" + i));
+            reactionService.addReaction(message.getId(), member.getId(), "eyes");
+        }
+
+        ReactionSummaryDTO eyes = export().get(0).getReactions().get(0);
+
+        assertThat(eyes.getCount()).isEqualTo(reactors);
+        assertThat(eyes.getReactors()).hasSize(reactors);
+    }
+
+    private List<MessageDTO> export() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        messageService.exportChannelHistory(channel.getId(), out);
+        List<MessageDTO> messages = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            messages.add(objectMapper.readValue(line, MessageDTO.class));
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,107 @@
+package com.slack.server.service;
+
+import com.slack.server.TestFixtures;
+import com.slack.server.controller.MessageController;
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.model.Channel;
+import com.slack.server.model.Member;
+import com.slack.server.model.User;
+import com.slack.server.model.Workspace;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+class MessageIdempotencyTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MessageController messageController;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Workspace workspace;
+    private Member alice;
+    private Member bob;
+    private Channel channel;
+    private String key;
+
+    @BeforeEach
+    void setUp() {
+        User aliceUser = fixtures.user("Alice");
+        workspace = fixtures.workspace(aliceUser);
+        alice = fixtures.owner(workspace);
+        bob = fixtures.member(workspace, fixtures.user("Bob"));
+        channel = fixtures.channel(workspace);
+        key = UUID.randomUUID().toString();
+        fixtures.signIn(aliceUser);
+    }
+
+    @Test
+    void retriesGetTheOriginalMessage() {
+        MessageDTO first = post(alice, key);
+        MessageDTO retried = post(alice, key);
+
+        assertThat(retried.getId()).isEqualTo(first.getId());
+        assertThat(storedUnder(key)).isEqualTo(1);
+        assertThat(messageCount()).isEqualTo(1);
+    }
+
+    @Test
+    void keysBelongToTheirAuthor() {
+        MessageDTO fromAlice = post(alice, key);
+        MessageDTO fromBob = post(bob, key);
+
+        assertThat(fromBob.getId()).isNotEqualTo(fromAlice.getId());
+        assertThat(storedUnder(key)).isEqualTo(2);
+    }
+
+    @Test
+    void retriesAfterTheCacheForgotAreCaughtByTheUniqueIndex() {
+        // Stored under the key without ever passing through the cache, like a post from before a restart
+        MessageDTO original = fixtures.post(alice, channel, "original");
+        jdbcTemplate.update("UPDATE messages SET client_message_id = ? WHERE id = ?", key, original.getId());
+
+        MessageDTO retried = post(alice, key);
+
+        assertThat(retried.getId()).isEqualTo(original.getId());
+        assertThat(storedUnder(key)).isEqualTo(1);
+    }
+
+    @Test
+    void keysMustBeShort() {
+        assertThatThrownBy(() -> post(alice, "k".repeat(101))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private MessageDTO post(Member member, String idempotencyKey) {
+        MessageController.CreateMessageRequest request = new MessageController.CreateMessageRequest();
+        request.setBody(TestFixtures.body("hello"));
+        request.setWorkspaceId(workspace.getId());
+        request.setMemberId(member.getId());
+        request.setChannelId(channel.getId());
+        return messageController.createMessage(idempotencyKey, request).getBody();
+    }
+
+    private int storedUnder(String clientMessageId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM messages WHERE client_message_id = ?",
+            Integer.class, clientMessageId);
+    }
+
+    private int messageCount() {
+        return jdbcTemplate.queryForObject("SELECT message_count FROM channels WHERE id = ?", Integer.class, channel.getId());
+    }
+}
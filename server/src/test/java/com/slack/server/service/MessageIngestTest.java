@@ -0,0 +1,167 @@
+package com.slack.server.service;
+
+import com.slack.server.TestFixtures;
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.job.MessageIngestJob;
+import com.slack.server.model.Channel;
+import com.slack.server.model.Member;
+import com.slack.server.model.User;
+import com.slack.server.model.Workspace;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The writer only runs when a test calls it, so each test decides what ends up in one batch
+@SpringBootTest(properties = {
+    "app.messages.ingest.enabled=true",
+    "app.messages.ingest.flush-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+class MessageIngestTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private MessageIngestQueue messageIngestQueue;
+
+    @Autowired
+    private MessageIngestJob messageIngestJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Workspace workspace;
+    private Member alice;
+    private Channel channel;
+
+    @BeforeEach
+    void setUp() {
+        User aliceUser = fixtures.user("Alice");
+        workspace = fixtures.workspace(aliceUser);
+        alice = fixtures.owner(workspace);
+        channel = fixtures.channel(workspace);
+        fixtures.signIn(aliceUser);
+    }
+
+    @Test
+    void postsAreAnsweredOnceStored() {
+        MessageDTO posted = ingest(() -> messageService.ingestMessage(TestFixtures.body("hello"), null,
+            workspace.getId(), alice.getId(), channel.getId(), null, null, null));
+
+        assertThat(messageService.getMessageDTO(posted.getId()).getBody()).contains("hello");
+        assertThat(messageService.getChannelMessages(channel.getId(), null, null, 10).getContent())
+            .extracting(MessageDTO::getId).containsExactly(posted.getId());
+    }
+
+    @Test
+    void retriesWithTheSameKeyGetTheStoredMessage() {
+        String key = UUID.randomUUID().toString();
+        Supplier<MessageDTO> post = () -> messageService.ingestMessage(TestFixtures.body("once"), null,
+            workspace.getId(), alice.getId(), channel.getId(), null, null, key);
+
+        MessageDTO first = ingest(post);
+        MessageDTO retried = ingest(post);
+
+        assertThat(retried.getId()).isEqualTo(first.getId());
+        assertThat(storedUnder(key)).isEqualTo(1);
+    }
+
+    @Test
+    void timelinesOutsideTheMembersWorkspaceAreRejected() {
+        Workspace elsewhere = fixtures.workspace(fixtures.user("Mallory"));
+        Channel foreign = fixtures.channel(elsewhere);
+
+        assertThatThrownBy(() -> ingest(() -> messageService.ingestMessage(TestFixtures.body("sneaky"), null,
+                workspace.getId(), alice.getId(), foreign.getId(), null, null, null)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(messageService.getChannelMessages(foreign.getId(), null, null, 10).getContent()).isEmpty();
+    }
+
+    @Test
+    void aFailedMessageFailsAlone() {
+        Channel other = fixtures.channel(workspace);
+        MessageIngestQueue.IngestedMessage before = submit(channel, null, null);
+        MessageIngestQueue.IngestedMessage orphan = submit(channel, UUID.randomUUID().toString(), null);
+        MessageIngestQueue.IngestedMessage after = submit(channel, null, null);
+        MessageIngestQueue.IngestedMessage elsewhere = submit(other, null, null);
+
+        messageIngestJob.flush();
+
+        assertThatThrownBy(() -> orphan.written().join()).hasCauseInstanceOf(EntityNotFoundException.class);
+        assertThat(elsewhere.written().join().getId()).isEqualTo(elsewhere.id());
+        assertThat(messageService.getChannelMessages(channel.getId(), null, null, 10).getContent())
+            .extracting(MessageDTO::getId).containsExactly(after.id(), before.id());
+    }
+
+    @Test
+    void retriesInOneBatchShareOneMessage() {
+        String key = UUID.randomUUID().toString();
+        MessageIngestQueue.IngestedMessage first = submit(channel, null, key);
+        MessageIngestQueue.IngestedMessage retried = submit(channel, null, key);
+        MessageIngestQueue.IngestedMessage unrelated = submit(channel, null, null);
+
+        messageIngestJob.flush();
+
+        assertThat(retried.written().join().getId()).isEqualTo(first.written().join().getId());
+        assertThat(unrelated.written().join().getId()).isEqualTo(unrelated.id());
+        assertThat(storedUnder(key)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT message_count FROM channels WHERE id = ?", Integer.class,
+            channel.getId())).isEqualTo(2);
+    }
+
+    @Test
+    void retriesOfStoredMessagesDoNotFailTheirBatch() {
+        String key = UUID.randomUUID().toString();
+        MessageDTO original = fixtures.post(alice, channel, "original");
+        jdbcTemplate.update("UPDATE messages SET client_message_id = ? WHERE id = ?", key, original.getId());
+        MessageIngestQueue.IngestedMessage retried = submit(channel, null, key);
+        MessageIngestQueue.IngestedMessage unrelated = submit(channel, null, null);
+
+        messageIngestJob.flush();
+
+        assertThat(retried.written().join().getId()).isEqualTo(original.getId());
+        assertThat(unrelated.written().join().getId()).isEqualTo(unrelated.id());
+        assertThat(storedUnder(key)).isEqualTo(1);
+    }
+
+    private int storedUnder(String key) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM messages WHERE client_message_id = ?", Integer.class, key);
+    }
+
+    private MessageIngestQueue.IngestedMessage submit(Channel timeline, String parentMessageId, String clientMessageId) {
+        return messageIngestQueue.submit(TestFixtures.body("queued"), null, workspace.getId(), alice.getId(),
+            timeline.getId(), null, parentMessageId, clientMessageId);
+    }
+
+    // Posts from another thread and runs the writer until the poster has its answer
+    private MessageDTO ingest(Supplier<MessageDTO> post) {
+        CompletableFuture<MessageDTO> posted = CompletableFuture.supplyAsync(post);
+        while (!posted.isDone()) {
+            messageIngestJob.flush();
+            Thread.onSpinWait();
+        }
+        try {
+            return posted.join();
+        } catch (CompletionException ex) {
+            throw (RuntimeException) ex.getCause();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.slack.server.service;
+
+import com.slack.server.TestFixtures;
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.model.Channel;
+import com.slack.server.model.Member;
+import com.slack.server.model.User;
+import com.slack.server.model.Workspace;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A page of messages costs the same number of statements whatever the page size and however many
+ * replies and reactions its messages have: thread summaries and reactions are loaded per page, not per message.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+class MessagePageQueryCountTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private ReactionService reactionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Workspace workspace;
+    private List<Member> members;
+
+    @BeforeEach
+    void setUp() {
+        User owner = fixtures.user("Owner");
+        workspace = fixtures.workspace(owner);
+        members = new ArrayList<>(List.of(fixtures.owner(workspace)));
+        for (int i = 0; i < 3; i++) {
+            members.add(fixtures.member(workspace, fixtures.user("Member " + i)));
+        }
+        fixtures.signIn(owner);
+    }
+
+    @Test
+    void pageStatementCountDoesNotDependOnPageOrThreadSize() {
+        Channel quiet = channelWith(4, 1, 1);
+        Channel busy = channelWith(24, 4, 4);
+
+        // Page 1 skips the recent-message cache, so every page below is read from the database
+        long quietStatements = statementsFor(() -> messageService.getChannelMessages(quiet.getId(), PageRequest.of(1, 2)));
+        long smallPageStatements = statementsFor(() -> messageService.getChannelMessages(busy.getId(), PageRequest.of(1, 2)));
+        long largePageStatements = statementsFor(() -> messageService.getChannelMessages(busy.getId(), PageRequest.of(1, 10)));
+
+        // The page with its thread summaries, the count, the page's reactions and the viewer's own reactions
+        assertThat(quietStatements).isEqualTo(4);
+        assertThat(smallPageStatements).isEqualTo(quietStatements);
+        assertThat(largePageStatements).isEqualTo(quietStatements);
+    }
+
+    @Test
+    void pageCarriesThreadSummariesAndReactions() {
+        Channel busy = channelWith(3, 2, 3);
+
+        Page<MessageDTO> page = messageService.getChannelMessages(busy.getId(), PageRequest.of(1, 2));
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).hasSize(1).allSatisfy(message -> {
+            assertThat(message.getThreadCount()).isEqualTo(2);
+            assertThat(message.getThreadName()).isNotNull();
+            assertThat(message.getReactions()).hasSize(3);
+            assertThat(message.getReactions()).allSatisfy(reaction -> assertThat(reaction.isReactedByMe()).isTrue());
+        });
+    }
+
+    private long statementsFor(Supplier<Page<MessageDTO>> load) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Page<MessageDTO> page = load.get();
+        assertThat(page.getContent()).isNotEmpty();
+        return statistics.getPrepareStatementCount();
+    }
+
+    /** A channel of top-level messages, each with {@code replies} replies and reactions of {@code emojis} kinds */
+    private Channel channelWith(int messages, int replies, int emojis) {
+        Channel channel = fixtures.channel(workspace);
+        for (int m = 0; m < messages; m++) {
+            MessageDTO message = fixtures.post(members.get(m % members.size()), channel, "message " + m);
+            for (int r = 0; r < replies; r++) {
+                fixtures.reply(members.get(r % members.size()), message, "reply " + r);
+            }
+            for (int e = 0; e < emojis; e++) {
+                for (Member member : members) {
+                    reactionService.addReaction(message.getId(), member.getId(), "emoji-" + e);
+                }
+            }
+        }
+        return channel;
+    }
+}
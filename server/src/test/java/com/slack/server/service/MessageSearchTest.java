@@ -0,0 +1,134 @@
+package com.slack.server.service;
+
+import com.slack.server.TestFixtures;
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.dto.MessageSearchCursor;
+import com.slack.server.dto.MessageSearchResultDTO;
+import com.slack.server.model.Channel;
+import com.slack.server.model.Conversation;
+import com.slack.server.model.Member;
+import com.slack.server.model.User;
+import com.slack.server.model.Workspace;
+import com.slack.server.repository.MessageSearchRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+class MessageSearchTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private MessageSearchRepository messageSearchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User aliceUser;
+    private Workspace workspace;
+    private Member alice;
+    private Member bob;
+    private Member carol;
+    private Channel channel;
+    // Every test searches for its own word, so rows from other tests in the shared database never match
+    private String word;
+
+    @BeforeEach
+    void setUp() {
+        aliceUser = fixtures.user("Alice");
+        workspace = fixtures.workspace(aliceUser);
+        alice = fixtures.owner(workspace);
+        bob = fixtures.member(workspace, fixtures.user("Bob"));
+        carol = fixtures.member(workspace, fixtures.user("Carol"));
+        channel = fixtures.channel(workspace);
+        word = "w" + UUID.randomUUID().toString().replace("-", "");
+        fixtures.signIn(aliceUser);
+    }
+
+    @Test
+    void dmHitsAreLimitedToTheCallersOwnDms() {
+        MessageDTO inChannel = fixtures.post(bob, channel, word + " in the channel");
+        MessageDTO inOwnDm = fixtures.post(bob, fixtures.conversation(alice, bob), word + " for alice");
+        Conversation othersDm = fixtures.conversation(bob, carol);
+        fixtures.post(carol, othersDm, word + " between bob and carol");
+
+        assertThat(ids(search(null))).containsExactlyInAnyOrder(inChannel.getId(), inOwnDm.getId());
+        assertThat(ids(messageService.searchMessages(workspace.getId(), word, null, othersDm.getId(), null, null, 20)))
+            .isEmpty();
+    }
+
+    @Test
+    void onlyWorkspaceMembersMaySearch() {
+        fixtures.signIn(fixtures.user("Outsider"));
+
+        assertThatThrownBy(() -> search(null)).isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    void highlightsEscapeMessageText() {
+        fixtures.post(alice, channel, "<img src=x onerror=alert(1)> " + word);
+
+        MessageSearchResultDTO hit = search(null).getContent().get(0);
+
+        assertThat(hit.getHighlight()).contains("<mark>" + word + "</mark>");
+        assertThat(hit.getHighlight().replace("<mark>", "").replace("</mark>", "")).doesNotContain("<", ">");
+    }
+
+    @Test
+    void cursorWalksEveryMatchOnce() {
+        List<String> posted = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            posted.add(fixtures.post(i % 2 == 0 ? alice : bob, channel, word + " number " + i).getId());
+        }
+
+        List<String> seen = new ArrayList<>();
+        MessageSearchCursor after = null;
+        Slice<MessageSearchResultDTO> page;
+        do {
+            page = messageService.searchMessages(workspace.getId(), word, null, null, null, after, 2);
+            seen.addAll(ids(page));
+            after = page.hasContent() ? MessageSearchCursor.of(page.getContent().get(page.getNumberOfElements() - 1)) : null;
+        } while (page.hasNext());
+
+        assertThat(seen).containsExactlyInAnyOrderElementsOf(posted).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void backfillMakesOlderRowsSearchable() {
+        MessageDTO older = fixtures.post(alice, channel, word + " from before search_text");
+        jdbcTemplate.update("UPDATE messages SET search_text = NULL WHERE id = ?", older.getId());
+        assertThat(search(null).getContent()).isEmpty();
+
+        assertThat(messageSearchRepository.backfillSearchText()).isGreaterThanOrEqualTo(1);
+
+        assertThat(ids(search(null))).containsExactly(older.getId());
+    }
+
+    private Slice<MessageSearchResultDTO> search(String conversationId) {
+        return messageService.searchMessages(workspace.getId(), word, null, conversationId, null, null, 20);
+    }
+
+    private static List<String> ids(Slice<MessageSearchResultDTO> results) {
+        return results.getContent().stream().map(result -> result.getMessage().getId()).toList();
+    }
+}
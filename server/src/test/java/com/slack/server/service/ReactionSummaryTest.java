@@ -0,0 +1,99 @@
+package com.slack.server.service;
+
+import com.slack.server.TestFixtures;
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.dto.ReactionSummaryDTO;
+import com.slack.server.model.Channel;
+import com.slack.server.model.Member;
+import com.slack.server.model.User;
+import com.slack.server.model.Workspace;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+class ReactionSummaryTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private ReactionService reactionService;
+
+    private Workspace workspace;
+    private Member alice;
+    private Channel channel;
+    private MessageDTO message;
+
+    @BeforeEach
+    void setUp() {
+        User aliceUser = fixtures.user("Alice");
+        workspace = fixtures.workspace(aliceUser);
+        alice = fixtures.owner(workspace);
+        channel = fixtures.channel(workspace);
+        message = fixtures.post(alice, channel, "react to me");
+        fixtures.signIn(aliceUser);
+    }
+
+    @Test
+    void groupsCarryTheFullCountAndASampleOfReactors() {
+        List<Member> others = others(ReactionSummaryDTO.REACTOR_SAMPLE_SIZE + 2);
+        reactionService.addReaction(message.getId(), alice.getId(), "eyes");
+        others.forEach(member -> reactionService.addReaction(message.getId(), member.getId(), "eyes"));
+        reactionService.addReaction(message.getId(), others.get(0).getId(), "tada");
+
+        for (MessageDTO read : List.of(messageService.getMessageDTO(message.getId()), timelineCopy())) {
+            assertThat(read.getReactions()).extracting(ReactionSummaryDTO::getValue).containsExactly("eyes", "tada");
+            ReactionSummaryDTO eyes = read.getReactions().get(0);
+            assertThat(eyes.getCount()).isEqualTo(others.size() + 1);
+            assertThat(eyes.getReactors()).hasSize(ReactionSummaryDTO.REACTOR_SAMPLE_SIZE);
+            assertThat(eyes.isReactedByMe()).isTrue();
+            ReactionSummaryDTO tada = read.getReactions().get(1);
+            assertThat(tada.getCount()).isEqualTo(1);
+            assertThat(tada.isReactedByMe()).isFalse();
+        }
+        assertThat(reactionService.getReactors(message.getId(), "eyes")).hasSize(others.size() + 1);
+    }
+
+    @Test
+    void repeatsAreCountedOnceAndRemovalsShrinkTheGroup() {
+        Member bob = others(1).get(0);
+        reactionService.addReaction(message.getId(), alice.getId(), "eyes");
+        reactionService.addReaction(message.getId(), alice.getId(), "eyes");
+        reactionService.addReaction(message.getId(), bob.getId(), "eyes");
+        assertThat(timelineCopy().getReactions().get(0).getCount()).isEqualTo(2);
+
+        reactionService.removeReaction(message.getId(), alice.getId(), "eyes");
+        ReactionSummaryDTO eyes = timelineCopy().getReactions().get(0);
+        assertThat(eyes.getCount()).isEqualTo(1);
+        assertThat(eyes.isReactedByMe()).isFalse();
+
+        reactionService.removeReaction(message.getId(), bob.getId(), "eyes");
+        assertThat(timelineCopy().getReactions()).isEmpty();
+    }
+
+    private List<Member> others(int count) {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            members.add(fixtures.member(workspace, fixtures.user("Reactor" + i)));
+        }
+        return members;
+    }
+
+    private MessageDTO timelineCopy() {
+        return messageService.getChannelMessages(channel.getId(), null, null, 10).getContent().get(0);
+    }
+}
@@ -0,0 +1,146 @@
+package com.slack.server.service;
+
+import com.slack.server.TestFixtures;
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.dto.ReactionSummaryDTO;
+import com.slack.server.job.ReactionFlushJob;
+import com.slack.server.model.Channel;
+import com.slack.server.model.Member;
+import com.slack.server.model.TimeOrderedIds;
+import com.slack.server.model.User;
+import com.slack.server.model.Workspace;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+// The flush only runs when a test calls it
+@SpringBootTest(properties = {
+    "app.reactions.write-buffer.enabled=true",
+    "app.reactions.write-buffer.flush-interval-ms=3600000",
+    "app.reactions.write-buffer.max-pending=4"
+})
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+class ReactionWriteBufferTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private ReactionService reactionService;
+
+    @Autowired
+    private ReactionFlushJob reactionFlushJob;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReactionWriteBuffer reactionWriteBuffer;
+
+    private Workspace workspace;
+    private Member alice;
+    private Member bob;
+    private MessageDTO message;
+
+    @BeforeEach
+    void setUp() {
+        User aliceUser = fixtures.user("Alice");
+        workspace = fixtures.workspace(aliceUser);
+        alice = fixtures.owner(workspace);
+        bob = fixtures.member(workspace, fixtures.user("Bob"));
+        Channel channel = fixtures.channel(workspace);
+        message = fixtures.post(alice, channel, "react to me");
+        fixtures.signIn(aliceUser);
+    }
+
+    @Test
+    void togglesCollapseToTheirLastStateAtTheFlush() {
+        assertThat(reactionService.addReaction(message.getId(), alice.getId(), "eyes")).isNull();
+        reactionService.removeReaction(message.getId(), alice.getId(), "eyes");
+        reactionService.addReaction(message.getId(), alice.getId(), "eyes");
+        reactionService.addReaction(message.getId(), bob.getId(), "tada");
+        reactionService.removeReaction(message.getId(), bob.getId(), "tada");
+        reactionService.addReaction(message.getId(), bob.getId(), "eyes");
+        assertThat(stored()).isZero();
+
+        reactionFlushJob.flush();
+
+        assertThat(stored()).isEqualTo(2);
+        assertThat(messageService.getMessageDTO(message.getId()).getReactions())
+            .extracting(ReactionSummaryDTO::getValue, ReactionSummaryDTO::getCount)
+            .containsExactly(tuple("eyes", 2L));
+    }
+
+    @Test
+    void removalsOfStoredReactionsAreAppliedAtTheFlush() {
+        reactionService.addReaction(message.getId(), bob.getId(), "eyes");
+        reactionFlushJob.flush();
+        reactionService.removeReaction(message.getId(), bob.getId(), "eyes");
+        assertThat(stored()).isEqualTo(1);
+
+        reactionFlushJob.flush();
+
+        assertThat(stored()).isZero();
+    }
+
+    @Test
+    void reactionsFromOutsideTheMessagesWorkspaceAreRefusedBeforeBuffering() {
+        Member outsider = fixtures.owner(fixtures.workspace(fixtures.user("Mallory")));
+
+        assertThatThrownBy(() -> reactionService.addReaction(message.getId(), outsider.getId(), "eyes"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> reactionService.addReaction(TimeOrderedIds.next(), alice.getId(), "eyes"))
+            .isInstanceOf(EntityNotFoundException.class);
+        assertThat(reactionWriteBuffer.pendingMessages()).isZero();
+    }
+
+    @Test
+    void aFullBufferWritesNewReactionsDirectly() {
+        for (String value : List.of("a", "b", "c", "d")) {
+            assertThat(reactionService.addReaction(message.getId(), alice.getId(), value)).isNull();
+        }
+        // Replacing a pending toggle still fits
+        reactionService.removeReaction(message.getId(), alice.getId(), "a");
+
+        assertThat(reactionService.addReaction(message.getId(), bob.getId(), "e")).isNotNull();
+        assertThat(stored()).isEqualTo(1);
+
+        reactionFlushJob.flush();
+
+        assertThat(stored()).isEqualTo(4);
+    }
+
+    @Test
+    void aReactionStoredMeanwhileDoesNotFailItsBatch() {
+        reactionService.addReaction(message.getId(), bob.getId(), "eyes");
+        reactionService.addReaction(message.getId(), alice.getId(), "tada");
+        // Written behind the buffer's back, e.g. by another instance
+        jdbcTemplate.update("INSERT INTO reactions (id, value, workspace_id, message_id, member_id, created_at) " +
+            "VALUES (CAST(? AS uuid), 'eyes', CAST(? AS uuid), CAST(? AS uuid), CAST(? AS uuid), ?)",
+            TimeOrderedIds.next(), workspace.getId(), message.getId(), bob.getId(), System.currentTimeMillis());
+
+        reactionFlushJob.flush();
+
+        assertThat(stored()).isEqualTo(2);
+        assertThat(reactionWriteBuffer.pendingMessages()).isZero();
+    }
+
+    private int stored() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reactions WHERE message_id = ?", Integer.class, message.getId());
+    }
+}
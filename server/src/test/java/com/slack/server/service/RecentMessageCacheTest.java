@@ -0,0 +1,99 @@
+package com.slack.server.service;
+
+import com.slack.server.TestFixtures;
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.model.Channel;
+import com.slack.server.model.Member;
+import com.slack.server.model.User;
+import com.slack.server.model.Workspace;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** The newest page is served from memory and stays in step with every write to the timeline. */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+class RecentMessageCacheTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private ReactionService reactionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Member alice;
+    private Member bob;
+    private Channel channel;
+
+    @BeforeEach
+    void setUp() {
+        User aliceUser = fixtures.user("Alice");
+        Workspace workspace = fixtures.workspace(aliceUser);
+        alice = fixtures.owner(workspace);
+        bob = fixtures.member(workspace, fixtures.user("Bob"));
+        channel = fixtures.channel(workspace);
+        // No viewer: the viewer's own reactions are looked up per request and would add a statement
+        fixtures.signIn(null);
+    }
+
+    @Test
+    void warmPageIsServedWithoutTouchingTheDatabase() {
+        fixtures.post(alice, channel, "one");
+        fixtures.post(bob, channel, "two");
+        newestPage();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Page<MessageDTO> page = newestPage();
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void writesAreVisibleOnTheCachedPage() {
+        MessageDTO edited = fixtures.post(alice, channel, "before edit");
+        MessageDTO deleted = fixtures.post(bob, channel, "to be deleted");
+        MessageDTO threaded = fixtures.post(alice, channel, "thread parent");
+        newestPage();
+
+        MessageDTO posted = fixtures.post(bob, channel, "posted after warm-up");
+        messageService.updateMessage(edited.getId(), TestFixtures.body("after edit"));
+        messageService.deleteMessage(deleted.getId());
+        fixtures.reply(bob, threaded, "reply");
+        reactionService.addReaction(threaded.getId(), bob.getId(), "tada");
+
+        Page<MessageDTO> page = newestPage();
+        List<String> ids = page.getContent().stream().map(MessageDTO::getId).toList();
+
+        assertThat(ids).containsExactly(posted.getId(), threaded.getId(), edited.getId());
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent().get(1).getThreadCount()).isEqualTo(1);
+        assertThat(page.getContent().get(1).getReactions()).singleElement()
+            .satisfies(reaction -> assertThat(reaction.getCount()).isEqualTo(1));
+        assertThat(page.getContent().get(2).getBody()).contains("after edit");
+    }
+
+    private Page<MessageDTO> newestPage() {
+        return messageService.getChannelMessages(channel.getId(), PageRequest.of(0, 20));
+    }
+}
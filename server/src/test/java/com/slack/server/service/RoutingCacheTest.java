@@ -0,0 +1,114 @@
+package com.slack.server.service;
+
+import com.slack.server.TestFixtures;
+import com.slack.server.model.Channel;
+import com.slack.server.model.Conversation;
+import com.slack.server.model.Member;
+import com.slack.server.model.User;
+import com.slack.server.model.Workspace;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Every test starts with the routes it then changes already cached
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+class RoutingCacheTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private ChannelService channelService;
+
+    @Autowired
+    private ConversationService conversationService;
+
+    @Autowired
+    private RoutingCache routingCache;
+
+    @Autowired
+    private DeleteJobService deleteJobService;
+
+    private Workspace workspace;
+    private Member alice;
+    private Member bob;
+    private Channel channel;
+    private Conversation conversation;
+
+    @BeforeEach
+    void setUp() {
+        User aliceUser = fixtures.user("Alice");
+        workspace = fixtures.workspace(aliceUser);
+        alice = fixtures.owner(workspace);
+        bob = fixtures.member(workspace, fixtures.user("Bob"));
+        channel = fixtures.channel(workspace);
+        conversation = fixtures.conversation(alice, bob);
+        fixtures.signIn(aliceUser);
+        fixtures.post(bob, channel, "warm");
+        fixtures.post(bob, conversation, "warm");
+    }
+
+    @Test
+    void postsAcrossWorkspacesAreRejected() {
+        Workspace other = fixtures.workspace(fixtures.user("Mallory"));
+        Channel otherChannel = fixtures.channel(other);
+        Member mallory = fixtures.owner(other);
+        Conversation otherConversation = fixtures.conversation(mallory, fixtures.member(other, fixtures.user("Eve")));
+
+        assertThatThrownBy(() -> messageService.createMessage(TestFixtures.body("x"), null, other.getId(),
+                bob.getId(), otherChannel.getId(), null, null, null))
+            .isInstanceOf(IllegalArgumentException.class).hasMessage("Member is not in this workspace");
+        assertThatThrownBy(() -> messageService.createMessage(TestFixtures.body("x"), null, workspace.getId(),
+                bob.getId(), otherChannel.getId(), null, null, null))
+            .isInstanceOf(IllegalArgumentException.class).hasMessage("Channel is not in the member's workspace");
+        assertThatThrownBy(() -> messageService.createMessage(TestFixtures.body("x"), null, workspace.getId(),
+                bob.getId(), null, otherConversation.getId(), null, null))
+            .isInstanceOf(IllegalArgumentException.class).hasMessage("Conversation is not in the member's workspace");
+    }
+
+    @Test
+    void removedMembersCannotPost() {
+        // Members with messages or conversations can't be removed, so this one is only looked up
+        Member carol = fixtures.member(workspace, fixtures.user("Carol"));
+        routingCache.member(carol.getId());
+        memberService.removeMember(carol.getId());
+
+        assertThatThrownBy(() -> fixtures.post(carol, channel, "still here?"))
+            .isInstanceOf(EntityNotFoundException.class).hasMessage("Member not found");
+    }
+
+    @Test
+    void roleChangesShowOnTheNextPost() {
+        memberService.updateMemberRole(bob.getId(), Member.Role.ADMIN);
+
+        assertThat(fixtures.post(bob, channel, "promoted").getMember().getRole()).isEqualTo("ADMIN");
+    }
+
+    @Test
+    void deletedChannelsAndConversationsTakeNoPosts() {
+        channelService.deleteChannel(channel.getId());
+        conversationService.deleteConversation(conversation.getId());
+
+        assertThatThrownBy(() -> fixtures.post(bob, channel, "into the void"))
+            .isInstanceOf(EntityNotFoundException.class).hasMessage("Channel not found");
+        assertThatThrownBy(() -> fixtures.post(bob, conversation, "into the void"))
+            .isInstanceOf(EntityNotFoundException.class).hasMessage("Conversation not found");
+        // Purge them, as other application contexts reset the database and cannot see soft-deleted rows
+        deleteJobService.runPending();
+    }
+}
@@ -0,0 +1,119 @@
+package com.slack.server.service;
+
+import com.slack.server.TestFixtures;
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.job.ThreadCounterReconcileJob;
+import com.slack.server.model.Channel;
+import com.slack.server.model.Member;
+import com.slack.server.model.User;
+import com.slack.server.model.Workspace;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+class ThreadCounterTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private ThreadCounterReconcileJob threadCounterReconcileJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Member alice;
+    private Member bob;
+    private Channel channel;
+
+    @BeforeEach
+    void setUp() {
+        User aliceUser = fixtures.user("Alice");
+        Workspace workspace = fixtures.workspace(aliceUser);
+        alice = fixtures.owner(workspace);
+        bob = fixtures.member(workspace, fixtures.user("Bob"));
+        channel = fixtures.channel(workspace);
+        fixtures.signIn(aliceUser);
+    }
+
+    @Test
+    void repliesMaintainCountAndLastReply() {
+        MessageDTO parent = fixtures.post(alice, channel, "parent");
+        fixtures.reply(alice, parent, "first");
+        MessageDTO last = fixtures.reply(bob, parent, "second");
+
+        MessageDTO counted = messageService.getMessageDTO(parent.getId());
+
+        assertThat(counted.getThreadCount()).isEqualTo(2);
+        assertThat(counted.getThreadTimestamp()).isEqualTo(last.getCreatedAt());
+        assertThat(counted.getThreadName()).isEqualTo("Bob");
+    }
+
+    @Test
+    void deletingTheLastReplyRecomputesCounters() {
+        MessageDTO parent = fixtures.post(alice, channel, "parent");
+        MessageDTO first = fixtures.reply(alice, parent, "first");
+        MessageDTO last = fixtures.reply(bob, parent, "second");
+
+        messageService.deleteMessage(last.getId());
+        MessageDTO counted = messageService.getMessageDTO(parent.getId());
+
+        assertThat(counted.getThreadCount()).isEqualTo(1);
+        assertThat(counted.getThreadTimestamp()).isEqualTo(first.getCreatedAt());
+        assertThat(counted.getThreadName()).isEqualTo("Alice");
+    }
+
+    @Test
+    void reconcileRepairsEachDriftedCounter() {
+        MessageDTO staleCount = threadOfTwo();
+        MessageDTO staleTime = threadOfTwo();
+        MessageDTO staleAuthor = threadOfTwo();
+        jdbcTemplate.update("UPDATE messages SET reply_count = 7 WHERE id = ?", staleCount.getId());
+        jdbcTemplate.update("UPDATE messages SET last_reply_at = 1 WHERE id = ?", staleTime.getId());
+        // Count and time still agree with the replies; only the author is wrong
+        jdbcTemplate.update("UPDATE messages SET last_reply_member_id = ? WHERE id = ?", alice.getId(), staleAuthor.getId());
+
+        assertThat(messageService.reconcileThreadCounters()).isGreaterThanOrEqualTo(3);
+
+        for (MessageDTO parent : new MessageDTO[] { staleCount, staleTime, staleAuthor }) {
+            MessageDTO repaired = messageService.getMessageDTO(parent.getId());
+            assertThat(repaired.getThreadCount()).isEqualTo(2);
+            assertThat(repaired.getThreadTimestamp()).isGreaterThan(1L);
+            assertThat(repaired.getThreadName()).isEqualTo("Bob");
+        }
+        assertThat(messageService.reconcileThreadCounters()).isZero();
+    }
+
+    @Test
+    void startupBackfillRunsOnlyOnce() {
+        MessageDTO parent = threadOfTwo();
+        jdbcTemplate.update("UPDATE messages SET reply_count = 7 WHERE id = ?", parent.getId());
+
+        // Already ran when the context started, so this one is skipped and leaves the drift to the scheduled pass
+        threadCounterReconcileJob.backfill();
+        assertThat(messageService.getMessageDTO(parent.getId()).getThreadCount()).isEqualTo(7);
+
+        threadCounterReconcileJob.reconcile();
+        assertThat(messageService.getMessageDTO(parent.getId()).getThreadCount()).isEqualTo(2);
+    }
+
+    /** A parent by Alice with a reply by Alice, then one by Bob */
+    private MessageDTO threadOfTwo() {
+        MessageDTO parent = fixtures.post(alice, channel, "parent");
+        fixtures.reply(alice, parent, "first");
+        fixtures.reply(bob, parent, "second");
+        return parent;
+    }
+}
@@ -0,0 +1,138 @@
+package com.slack.server.service;
+
+import com.slack.server.TestFixtures;
+import com.slack.server.dto.MessageDTO;
+import com.slack.server.dto.UnreadCountDTO;
+import com.slack.server.job.UnreadCounterReconcileJob;
+import com.slack.server.model.Channel;
+import com.slack.server.model.Conversation;
+import com.slack.server.model.Member;
+import com.slack.server.model.User;
+import com.slack.server.model.Workspace;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(TestFixtures.class)
+class UnreadCounterTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Autowired
+    private ReadMarkerService readMarkerService;
+
+    @Autowired
+    private UnreadCounterReconcileJob unreadCounterReconcileJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Workspace workspace;
+    private Member alice;
+    private Member bob;
+    private Channel channel;
+
+    @BeforeEach
+    void setUp() {
+        User aliceUser = fixtures.user("Alice");
+        workspace = fixtures.workspace(aliceUser);
+        alice = fixtures.owner(workspace);
+        bob = fixtures.member(workspace, fixtures.user("Bob"));
+        channel = fixtures.channel(workspace);
+        fixtures.signIn(aliceUser);
+    }
+
+    @Test
+    void topLevelPostsAndDeletesMoveTheUnreadCount() {
+        MessageDTO first = fixtures.post(alice, channel, "one");
+        fixtures.post(alice, channel, "two");
+        MessageDTO third = fixtures.post(alice, channel, "three");
+        fixtures.reply(alice, first, "replies are not unread messages");
+        assertThat(channelUnread(bob)).isEqualTo(3);
+
+        messageService.deleteMessage(third.getId());
+
+        assertThat(channelUnread(bob)).isEqualTo(2);
+    }
+
+    @Test
+    void readMarkersCountUpToTheReadMessage() {
+        MessageDTO first = fixtures.post(alice, channel, "one");
+        fixtures.post(alice, channel, "two");
+        fixtures.post(alice, channel, "three");
+
+        assertThat(readMarkerService.markRead(bob.getId(), channel.getId(), null, first.getId()).getUnreadCount())
+            .isEqualTo(2);
+        assertThat(channelUnread(bob)).isEqualTo(2);
+
+        readMarkerService.markRead(bob.getId(), channel.getId(), null, null);
+        assertThat(channelUnread(bob)).isZero();
+
+        fixtures.post(alice, channel, "four");
+        assertThat(channelUnread(bob)).isEqualTo(1);
+    }
+
+    @Test
+    void conversationsCountTheSameWay() {
+        Conversation conversation = fixtures.conversation(alice, bob);
+        MessageDTO first = fixtures.post(alice, conversation, "one");
+        fixtures.post(alice, conversation, "two");
+
+        readMarkerService.markRead(bob.getId(), null, conversation.getId(), first.getId());
+
+        assertThat(readMarkerService.getUnreadCounts(workspace.getId(), bob.getId())).anySatisfy(count -> {
+            assertThat(count.getConversationId()).isEqualTo(conversation.getId());
+            assertThat(count.getUnreadCount()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void reconcileRepairsDriftedCounters() {
+        MessageDTO first = fixtures.post(alice, channel, "one");
+        fixtures.post(alice, channel, "two");
+        readMarkerService.markRead(bob.getId(), channel.getId(), null, first.getId());
+        jdbcTemplate.update("UPDATE channels SET message_count = 40 WHERE id = ?", channel.getId());
+        jdbcTemplate.update("UPDATE read_markers SET read_count = 9 WHERE channel_id = ? AND member_id = ?",
+            channel.getId(), bob.getId());
+
+        assertThat(readMarkerService.reconcileCounters()).isGreaterThanOrEqualTo(2);
+
+        assertThat(channelUnread(bob)).isEqualTo(1);
+        assertThat(readMarkerService.reconcileCounters()).isZero();
+    }
+
+    @Test
+    void startupBackfillRunsOnlyOnce() {
+        fixtures.post(alice, channel, "one");
+        jdbcTemplate.update("UPDATE channels SET message_count = 40 WHERE id = ?", channel.getId());
+
+        // Already ran when the context started, so this one is skipped and leaves the drift to the scheduled pass
+        unreadCounterReconcileJob.backfill();
+        assertThat(channelUnread(bob)).isEqualTo(40);
+
+        unreadCounterReconcileJob.reconcile();
+        assertThat(channelUnread(bob)).isEqualTo(1);
+    }
+
+    private int channelUnread(Member member) {
+        return readMarkerService.getUnreadCounts(workspace.getId(), member.getId()).stream()
+            .filter(count -> Objects.equals(count.getChannelId(), channel.getId()))
+            .mapToInt(UnreadCountDTO::getUnreadCount)
+            .findFirst()
+            .orElseThrow();
+    }
+}